@@ -0,0 +1,122 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.Query;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.attributes.CourseAttributes;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.entity.FeedbackResponse;
+import teammates.storage.entity.FeedbackResponseComment;
+
+/**
+ * Script to set the sections attribute of feedback responses and feedback response comments
+ * created before the attribute was introduced.
+ *
+ * Responses and comments without the attribute are not found when they are queried by section,
+ * so this script should be run right after the attribute is deployed.
+ *
+ */
+public class DataMigrationForSectionsInResponsesAndComments extends RemoteApiClient {
+
+    private static final CoursesDb coursesDb = new CoursesDb();
+    private static final boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.currentTimeMillis();
+
+        DataMigrationForSectionsInResponsesAndComments migrator =
+                new DataMigrationForSectionsInResponsesAndComments();
+        migrator.doOperationRemotely();
+
+        final long endTime = System.currentTimeMillis();
+        System.out.println("Total execution time: " + (endTime - startTime) + "ms");
+    }
+
+    @Override
+    protected void doOperation() {
+        @SuppressWarnings("deprecation")
+        List<CourseAttributes> courses = coursesDb.getAllCourses();
+
+        int numberOfResponsesWithoutSections = 0;
+        int numberOfCommentsWithoutSections = 0;
+        for (CourseAttributes course : courses) {
+            numberOfResponsesWithoutSections += migrateResponsesOfCourse(course.getId());
+            numberOfCommentsWithoutSections += migrateCommentsOfCourse(course.getId());
+        }
+
+        if (isPreview) {
+            System.out.println("There are/is " + numberOfResponsesWithoutSections
+                               + " response(s) and " + numberOfCommentsWithoutSections
+                               + " comment(s) without sections!");
+        } else {
+            // the modified entities are saved when the persistence manager is closed
+            PM.close();
+            System.out.println(numberOfResponsesWithoutSections + " response(s) and "
+                               + numberOfCommentsWithoutSections + " comment(s) have been updated!");
+        }
+    }
+
+    /**
+     * Previews or sets the sections attribute of the responses in the course.
+     * @return the number of responses without the sections attribute.
+     */
+    private int migrateResponsesOfCourse(String courseId) {
+        Query q = PM.newQuery(FeedbackResponse.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> responses = (List<FeedbackResponse>) q.execute(courseId);
+
+        int numberOfResponsesWithoutSections = 0;
+        for (FeedbackResponse response : responses) {
+            if (response.getSections() != null || JDOHelper.isDeleted(response)) {
+                continue;
+            }
+            numberOfResponsesWithoutSections++;
+
+            if (!isPreview) {
+                response.keepUpdateTimestamp = true;
+                response.updateSections();
+            }
+        }
+
+        System.out.println("Course " + courseId + ": " + numberOfResponsesWithoutSections
+                           + " response(s) without sections");
+        return numberOfResponsesWithoutSections;
+    }
+
+    /**
+     * Previews or sets the sections attribute of the response comments in the course.
+     * @return the number of comments without the sections attribute.
+     */
+    private int migrateCommentsOfCourse(String courseId) {
+        Query q = PM.newQuery(FeedbackResponseComment.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponseComment> comments = (List<FeedbackResponseComment>) q.execute(courseId);
+
+        int numberOfCommentsWithoutSections = 0;
+        for (FeedbackResponseComment comment : comments) {
+            if (comment.getSections() != null || JDOHelper.isDeleted(comment)) {
+                continue;
+            }
+            numberOfCommentsWithoutSections++;
+
+            if (!isPreview) {
+                comment.updateSections();
+            }
+        }
+
+        System.out.println("Course " + courseId + ": " + numberOfCommentsWithoutSections
+                           + " comment(s) without sections");
+        return numberOfCommentsWithoutSections;
+    }
+
+}
@@ -2,11 +2,15 @@ package teammates.common.datatransfer;
 
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
+import teammates.common.util.Const;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Contains a list of students and instructors in a course. Useful for caching
@@ -18,6 +22,12 @@ public class CourseRoster {
     Map<String, StudentAttributes> studentListByEmail = new HashMap<String, StudentAttributes>();
     Map<String, InstructorAttributes> instructorListByEmail = new HashMap<String, InstructorAttributes>();
     
+    /** The students of each team, built on first use. */
+    private Map<String, List<StudentAttributes>> studentListByTeam;
+    
+    /** Identifies the state of the course the roster was read in; null if unknown. */
+    private String version;
+    
     public CourseRoster(List<StudentAttributes> students, List<InstructorAttributes> instructors) {
         populateStuentListByEmail(students);
         populateInstructorListByEmail(instructors);
@@ -31,6 +41,18 @@ public class CourseRoster {
         return new ArrayList<InstructorAttributes>(instructorListByEmail.values());
     }
     
+    /**
+     * @return the version of the course roster this roster was read as, which changes whenever the
+     *         students or instructors of the course change, or null if the version is unknown.
+     */
+    public String getVersion() {
+        return version;
+    }
+    
+    public void setVersion(String version) {
+        this.version = version;
+    }
+    
     /**
      * Checks if an instructor is the instructor of a course by providing an email address.
      * @param instructorEmail email of the instructor to be checked.
@@ -64,6 +86,44 @@ public class CourseRoster {
         return instructorListByEmail.get(email);
     }
     
+    /**
+     * @return the names of the teams which have at least one student in the course.
+     */
+    public Set<String> getTeamNames() {
+        return Collections.unmodifiableSet(getStudentListByTeam().keySet());
+    }
+    
+    /**
+     * @return the students in the team, or an empty list if there is no such team in the course.
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName) {
+        List<StudentAttributes> students = getStudentListByTeam().get(teamName);
+        return students == null ? new ArrayList<StudentAttributes>() : new ArrayList<StudentAttributes>(students);
+    }
+    
+    /**
+     * @return the section of the team, or {@link Const#DEFAULT_SECTION} if there is no such team in the course.
+     */
+    public String getSectionForTeam(String teamName) {
+        List<StudentAttributes> students = getStudentListByTeam().get(teamName);
+        return students == null ? Const.DEFAULT_SECTION : students.get(0).section;
+    }
+    
+    private Map<String, List<StudentAttributes>> getStudentListByTeam() {
+        if (studentListByTeam == null) {
+            studentListByTeam = new LinkedHashMap<String, List<StudentAttributes>>();
+            for (StudentAttributes student : studentListByEmail.values()) {
+                List<StudentAttributes> teamMembers = studentListByTeam.get(student.team);
+                if (teamMembers == null) {
+                    teamMembers = new ArrayList<StudentAttributes>();
+                    studentListByTeam.put(student.team, teamMembers);
+                }
+                teamMembers.add(student);
+            }
+        }
+        return studentListByTeam;
+    }
+
     private void populateStuentListByEmail(List<StudentAttributes> students) {
         
         if (students == null) {
@@ -0,0 +1,281 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.datatransfer.questions.FeedbackConstantSumResponseDetails;
+import teammates.common.datatransfer.questions.FeedbackNumericalScaleResponseDetails;
+import teammates.common.datatransfer.questions.FeedbackQuestionType;
+
+/**
+ * The values that the result statistics of a numerical scale or constant sum question are computed from,
+ * aggregated per recipient and per option so that responses can be added and removed one at a time.
+ *
+ * <p>The values received by each recipient or option are kept as counts per distinct value rather than as
+ * running totals, so that the minimum and maximum are still known after a response is removed and
+ * averages do not accumulate rounding errors. The aggregate also identifies the responses it was computed
+ * from, so that it is only used for statistics of exactly those responses.
+ */
+public class FeedbackResponseAggregate {
+
+    private int numResponses;
+    private long responsesFingerprint;
+    // declared as HashMaps so that cached aggregates are read back as the same kind of map
+    private HashMap<String, ValueStatistics> statisticsPerRecipient = new HashMap<String, ValueStatistics>();
+    private HashMap<String, ValueStatistics> statisticsPerOption = new HashMap<String, ValueStatistics>();
+
+    /**
+     * @return true if the statistics of questions of the type are computed from aggregates.
+     */
+    public static boolean isAggregated(FeedbackQuestionType questionType) {
+        return questionType == FeedbackQuestionType.NUMSCALE || questionType == FeedbackQuestionType.CONSTSUM;
+    }
+
+    /**
+     * Creates an aggregate of the given responses, which must all belong to the same question.
+     */
+    public static FeedbackResponseAggregate of(List<FeedbackResponseAttributes> responses) {
+        FeedbackResponseAggregate aggregate = new FeedbackResponseAggregate();
+        for (FeedbackResponseAttributes response : responses) {
+            aggregate.add(response);
+        }
+        return aggregate;
+    }
+
+    public void add(FeedbackResponseAttributes response) {
+        numResponses++;
+        responsesFingerprint ^= getFingerprint(response);
+        for (Double value : getValues(response)) {
+            addValue(statisticsPerRecipient, response.recipient, value, isSelfResponse(response));
+        }
+        if (response.feedbackQuestionType == FeedbackQuestionType.CONSTSUM) {
+            List<Double> values = getValues(response);
+            for (int i = 0; i < values.size(); i++) {
+                addValue(statisticsPerOption, String.valueOf(i), values.get(i), false);
+            }
+        }
+    }
+
+    /**
+     * Removes a response that was added before, with the values it was added with.
+     * @return false if the response could not have been added before, in which case the aggregate
+     *         no longer matches any set of responses and must not be used.
+     */
+    public boolean remove(FeedbackResponseAttributes response) {
+        numResponses--;
+        responsesFingerprint ^= getFingerprint(response);
+        boolean isRemoved = numResponses >= 0;
+        for (Double value : getValues(response)) {
+            isRemoved &= removeValue(statisticsPerRecipient, response.recipient, value, isSelfResponse(response));
+        }
+        if (response.feedbackQuestionType == FeedbackQuestionType.CONSTSUM) {
+            List<Double> values = getValues(response);
+            for (int i = 0; i < values.size(); i++) {
+                isRemoved &= removeValue(statisticsPerOption, String.valueOf(i), values.get(i), false);
+            }
+        }
+        return isRemoved;
+    }
+
+    /**
+     * @return true if the aggregate was computed from exactly the given responses.
+     */
+    public boolean isAggregateOf(List<FeedbackResponseAttributes> responses) {
+        if (responses.size() != numResponses) {
+            return false;
+        }
+        long fingerprint = 0;
+        for (FeedbackResponseAttributes response : responses) {
+            fingerprint ^= getFingerprint(response);
+        }
+        return fingerprint == responsesFingerprint;
+    }
+
+    public int getNumResponses() {
+        return numResponses;
+    }
+
+    /**
+     * @return the statistics of the values received by each recipient, keyed by the recipient.
+     */
+    public Map<String, ValueStatistics> getStatisticsPerRecipient() {
+        return statisticsPerRecipient;
+    }
+
+    /**
+     * @return the statistics of the points received by each option of a constant sum question,
+     *         keyed by the index of the option.
+     */
+    public Map<String, ValueStatistics> getStatisticsPerOption() {
+        return statisticsPerOption;
+    }
+
+    private static List<Double> getValues(FeedbackResponseAttributes response) {
+        List<Double> values = new ArrayList<Double>();
+        switch (response.feedbackQuestionType) {
+        case NUMSCALE:
+            values.add(((FeedbackNumericalScaleResponseDetails) response.getResponseDetails()).getAnswer());
+            break;
+        case CONSTSUM:
+            FeedbackConstantSumResponseDetails constSumDetails =
+                    (FeedbackConstantSumResponseDetails) response.getResponseDetails();
+            for (Integer points : constSumDetails.getAnswerList()) {
+                values.add(points.doubleValue());
+            }
+            break;
+        default:
+            break;
+        }
+        return values;
+    }
+
+    private static boolean isSelfResponse(FeedbackResponseAttributes response) {
+        return response.giver.equalsIgnoreCase(response.recipient);
+    }
+
+    private static void addValue(Map<String, ValueStatistics> statistics, String key, double value,
+                                 boolean isSelfResponse) {
+        ValueStatistics valueStatistics = statistics.get(key);
+        if (valueStatistics == null) {
+            valueStatistics = new ValueStatistics();
+            statistics.put(key, valueStatistics);
+        }
+        valueStatistics.add(value, isSelfResponse);
+    }
+
+    private static boolean removeValue(Map<String, ValueStatistics> statistics, String key, double value,
+                                       boolean isSelfResponse) {
+        ValueStatistics valueStatistics = statistics.get(key);
+        if (valueStatistics == null || !valueStatistics.remove(value, isSelfResponse)) {
+            return false;
+        }
+        if (valueStatistics.getCount() == 0) {
+            statistics.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Identifies a response within its question, together with its answer, so that an aggregate is not
+     * used for responses whose answers were changed since. The fingerprints of responses are combined
+     * with XOR so that responses can be removed from the combined fingerprint in any order.
+     */
+    private static long getFingerprint(FeedbackResponseAttributes response) {
+        // 64-bit FNV-1a, as String#hashCode collides too easily for emails
+        long hash = 0xcbf29ce484222325L;
+        String identifier = response.giver + '\u0000' + response.recipient + '\u0000'
+                            + response.responseMetaData.getValue();
+        for (int i = 0; i < identifier.length(); i++) {
+            hash ^= identifier.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The values received by a recipient or an option.
+     */
+    public static class ValueStatistics {
+        private int count;
+        private int countExcludingSelf;
+        private TreeMap<Double, Integer> valueCounts = new TreeMap<Double, Integer>();
+        private TreeMap<Double, Integer> valueCountsExcludingSelf = new TreeMap<Double, Integer>();
+
+        void add(double value, boolean isSelfResponse) {
+            count++;
+            increment(valueCounts, value, 1);
+            if (!isSelfResponse) {
+                countExcludingSelf++;
+                increment(valueCountsExcludingSelf, value, 1);
+            }
+        }
+
+        boolean remove(double value, boolean isSelfResponse) {
+            if (!valueCounts.containsKey(value)
+                    || !isSelfResponse && !valueCountsExcludingSelf.containsKey(value)) {
+                return false;
+            }
+            count--;
+            increment(valueCounts, value, -1);
+            if (!isSelfResponse) {
+                countExcludingSelf--;
+                increment(valueCountsExcludingSelf, value, -1);
+            }
+            return true;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getMin() {
+            return valueCounts.firstKey();
+        }
+
+        public double getMax() {
+            return valueCounts.lastKey();
+        }
+
+        public double getAverage() {
+            return getTotal(valueCounts) / count;
+        }
+
+        /**
+         * @return null if the recipient has only a self response.
+         */
+        public Double getAverageExcludingSelf() {
+            return countExcludingSelf == 0 ? null : getTotal(valueCountsExcludingSelf) / countExcludingSelf;
+        }
+
+        /**
+         * @return up to {@code limit} of the lowest values, in ascending order.
+         */
+        public List<Double> getLowestValues(int limit) {
+            List<Double> values = new ArrayList<Double>();
+            for (Map.Entry<Double, Integer> valueCount : valueCounts.entrySet()) {
+                for (int i = 0; i < valueCount.getValue() && values.size() < limit; i++) {
+                    values.add(valueCount.getKey());
+                }
+            }
+            return values;
+        }
+
+        /**
+         * @return up to {@code limit} of the highest values, in ascending order.
+         */
+        public List<Double> getHighestValues(int limit) {
+            List<Double> values = new ArrayList<Double>();
+            for (Map.Entry<Double, Integer> valueCount : valueCounts.descendingMap().entrySet()) {
+                for (int i = 0; i < valueCount.getValue() && values.size() < limit; i++) {
+                    values.add(valueCount.getKey());
+                }
+            }
+            Collections.reverse(values);
+            return values;
+        }
+
+        private static double getTotal(TreeMap<Double, Integer> valueCounts) {
+            double total = 0;
+            for (Map.Entry<Double, Integer> valueCount : valueCounts.entrySet()) {
+                total += valueCount.getKey() * valueCount.getValue();
+            }
+            return total;
+        }
+
+        private static void increment(TreeMap<Double, Integer> valueCounts, double value, int change) {
+            Integer valueCount = valueCounts.get(value);
+            int newCount = (valueCount == null ? 0 : valueCount) + change;
+            if (newCount == 0) {
+                valueCounts.remove(value);
+            } else {
+                valueCounts.put(value, newCount);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+
+/**
+ * A page of feedback responses, together with the cursor from which the next page can be read.
+ */
+public class FeedbackResponsesPage {
+
+    private final List<FeedbackResponseAttributes> responses;
+    private final String nextCursor;
+
+    public FeedbackResponsesPage(List<FeedbackResponseAttributes> responses, String nextCursor) {
+        this.responses = responses;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FeedbackResponseAttributes> getResponses() {
+        return responses;
+    }
+
+    /**
+     * @return the cursor to pass when reading the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNextPage() {
+        return nextCursor != null;
+    }
+
+}
@@ -1,6 +1,7 @@
 package teammates.common.datatransfer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -17,6 +18,8 @@ import teammates.common.datatransfer.attributes.FeedbackResponseCommentAttribute
 import teammates.common.datatransfer.attributes.FeedbackSessionAttributes;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
+import teammates.common.datatransfer.questions.FeedbackQuestionDetails;
+import teammates.common.datatransfer.questions.FeedbackQuestionType;
 import teammates.common.util.Const;
 import teammates.common.util.Logger;
 import teammates.common.util.SanitizationHelper;
@@ -32,6 +35,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     
     private static final Logger log = Logger.getLogger();
     
+    private static final char SCOPE_SEPARATOR = '\u0000';
+    
     public FeedbackSessionAttributes feedbackSession;
     public List<FeedbackResponseAttributes> responses;
     public Map<String, FeedbackQuestionAttributes> questions;
@@ -71,35 +76,41 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     */
     public Map<String, Set<String>> sectionTeamNameTable;
 
+    // The roster does not change once the bundle is built, so these are sorted once and copied
+    // whenever the possible givers or recipients of a question are needed.
+    private List<String> sortedStudentEmails;
+    private List<String> sortedInstructorEmails;
+    private List<String> sortedTeams;
+
+    /**
+     * Keeps the statistics of questions so that they can be reused by later requests;
+     * null if statistics are computed afresh every time.
+     */
+    private QuestionStatisticsStore statisticsStore;
+
+    /**
+     * Provides the aggregates of all the responses of questions; null if statistics are always
+     * computed from the responses in the bundle.
+     */
+    private ResponseAggregateStore aggregateStore;
+    private Map<String, FeedbackResponseAggregate> responseAggregates = new HashMap<String, FeedbackResponseAggregate>();
+
     // Sorts by giverName > recipientName > qnNumber
     // General questions and team questions at the bottom.
-    public Comparator<FeedbackResponseAttributes> compareByGiverRecipientQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByGiverRecipientQuestion = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.giverSection.compareTo(o2.giverSection);
             if (order != 0) {
                 return order;
             }
-            
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-            
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -118,27 +129,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by giverName > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByGiverRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByGiverRecipient = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            int order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -153,42 +152,25 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by teamName > giverName > recipientName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByTeamGiverRecipientQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamGiverRecipientQuestion = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.giverSection.compareTo(o2.giverSection);
             if (order != 0) {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String t1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                : getTeamNameForEmail(o1.giver);
-            String t2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                : getTeamNameForEmail(o2.giver);
-            order = compareByNames(t1, t2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -207,34 +189,20 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by recipientName > giverName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByRecipientGiverQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByRecipientGiverQuestion = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.recipientSection.compareTo(o2.recipientSection);
             if (order != 0) {
                 return order;
             }
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
-            
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -253,42 +221,25 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by teamName > recipientName > giverName > qnNumber
-    private Comparator<FeedbackResponseAttributes> compareByTeamRecipientGiverQuestion =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamRecipientGiverQuestion = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.recipientSection.compareTo(o2.recipientSection);
             if (order != 0) {
                 return order;
             }
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String t1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                    : getTeamNameForEmail(o1.recipient);
-            String t2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                    : getTeamNameForEmail(o2.recipient);
-            order = compareByNames(t1, t2, isRecipientVisible1, isRecipientVisible2);
+
+            order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -307,23 +258,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by giverName > question > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByGiverQuestionTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByGiverQuestionTeamRecipient = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.giverSection.compareTo(o2.giverSection);
             if (order != 0) {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -332,23 +275,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             if (order != 0) {
                 return order;
             }
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String t1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                    : getTeamNameForEmail(o1.recipient);
-            String t2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                    : getTeamNameForEmail(o2.recipient);
-            order = compareByNames(t1, t2, isRecipientVisible1, isRecipientVisible2);
+
+            order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
-            
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -362,33 +295,20 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by giverTeam > giverName > question > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByTeamGiverQuestionTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamGiverQuestionTeamRecipient = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String giverSection1 = o1.giverSection;
-            String giverSection2 = o2.giverSection;
-            int order = giverSection1.compareTo(giverSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.giverSection.compareTo(o2.giverSection);
             if (order != 0) {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-
-
-            String giverTeam1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                        : getTeamNameForEmail(o1.giver);
-            String giverTeam2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                        : getTeamNameForEmail(o2.giver);
-            order = compareByNames(giverTeam1, giverTeam2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -397,23 +317,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             if (order != 0) {
                 return order;
             }
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String receiverTeam1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                               : getTeamNameForEmail(o1.recipient);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                               : getTeamNameForEmail(o2.recipient);
-            order = compareByNames(receiverTeam1, receiverTeam2, isRecipientVisible1, isRecipientVisible2);
+
+            order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
-            
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -427,23 +337,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by recipientName > question > giverTeam > giverName
-    private final Comparator<FeedbackResponseAttributes> compareByRecipientQuestionTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
+    private final Comparator<ResponseSortKey> compareByRecipientQuestionTeamGiver = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.recipientSection.compareTo(o2.recipientSection);
             if (order != 0) {
                 return order;
             }
 
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -453,21 +355,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String t1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                : getTeamNameForEmail(o1.giver);
-            String t2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                : getTeamNameForEmail(o2.giver);
-            order = compareByNames(t1, t2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -477,37 +370,24 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             }
             
             return o1.getId().compareTo(o2.getId());
-
         }
     };
 
     // Sorts by recipientTeam > recipientName > question > giverTeam > giverName
-    private Comparator<FeedbackResponseAttributes> compareByTeamRecipientQuestionTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamRecipientQuestionTeamGiver = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            
-            String recipientSection1 = o1.recipientSection;
-            String recipientSection2 = o2.recipientSection;
-            int order = recipientSection1.compareTo(recipientSection2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = o1.recipientSection.compareTo(o2.recipientSection);
             if (order != 0) {
                 return order;
             }
 
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-            String recipientTeam1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                                : getTeamNameForEmail(o1.recipient);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                                : getTeamNameForEmail(o2.recipient);
-            order = compareByNames(recipientTeam1, recipientTeam2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -517,21 +397,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-       
-            String giverTeam1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                        : getTeamNameForEmail(o1.giver);
-            String giverTeam2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                        : getTeamNameForEmail(o2.giver);
-            order = compareByNames(giverTeam1, giverTeam2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -545,17 +416,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by recipientTeam > question > recipientName > giverTeam > giverName
-    private Comparator<FeedbackResponseAttributes> compareByTeamQuestionRecipientTeamGiver =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamQuestionRecipientTeamGiver = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-            String recipientTeam1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                                : getTeamNameForEmail(o1.recipient);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                                : getTeamNameForEmail(o2.recipient);
-            int order = compareByNames(recipientTeam1, recipientTeam2, isRecipientVisible1, isRecipientVisible2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -565,27 +429,17 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String giverTeam1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                        : getTeamNameForEmail(o1.giver);
-            String giverTeam2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                        : getTeamNameForEmail(o2.giver);
-            order = compareByNames(giverTeam1, giverTeam2, isRecipientVisible1, isRecipientVisible2);
+            order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -600,18 +454,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by giverTeam > question > giverName > recipientTeam > recipientName
-    private Comparator<FeedbackResponseAttributes> compareByTeamQuestionGiverTeamRecipient =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByTeamQuestionGiverTeamRecipient = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
-            
-            String giverTeam1 = getTeamNameForEmail(o1.giver).isEmpty() ? getNameForEmail(o1.giver)
-                                                                        : getTeamNameForEmail(o1.giver);
-            String giverTeam2 = getTeamNameForEmail(o2.giver).isEmpty() ? getNameForEmail(o2.giver)
-                                                                        : getTeamNameForEmail(o2.giver);
-            int order = compareByNames(giverTeam1, giverTeam2, isGiverVisible1, isGiverVisible2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
+            int order = compareByNames(o1.giverTeam, o2.giverTeam, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
@@ -621,29 +467,17 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String giverName1 = emailNameTable.get(o1.giver);
-            String giverName2 = emailNameTable.get(o2.giver);
-            order = compareByNames(giverName1, giverName2, isGiverVisible1, isGiverVisible2);
+            order = compareByNames(o1.giverName, o2.giverName, o1.isGiverVisible, o2.isGiverVisible);
             if (order != 0) {
                 return order;
             }
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
-
-            String receiverTeam1 = getTeamNameForEmail(o1.recipient).isEmpty() ? getNameForEmail(o1.recipient)
-                                                                               : getTeamNameForEmail(o1.recipient);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipient).isEmpty() ? getNameForEmail(o2.recipient)
-                                                                               : getTeamNameForEmail(o2.recipient);
-            order = compareByNames(receiverTeam1, receiverTeam2, isRecipientVisible1, isRecipientVisible2);
+
+            order = compareByNames(o1.recipientTeam, o2.recipientTeam, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
 
-            String recipientName1 = emailNameTable.get(o1.recipient);
-            String recipientName2 = emailNameTable.get(o2.recipient);
-            order = compareByNames(recipientName1, recipientName2, isRecipientVisible1, isRecipientVisible2);
-            
+            order = compareByNames(o1.recipientName, o2.recipientName, o1.isRecipientVisible, o2.isRecipientVisible);
             if (order != 0) {
                 return order;
             }
@@ -658,46 +492,37 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     };
 
     // Sorts by recipientName > recipientEmail > giverName > giverEmail
-    private Comparator<FeedbackResponseAttributes> compareByRecipientNameEmailGiverNameEmail =
-            new Comparator<FeedbackResponseAttributes>() {
+    private Comparator<ResponseSortKey> compareByRecipientNameEmailGiverNameEmail = new Comparator<ResponseSortKey>() {
         @Override
-        public int compare(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-            
-            boolean isRecipientVisible1 = isRecipientVisible(o1);
-            boolean isRecipientVisible2 = isRecipientVisible(o2);
+        public int compare(ResponseSortKey o1, ResponseSortKey o2) {
             // Compare by Recipient Name
-            int recipientNameCompareResult = compareByNames(getNameForEmail(o1.recipient),
-                                                            getNameForEmail(o2.recipient),
-                                                            isRecipientVisible1, isRecipientVisible2);
+            int recipientNameCompareResult = compareByNames(o1.recipientDisplayName, o2.recipientDisplayName,
+                                                            o1.isRecipientVisible, o2.isRecipientVisible);
             if (recipientNameCompareResult != 0) {
                 return recipientNameCompareResult;
             }
             
             // Compare by Recipient Email
-            int recipientEmailCompareResult = compareByNames(o1.recipient, o2.recipient,
-                                                             isRecipientVisible1, isRecipientVisible2);
+            int recipientEmailCompareResult = compareByNames(o1.response.recipient, o2.response.recipient,
+                                                             o1.isRecipientVisible, o2.isRecipientVisible);
             if (recipientEmailCompareResult != 0) {
                 return recipientEmailCompareResult;
             }
             
-            boolean isGiverVisible1 = isGiverVisible(o1);
-            boolean isGiverVisible2 = isGiverVisible(o2);
             // Compare by Giver Name
-            int giverNameCompareResult = compareByNames(getNameForEmail(o1.giver),
-                                                        getNameForEmail(o2.giver),
-                                                        isGiverVisible1, isGiverVisible2);
+            int giverNameCompareResult = compareByNames(o1.giverDisplayName, o2.giverDisplayName,
+                                                        o1.isGiverVisible, o2.isGiverVisible);
             if (giverNameCompareResult != 0) {
                 return giverNameCompareResult;
             }
             
             // Compare by Giver Email
-            int giverEmailCompareResult = compareByNames(o1.giver, o2.giver,
-                                                         isGiverVisible1, isGiverVisible2);
+            int giverEmailCompareResult = compareByNames(o1.response.giver, o2.response.giver,
+                                                         o1.isGiverVisible, o2.isGiverVisible);
             if (giverEmailCompareResult != 0) {
                 return giverEmailCompareResult;
             }
             
-            
             int responseStringResult = compareByResponseString(o1, o2);
             if (responseStringResult != 0) {
                 return responseStringResult;
@@ -747,6 +572,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         this.responseComments = responseComments;
         this.actualResponses = new ArrayList<FeedbackResponseAttributes>();
 
+        shareRepeatedValues();
+
         // We change user email to team name here for display purposes.
         for (FeedbackResponseAttributes response : responses) {
             if (questions.get(response.feedbackQuestionId).giverType == FeedbackParticipantType.TEAMS
@@ -770,6 +597,53 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
     
 
+    /**
+     * Makes the responses share equal strings and visibility entries.
+     * Each response read from the Datastore holds its own copy of the course, session, question,
+     * participant and section strings, which take up most of the memory of results of large sessions
+     * as the same few values are repeated for every response.
+     */
+    private void shareRepeatedValues() {
+        Map<String, String> sharedStrings = new HashMap<String, String>();
+        for (FeedbackResponseAttributes response : responses) {
+            response.courseId = getSharedString(sharedStrings, response.courseId);
+            response.feedbackSessionName = getSharedString(sharedStrings, response.feedbackSessionName);
+            response.feedbackQuestionId = getSharedString(sharedStrings, response.feedbackQuestionId);
+            response.giver = getSharedString(sharedStrings, response.giver);
+            response.recipient = getSharedString(sharedStrings, response.recipient);
+            response.giverSection = getSharedString(sharedStrings, response.giverSection);
+            response.recipientSection = getSharedString(sharedStrings, response.recipientSection);
+        }
+
+        // visibility entries are never modified, so responses with the same visibility can share an entry
+        Map<String, boolean[]> sharedVisibilities = new HashMap<String, boolean[]>();
+        for (Map.Entry<String, boolean[]> entry : visibilityTable.entrySet()) {
+            boolean[] visibility = entry.getValue();
+            if (visibility == null) {
+                continue;
+            }
+            String visibilityKey = Arrays.toString(visibility);
+            boolean[] sharedVisibility = sharedVisibilities.get(visibilityKey);
+            if (sharedVisibility == null) {
+                sharedVisibilities.put(visibilityKey, visibility);
+            } else {
+                entry.setValue(sharedVisibility);
+            }
+        }
+    }
+
+    private static String getSharedString(Map<String, String> sharedStrings, String value) {
+        if (value == null) {
+            return null;
+        }
+        String sharedValue = sharedStrings.get(value);
+        if (sharedValue == null) {
+            sharedStrings.put(value, value);
+            return value;
+        }
+        return sharedValue;
+    }
+
     /**
      * Hides response names/emails and teams that are not visible to the current user.
      * Replaces the giver/recipient email in responses to an email with two "@@"s
@@ -1179,10 +1053,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             possibleGivers.add(studentRecipient.email);
             break;
         case OWN_TEAM_MEMBERS:
-            possibleGivers.retainAll(getSortedListOfTeamMembersEmailsExcludingSelf(studentRecipient));
+            possibleGivers.retainAll(new HashSet<String>(getSortedListOfTeamMembersEmailsExcludingSelf(studentRecipient)));
             break;
         case OWN_TEAM_MEMBERS_INCLUDING_SELF:
-            possibleGivers.retainAll(getSortedListOfTeamMembersEmails(studentRecipient));
+            possibleGivers.retainAll(new HashSet<String>(getSortedListOfTeamMembersEmails(studentRecipient)));
             break;
         default:
             break;
@@ -1452,10 +1326,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * Instructors are not present as a team.
      */
     private List<String> getSortedListOfTeams() {
-        List<String> teams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
-        teams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
-        Collections.sort(teams);
-        return teams;
+        if (sortedTeams == null) {
+            sortedTeams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
+            sortedTeams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
+            Collections.sort(sortedTeams);
+        }
+        return new ArrayList<String>(sortedTeams);
     }
 
     /**
@@ -1494,13 +1370,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of student emails, sorted by section name
      */
     private List<String> getSortedListOfStudentEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<StudentAttributes> students = roster.getStudents();
-        StudentAttributes.sortBySectionName(students);
-        for (StudentAttributes student : students) {
-            emailList.add(student.email);
+        if (sortedStudentEmails == null) {
+            sortedStudentEmails = new ArrayList<String>();
+            List<StudentAttributes> students = roster.getStudents();
+            StudentAttributes.sortBySectionName(students);
+            for (StudentAttributes student : students) {
+                sortedStudentEmails.add(student.email);
+            }
         }
-        return emailList;
+        return new ArrayList<String>(sortedStudentEmails);
     }
 
     /**
@@ -1508,13 +1386,14 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of instructor emails, sorted alphabetically
      */
     private List<String> getSortedListOfInstructorEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<InstructorAttributes> instructors = roster.getInstructors();
-        for (InstructorAttributes instructor : instructors) {
-            emailList.add(instructor.email);
+        if (sortedInstructorEmails == null) {
+            sortedInstructorEmails = new ArrayList<String>();
+            for (InstructorAttributes instructor : roster.getInstructors()) {
+                sortedInstructorEmails.add(instructor.email);
+            }
+            Collections.sort(sortedInstructorEmails);
         }
-        Collections.sort(emailList);
-        return emailList;
+        return new ArrayList<String>(sortedInstructorEmails);
     }
 
     /**
@@ -1530,6 +1409,105 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return response.getResponseDetails().getAnswerCsv(response, question, this);
     }
 
+    /**
+     * Used for instructor and student feedback results views.
+     * @see FeedbackQuestionDetails#getQuestionResultStatisticsHtml
+     */
+    public String getQuestionResultStatisticsHtml(List<FeedbackResponseAttributes> responses,
+                                                  FeedbackQuestionAttributes question,
+                                                  String studentEmail, String view) {
+        FeedbackQuestionDetails questionDetails = question.getQuestionDetails();
+        if (!isStatisticsStored(question)) {
+            return questionDetails.getQuestionResultStatisticsHtml(responses, question, studentEmail, this, view);
+        }
+        
+        String scope = "html" + SCOPE_SEPARATOR + view + SCOPE_SEPARATOR + studentEmail
+                       + SCOPE_SEPARATOR + getResponsesFingerprint(responses);
+        String statistics = statisticsStore.get(question.getId(), scope);
+        if (statistics == null) {
+            statistics = questionDetails.getQuestionResultStatisticsHtml(responses, question, studentEmail, this, view);
+            statisticsStore.put(question.getId(), scope, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Used for feedback results downloads.
+     * @see FeedbackQuestionDetails#getQuestionResultStatisticsCsv
+     */
+    public String getQuestionResultStatisticsCsv(List<FeedbackResponseAttributes> responses,
+                                                 FeedbackQuestionAttributes question) {
+        FeedbackQuestionDetails questionDetails = question.getQuestionDetails();
+        if (!isStatisticsStored(question)) {
+            return questionDetails.getQuestionResultStatisticsCsv(responses, question, this);
+        }
+        
+        String scope = "csv" + SCOPE_SEPARATOR + getResponsesFingerprint(responses);
+        String statistics = statisticsStore.get(question.getId(), scope);
+        if (statistics == null) {
+            statistics = questionDetails.getQuestionResultStatisticsCsv(responses, question, this);
+            statisticsStore.put(question.getId(), scope, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Contribution question statistics depend on responses other than those shown,
+     * so they are never stored.
+     */
+    private boolean isStatisticsStored(FeedbackQuestionAttributes question) {
+        return statisticsStore != null && question.questionType != FeedbackQuestionType.CONTRIB;
+    }
+
+    /**
+     * Identifies the responses that statistics are computed from, as seen by the current viewer.
+     * The responses are hashed rather than listed, so that the key stays short however many
+     * responses are shown; this visits each response once, as rendering them does anyway.
+     */
+    private String getResponsesFingerprint(List<FeedbackResponseAttributes> responses) {
+        // 64-bit FNV-1a, as String#hashCode collides too easily for emails
+        long hash = 0xcbf29ce484222325L;
+        for (FeedbackResponseAttributes response : responses) {
+            boolean[] visibility = visibilityTable.get(response.getId());
+            hash = hash(hash, response.getId());
+            hash = hash(hash, response.giver);
+            hash = hash(hash, response.recipient);
+            hash = hash(hash, visibility == null ? "" : visibility[0] + "," + visibility[1]);
+        }
+        return responses.size() + "," + Long.toHexString(hash);
+    }
+
+    private static long hash(long hash, String value) {
+        long result = hash;
+        String hashedValue = value == null ? "" : value;
+        for (int i = 0; i < hashedValue.length(); i++) {
+            result ^= hashedValue.charAt(i);
+            result *= 0x100000001b3L;
+        }
+        result ^= SCOPE_SEPARATOR;
+        return result * 0x100000001b3L;
+    }
+
+    /**
+     * Gets the aggregate of the given responses of a numerical scale or constant sum question.
+     * The stored aggregate of all the responses of the question is used if the bundle has a store,
+     * i.e. it covers all the responses of the session, and the aggregate was computed from exactly
+     * the given responses, which is not the case if the store is out of date.
+     */
+    public FeedbackResponseAggregate getResponseAggregate(FeedbackQuestionAttributes question,
+                                                          List<FeedbackResponseAttributes> responses) {
+        if (aggregateStore != null) {
+            if (!responseAggregates.containsKey(question.getId())) {
+                responseAggregates.put(question.getId(), aggregateStore.get(question));
+            }
+            FeedbackResponseAggregate aggregate = responseAggregates.get(question.getId());
+            if (aggregate != null && aggregate.isAggregateOf(responses)) {
+                return aggregate;
+            }
+        }
+        return FeedbackResponseAggregate.of(responses);
+    }
+
     public FeedbackResponseAttributes getActualResponse(FeedbackResponseAttributes response) {
         FeedbackResponseAttributes actualResponse = null;
         for (FeedbackResponseAttributes resp : actualResponses) {
@@ -1674,6 +1652,14 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                                                   .getQuestionText());
     }
 
+    /**
+     * Sorts the given responses, which must be from this bundle, by giver > recipient > question number.
+     * General questions and team questions are placed at the bottom.
+     */
+    public void sortByGiverRecipientQuestion(List<FeedbackResponseAttributes> responsesToSort) {
+        sortResponses(responsesToSort, compareByGiverRecipientQuestion);
+    }
+
     // TODO: make responses to the student calling this method always on top.
     /**
      * Gets the questions and responses in this bundle as a map.
@@ -1704,7 +1690,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
 
         for (List<FeedbackResponseAttributes> responsesForQuestion : sortedMap.values()) {
-            Collections.sort(responsesForQuestion, compareByGiverRecipient);
+            sortResponses(responsesForQuestion, compareByGiverRecipient);
         }
 
         return sortedMap;
@@ -1732,7 +1718,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
 
         for (List<FeedbackResponseAttributes> responsesForQuestion : sortedMap.values()) {
-            Collections.sort(responsesForQuestion, compareByRecipientNameEmailGiverNameEmail);
+            sortResponses(responsesForQuestion, compareByRecipientNameEmailGiverNameEmail);
         }
 
         return sortedMap;
@@ -1743,7 +1729,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
 
-        Collections.sort(responses, compareByTeamQuestionRecipientTeamGiver);
+        sortResponses(responses, compareByTeamQuestionRecipientTeamGiver);
 
         for (FeedbackResponseAttributes response : responses) {
             String recipientTeam = getTeamNameForEmail(response.recipient);
@@ -1777,7 +1763,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
         
 
-        Collections.sort(responses, compareByTeamQuestionGiverTeamRecipient);
+        sortResponses(responses, compareByTeamQuestionGiverTeamRecipient);
 
 
         for (FeedbackResponseAttributes response : responses) {
@@ -1817,9 +1803,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
 
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamRecipientQuestionTeamGiver);
+            sortResponses(responses, compareByTeamRecipientQuestionTeamGiver);
         } else {
-            Collections.sort(responses, compareByRecipientQuestionTeamGiver);
+            sortResponses(responses, compareByRecipientQuestionTeamGiver);
         }
         
         for (FeedbackResponseAttributes response : responses) {
@@ -1865,9 +1851,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamRecipientGiverQuestion);
+            sortResponses(responses, compareByTeamRecipientGiverQuestion);
         } else {
-            Collections.sort(responses, compareByRecipientGiverQuestion);
+            sortResponses(responses, compareByRecipientGiverQuestion);
         }
         
         for (FeedbackResponseAttributes response : responses) {
@@ -1914,9 +1900,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
 
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamRecipientGiverQuestion);
+            sortResponses(responses, compareByTeamRecipientGiverQuestion);
         } else {
-            Collections.sort(responses, compareByRecipientGiverQuestion);
+            sortResponses(responses, compareByRecipientGiverQuestion);
         }
         
         for (FeedbackResponseAttributes response : responses) {
@@ -1952,9 +1938,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
 
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverQuestionTeamRecipient);
+            sortResponses(responses, compareByTeamGiverQuestionTeamRecipient);
         } else {
-            Collections.sort(responses, compareByGiverQuestionTeamRecipient);
+            sortResponses(responses, compareByGiverQuestionTeamRecipient);
         }
 
         for (FeedbackResponseAttributes response : responses) {
@@ -1999,9 +1985,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverRecipientQuestion);
+            sortResponses(responses, compareByTeamGiverRecipientQuestion);
         } else {
-            Collections.sort(responses, compareByGiverRecipientQuestion);
+            sortResponses(responses, compareByGiverRecipientQuestion);
         }
         
         
@@ -2045,9 +2031,9 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     public Map<String, Map<String, List<FeedbackResponseAttributes>>>
                 getResponsesSortedByGiverRecipientQuestion(boolean sortByTeam) {
         if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverRecipientQuestion);
+            sortResponses(responses, compareByTeamGiverRecipientQuestion);
         } else {
-            Collections.sort(responses, compareByGiverRecipientQuestion);
+            sortResponses(responses, compareByGiverRecipientQuestion);
         }
         
         Map<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
@@ -2141,10 +2127,25 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return sectionToTeam;
     }
 
-    private int compareByQuestionNumber(FeedbackResponseAttributes r1,
-                                        FeedbackResponseAttributes r2) {
-        FeedbackQuestionAttributes q1 = questions.get(r1.feedbackQuestionId);
-        FeedbackQuestionAttributes q2 = questions.get(r2.feedbackQuestionId);
+    /**
+     * Sorts {@code responsesToSort} in place using a comparator over their sort keys.
+     * The key of each response is computed only once, rather than on every comparison.
+     */
+    private void sortResponses(List<FeedbackResponseAttributes> responsesToSort,
+                               Comparator<ResponseSortKey> comparator) {
+        List<ResponseSortKey> sortKeys = new ArrayList<ResponseSortKey>(responsesToSort.size());
+        for (FeedbackResponseAttributes response : responsesToSort) {
+            sortKeys.add(new ResponseSortKey(response));
+        }
+        Collections.sort(sortKeys, comparator);
+        for (int i = 0; i < sortKeys.size(); i++) {
+            responsesToSort.set(i, sortKeys.get(i).response);
+        }
+    }
+
+    private int compareByQuestionNumber(ResponseSortKey r1, ResponseSortKey r2) {
+        FeedbackQuestionAttributes q1 = r1.question;
+        FeedbackQuestionAttributes q2 = r2.question;
         if (q1 == null || q2 == null) {
             return 0;
         }
@@ -2190,12 +2191,60 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return order == 0 ? name1.compareTo(name2) : order;
     }
     
-    private int compareByResponseString(FeedbackResponseAttributes o1, FeedbackResponseAttributes o2) {
-        String responseAnswer1 = o1.getResponseDetails().getAnswerString();
-        
-        String responseAnswer2 = o2.getResponseDetails().getAnswerString();
-        
-        return responseAnswer1.compareTo(responseAnswer2);
+    private int compareByResponseString(ResponseSortKey o1, ResponseSortKey o2) {
+        return o1.getAnswerString().compareTo(o2.getAnswerString());
+    }
+
+    /**
+     * The values that the response comparators order a response by, looked up once per sort
+     * instead of once per comparison.
+     */
+    private class ResponseSortKey {
+        final FeedbackResponseAttributes response;
+        final FeedbackQuestionAttributes question;
+        final String giverSection;
+        final String recipientSection;
+        final boolean isGiverVisible;
+        final boolean isRecipientVisible;
+        final String giverName;
+        final String recipientName;
+        final String giverDisplayName;
+        final String recipientDisplayName;
+        final String giverTeam;
+        final String recipientTeam;
+        /** Only compared when all other values are equal, hence only decoded when first needed. */
+        private String answerString;
+
+        ResponseSortKey(FeedbackResponseAttributes response) {
+            this.response = response;
+            this.question = questions.get(response.feedbackQuestionId);
+            this.giverSection = response.giverSection;
+            this.recipientSection = response.recipientSection;
+            this.isGiverVisible = isGiverVisible(response);
+            this.isRecipientVisible = isRecipientVisible(response);
+            this.giverName = emailNameTable.get(response.giver);
+            this.recipientName = emailNameTable.get(response.recipient);
+            this.giverDisplayName = getNameForEmail(response.giver);
+            this.recipientDisplayName = getNameForEmail(response.recipient);
+            this.giverTeam = getTeamOrNameForEmail(response.giver);
+            this.recipientTeam = getTeamOrNameForEmail(response.recipient);
+        }
+
+        String getId() {
+            return response.getId();
+        }
+
+        String getAnswerString() {
+            if (answerString == null) {
+                answerString = response.getResponseDetails().getAnswerString();
+            }
+            return answerString;
+        }
+
+        private String getTeamOrNameForEmail(String email) {
+            String teamName = getTeamNameForEmail(email);
+            return teamName.isEmpty() ? getNameForEmail(email) : teamName;
+        }
     }
 
     public FeedbackSessionAttributes getFeedbackSession() {
@@ -2254,4 +2303,43 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return isComplete;
     }
 
+    public void setStatisticsStore(QuestionStatisticsStore statisticsStore) {
+        this.statisticsStore = statisticsStore;
+    }
+
+    public void setResponseAggregateStore(ResponseAggregateStore aggregateStore) {
+        this.aggregateStore = aggregateStore;
+    }
+
+    /**
+     * Keeps the statistics of questions beyond the lifetime of a bundle. Statistics are identified by
+     * the question ID and a scope that covers the viewer and the responses they were computed from;
+     * the store is responsible for anything else that they depend on, e.g. the course roster.
+     */
+    public interface QuestionStatisticsStore {
+        
+        /**
+         * @return the statistics stored for the question and scope, or null if there are none.
+         */
+        String get(String questionId, String scope);
+        
+        void put(String questionId, String scope, String statistics);
+        
+    }
+
+    /**
+     * Provides the aggregates of all the responses of questions, which are kept up to date as responses
+     * are written, so that statistics do not have to be computed from every response.
+     * Only set for bundles whose viewer sees all the responses of the session.
+     */
+    public interface ResponseAggregateStore {
+        
+        /**
+         * @return the aggregate of all the responses of the question, or null if the viewer
+         *         does not see all of them.
+         */
+        FeedbackResponseAggregate get(FeedbackQuestionAttributes question);
+        
+    }
+
 }
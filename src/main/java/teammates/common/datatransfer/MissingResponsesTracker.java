@@ -0,0 +1,83 @@
+package teammates.common.datatransfer;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import teammates.common.datatransfer.attributes.FeedbackQuestionAttributes;
+
+/**
+ * Keeps track of the possible givers and recipients of a question who have no response yet,
+ * while the responses of the question are gone through one giver at a time.
+ *
+ * <p>Participants are kept in the order given by {@link FeedbackSessionResultsBundle} and are
+ * removed in constant time, so that listing the missing responses of a question takes time
+ * proportional to the number of responses and missing responses.
+ */
+public class MissingResponsesTracker {
+
+    private final FeedbackSessionResultsBundle bundle;
+    private final FeedbackQuestionAttributes question;
+
+    private final Set<String> giversWithoutResponses;
+    private final Set<String> recipientsWithoutResponsesFromGiver = new LinkedHashSet<String>();
+
+    public MissingResponsesTracker(FeedbackSessionResultsBundle bundle, FeedbackQuestionAttributes question) {
+        this.bundle = bundle;
+        this.question = question;
+        this.giversWithoutResponses = new LinkedHashSet<String>(bundle.getPossibleGivers(question));
+    }
+
+    /**
+     * Stops tracking all participants, e.g. when the identities of some givers or recipients
+     * are hidden and hence missing responses cannot be determined.
+     */
+    public void clear() {
+        giversWithoutResponses.clear();
+        recipientsWithoutResponsesFromGiver.clear();
+    }
+
+    /**
+     * Records that {@code giverIdentifier} has given a response.
+     */
+    public void removeGiver(String giverIdentifier) {
+        giversWithoutResponses.remove(giverIdentifier);
+    }
+
+    /**
+     * Starts tracking the recipients of the given giver, replacing those of the previous giver.
+     */
+    public void startGiver(String giverIdentifier) {
+        recipientsWithoutResponsesFromGiver.clear();
+        recipientsWithoutResponsesFromGiver.addAll(bundle.getPossibleRecipients(question, giverIdentifier));
+    }
+
+    /**
+     * Records that the current giver has given a response to {@code recipientIdentifier}.
+     */
+    public void removeRecipient(String recipientIdentifier) {
+        recipientsWithoutResponsesFromGiver.remove(recipientIdentifier);
+    }
+
+    /**
+     * @return the possible givers who have not given any response so far.
+     */
+    public Set<String> getGiversWithoutResponses() {
+        return giversWithoutResponses;
+    }
+
+    /**
+     * @return the possible recipients who have not received a response from the current giver so far.
+     */
+    public Set<String> getRecipientsWithoutResponsesFromGiver() {
+        return recipientsWithoutResponsesFromGiver;
+    }
+
+    /**
+     * @return the possible recipients of a giver who has not given any response.
+     */
+    public List<String> getPossibleRecipients(String giverIdentifier) {
+        return bundle.getPossibleRecipients(question, giverIdentifier);
+    }
+
+}
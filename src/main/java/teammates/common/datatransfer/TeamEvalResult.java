@@ -43,53 +43,71 @@ public class TeamEvalResult {
          * other methods are set as public for the ease of testing.
          */
 
-        log.fine("==================\n" + "starting result calculation for\n"
-                + pointsToString(submissionValues));
+        if (log.isFineLoggable()) {
+            log.fine("==================\n" + "starting result calculation for\n"
+                    + pointsToString(submissionValues));
+        }
 
         claimed = submissionValues;
 
         normalizedClaimed = normalizeValues(claimed);
 
         int[][] claimedSanitized = sanitizeInput(submissionValues);
-        log.fine("claimed values sanitized :\n"
-                + pointsToString(claimedSanitized));
+        logPoints("claimed values sanitized :\n", claimedSanitized);
 
+        // normalized in place as the converted values are not used elsewhere
         double[][] claimedSanitizedNormalized = normalizeValues(intToDouble(claimedSanitized));
-        log.fine("claimed values sanitized and normalized :\n"
-                + pointsToString(claimedSanitizedNormalized));
+        logPoints("claimed values sanitized and normalized :\n", claimedSanitizedNormalized);
 
         double[][] peerContributionRatioAsDouble = calculatePeerContributionRatio(claimedSanitizedNormalized);
-        log.fine("peerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
+        logPoints("peerContributionRatio as double :\n", peerContributionRatioAsDouble);
 
         double[] averagePerceivedAsDouble = averageColumns(peerContributionRatioAsDouble);
-        log.fine("averagePerceived as double:\n"
-                + replaceMagicNumbers(Arrays.toString(averagePerceivedAsDouble)));
+        logPoints("averagePerceived as double:\n", averagePerceivedAsDouble);
 
         double[] normalizedAveragePerceivedAsDouble = normalizeValues(averagePerceivedAsDouble);
-        log.fine("normalizedAveragePerceivedAsDouble as double:\n"
-                + replaceMagicNumbers(Arrays
-                        .toString(normalizedAveragePerceivedAsDouble)));
+        logPoints("normalizedAveragePerceivedAsDouble as double:\n", normalizedAveragePerceivedAsDouble);
 
         double[][] normalizedPeerContributionRatioAsDouble =
                 adjustPeerContributionRatioToTallyNormalizedAveragePerceived(peerContributionRatioAsDouble);
-        log.fine("normalizedPeerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
+        logPoints("normalizedPeerContributionRatio as double :\n", peerContributionRatioAsDouble);
 
         normalizedPeerContributionRatio = doubleToInt(normalizedPeerContributionRatioAsDouble);
-        log.fine("normalizedUnbiasedClaimed as int :\n"
-                + pointsToString(normalizedPeerContributionRatio));
+        logPoints("normalizedUnbiasedClaimed as int :\n", normalizedPeerContributionRatio);
 
         denormalizedAveragePerceived = calculatePerceivedForStudents(
                 claimedSanitized, normalizedAveragePerceivedAsDouble);
-        log.fine("perceived to students :\n"
-                + pointsToString(denormalizedAveragePerceived));
+        logPoints("perceived to students :\n", denormalizedAveragePerceived);
 
         normalizedAveragePerceived = doubleToInt(normalizedAveragePerceivedAsDouble);
 
-        log.fine("Final result:\n" + this.toString());
+        if (log.isFineLoggable()) {
+            log.fine("Final result:\n" + this.toString());
+            log.fine("==================");
+        }
+    }
+
+    /*
+     * The log messages below are only built if they will be recorded, as building them
+     * takes longer than the calculation itself.
+     */
+
+    private static void logPoints(String description, int[][] points) {
+        if (log.isFineLoggable()) {
+            log.fine(description + pointsToString(points));
+        }
+    }
 
-        log.fine("==================");
+    private static void logPoints(String description, double[][] points) {
+        if (log.isFineLoggable()) {
+            log.fine(description + pointsToString(points));
+        }
+    }
+
+    private static void logPoints(String description, double[] points) {
+        if (log.isFineLoggable()) {
+            log.fine(description + replaceMagicNumbers(Arrays.toString(points)));
+        }
     }
 
     /**
@@ -114,14 +132,13 @@ public class TeamEvalResult {
 
         int teamSize = input.length;
 
+        // a new matrix, hence it can be normalized in place
         double[][] selfRatingsRemoved = removeSelfRatings(input);
-
-        double[][] selfRatingRemovedAndNormalized = new double[teamSize][teamSize];
         for (int i = 0; i < teamSize; i++) {
-            selfRatingRemovedAndNormalized[i] = normalizeValues(selfRatingsRemoved[i]);
+            normalizeValuesInPlace(selfRatingsRemoved[i]);
         }
 
-        return selfRatingRemovedAndNormalized;
+        return selfRatingsRemoved;
     }
 
     private static double[][] adjustPeerContributionRatioToTallyNormalizedAveragePerceived(
@@ -134,7 +151,7 @@ public class TeamEvalResult {
     private int[][] calculatePerceivedForStudents(int[][] claimedSanitized,
             double[] normalizedAveragePerceivedAsDouble) {
         int teamSize = claimedSanitized.length;
-        int[][] output = new int[teamSize][teamSize];
+        int[][] output = new int[teamSize][];
         for (int k = 0; k < teamSize; k++) {
             output[k] = calculatePerceivedForStudent(claimedSanitized[k],
                     normalizedAveragePerceivedAsDouble);
@@ -188,7 +205,7 @@ public class TeamEvalResult {
 
     private static double[][] multiplyByFactor(double factor, double[][] input) {
         int teamSize = input.length;
-        double[][] output = new double[teamSize][teamSize];
+        double[][] output = new double[teamSize][];
         for (int i = 0; i < teamSize; i++) {
             output[i] = multiplyByFactor(factor, input[i]);
         }
@@ -196,17 +213,21 @@ public class TeamEvalResult {
     }
 
     private static double[] multiplyByFactor(double factor, double[] input) {
-        int teamSize = input.length;
-        double[] output = new double[teamSize];
-        for (int j = 0; j < teamSize; j++) {
-            double value = input[j];
-            if (isSpecialValue((int) value)) {
-                output[j] = value;
-            } else {
-                output[j] = factor == 0 ? value : value * factor;
+        double[] output = input.clone();
+        multiplyByFactorInPlace(factor, output);
+        return output;
+    }
+
+    private static void multiplyByFactorInPlace(double factor, double[] values) {
+        if (factor == 0) {
+            return;
+        }
+        for (int j = 0; j < values.length; j++) {
+            double value = values[j];
+            if (!isSpecialValue((int) value)) {
+                values[j] = value * factor;
             }
         }
-        return output;
     }
 
     public static double[] purgeValuesCorrespondingToSpecialValuesInFilter(
@@ -226,8 +247,7 @@ public class TeamEvalResult {
             return 0;
         }
 
-        verify("Unsanitized value in " + Arrays.toString(input),
-                isSanitized(doubleToInt(input)));
+        verifySanitized(input);
 
         double sum = NA;
         for (double value : input) {
@@ -254,12 +274,15 @@ public class TeamEvalResult {
         return output;
     }
 
+    /**
+     * Normalizes each row of {@code input} in place.
+     * @return {@code input}
+     */
     private static double[][] normalizeValues(double[][] input) {
-        double[][] output = new double[input.length][input.length];
-        for (int i = 0; i < input.length; i++) {
-            output[i] = normalizeValues(input[i]);
+        for (double[] row : input) {
+            normalizeValuesInPlace(row);
         }
-        return output;
+        return input;
     }
 
     // TODO: make this private and use reflection to test
@@ -268,6 +291,11 @@ public class TeamEvalResult {
         return multiplyByFactor(factor, input);
     }
 
+    private static void normalizeValuesInPlace(double[] values) {
+        double factor = calculateFactor(values);
+        multiplyByFactorInPlace(factor, values);
+    }
+
     public static double[] normalizeValues(int[] input) {
         return normalizeValues(intToDouble(input));
     }
@@ -290,7 +318,9 @@ public class TeamEvalResult {
     
         double idealSum = count * 100.0;
         double factor = actualSum == 0 ? 0 : idealSum / actualSum;
-        log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        if (log.isFineLoggable()) {
+            log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        }
         return factor;
     }
 
@@ -304,7 +334,7 @@ public class TeamEvalResult {
     }
 
     private static double[][] intToDouble(int[][] input) {
-        double[][] converted = new double[input.length][input[0].length];
+        double[][] converted = new double[input.length][];
         for (int i = 0; i < input.length; i++) {
             converted[i] = intToDouble(input[i]);
         }
@@ -320,7 +350,7 @@ public class TeamEvalResult {
     }
 
     private static int[][] doubleToInt(double[][] input) {
-        int[][] output = new int[input.length][input.length];
+        int[][] output = new int[input.length][];
         for (int i = 0; i < input.length; i++) {
             output[i] = doubleToInt(input[i]);
         }
@@ -332,23 +362,18 @@ public class TeamEvalResult {
         double[] output = new double[input.length];
 
         for (int i = 0; i < input.length; i++) {
-            verify("Unsanitized value in " + Arrays.toString(input[i]),
-                    isSanitized(doubleToInt(input[i])));
+            verifySanitized(input[i]);
             output[i] = averageColumn(input, i);
         }
-        log.fine("Column averages: "
-                + replaceMagicNumbers(Arrays.toString(output)));
+        logPoints("Column averages: ", output);
         return output;
     }
 
     private static double averageColumn(double[][] arrayOfArrays, int columnIndex) {
         double sum = 0;
         int count = 0;
-        StringBuilder values = new StringBuilder();
         for (double[] array : arrayOfArrays) {
             double value = array[columnIndex];
-
-            values.append(value).append(' ');
             if (value == NA) {
                 continue;
             }
@@ -358,8 +383,14 @@ public class TeamEvalResult {
         // omit calculation if no data points
         double average = count == 0 ? NA : (double) (sum / count);
 
-        String logMessage = "Average(" + values.toString().trim() + ") = " + average;
-        log.fine(replaceMagicNumbers(logMessage));
+        if (log.isFineLoggable()) {
+            StringBuilder values = new StringBuilder();
+            for (double[] array : arrayOfArrays) {
+                values.append(array[columnIndex]).append(' ');
+            }
+            String logMessage = "Average(" + values.toString().trim() + ") = " + average;
+            log.fine(replaceMagicNumbers(logMessage));
+        }
 
         return average;
     }
@@ -440,6 +471,18 @@ public class TeamEvalResult {
         return sb.toString();
     }
 
+    /**
+     * Verifies that none of the values are 'not sure' or 'did not submit'.
+     * The failure message is only built if the verification fails.
+     */
+    private static void verifySanitized(double[] input) {
+        for (double value : input) {
+            if (!isSanitized((int) Math.round(value))) {
+                verify("Unsanitized value in " + Arrays.toString(input), false);
+            }
+        }
+    }
+
     private static void verify(String message, boolean condition) {
         // TODO: replace with Assumption.assert*
         if (!condition) {
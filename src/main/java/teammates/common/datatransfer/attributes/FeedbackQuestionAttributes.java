@@ -42,6 +42,15 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
     protected transient Date updatedAt;
     private String feedbackQuestionId;
 
+    /**
+     * The result of the last {@link #getQuestionDetails()} call, together with the {@code questionMetaData}
+     * and {@code questionType} it was decoded from. {@link Text} is immutable, so the details are only
+     * decoded again after either field has been assigned a different value.
+     */
+    private transient FeedbackQuestionDetails decodedQuestionDetails;
+    private transient Text decodedQuestionMetaData;
+    private transient FeedbackQuestionType decodedQuestionType;
+
     public FeedbackQuestionAttributes() {
         // attributes to be set after construction
     }
@@ -74,6 +83,9 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
         this.courseId = other.getCourseId();
         this.creatorEmail = other.getCreatorEmail();
         this.questionMetaData = other.getQuestionMetaData();
+        this.decodedQuestionDetails = other.decodedQuestionDetails;
+        this.decodedQuestionMetaData = other.decodedQuestionMetaData;
+        this.decodedQuestionType = other.decodedQuestionType;
         this.questionNumber = other.getQuestionNumber();
         this.questionType = other.getQuestionType();
         this.giverType = other.getGiverType();
@@ -565,15 +577,27 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
      * @param questionDetails
      */
     public void setQuestionDetails(FeedbackQuestionDetails questionDetails) {
-        questionMetaData = new Text(JsonUtils.toJson(questionDetails, getFeedbackQuestionDetailsClass()));
+        questionMetaData = new Text(JsonUtils.toCompactJson(questionDetails, getFeedbackQuestionDetailsClass()));
     }
 
     /** 
-     * This method retrieves the Feedback*QuestionDetails object for this question
+     * This method retrieves the Feedback*QuestionDetails object for this question.
+     * The object is decoded once and shared by subsequent calls, so it must not be modified
+     * other than to pass it to {@link #setQuestionDetails(FeedbackQuestionDetails)}.
      * 
      * @return The Feedback*QuestionDetails object representing the question's details
      */
     public FeedbackQuestionDetails getQuestionDetails() {
+        if (decodedQuestionDetails == null
+                || decodedQuestionMetaData != questionMetaData || decodedQuestionType != questionType) {
+            decodedQuestionDetails = decodeQuestionDetails();
+            decodedQuestionMetaData = questionMetaData;
+            decodedQuestionType = questionType;
+        }
+        return decodedQuestionDetails;
+    }
+
+    private FeedbackQuestionDetails decodeQuestionDetails() {
         final String questionMetaDataValue = questionMetaData.getValue();
         // For old Text questions, the questionText simply contains the question, not a JSON
         if (questionType == FeedbackQuestionType.TEXT && !isValidJsonString(questionMetaDataValue)) {
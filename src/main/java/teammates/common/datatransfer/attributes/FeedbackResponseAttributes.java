@@ -44,6 +44,15 @@ public class FeedbackResponseAttributes extends EntityAttributes {
     protected transient Date createdAt;
     protected transient Date updatedAt;
     private String feedbackResponseId;
+
+    /**
+     * The result of the last {@link #getResponseDetails()} call, together with the {@code responseMetaData}
+     * and {@code feedbackQuestionType} it was decoded from. {@link Text} is immutable, so the details are
+     * only decoded again after either field has been assigned a different value.
+     */
+    private transient FeedbackResponseDetails decodedResponseDetails;
+    private transient Text decodedResponseMetaData;
+    private transient FeedbackQuestionType decodedQuestionType;
     
     public FeedbackResponseAttributes() {
         // attributes to be set after construction
@@ -90,6 +99,9 @@ public class FeedbackResponseAttributes extends EntityAttributes {
         this.recipient = copy.recipient;
         this.recipientSection = copy.recipientSection;
         this.responseMetaData = copy.responseMetaData;
+        this.decodedResponseDetails = copy.decodedResponseDetails;
+        this.decodedResponseMetaData = copy.decodedResponseMetaData;
+        this.decodedQuestionType = copy.decodedQuestionType;
         this.createdAt = copy.createdAt;
         this.updatedAt = copy.updatedAt;
     }
@@ -189,11 +201,13 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             // This is due to legacy data in the data store before there were multiple question types
             responseMetaData = new Text(responseDetails.getAnswerString());
         } else {
-            responseMetaData = new Text(JsonUtils.toJson(responseDetails, getFeedbackResponseDetailsClass()));
+            responseMetaData = new Text(JsonUtils.toCompactJson(responseDetails, getFeedbackResponseDetailsClass()));
         }
     }
     
-    /** This method retrieves the Feedback*ResponseDetails object for this response
+    /** This method retrieves the Feedback*ResponseDetails object for this response.
+     * The object is decoded once and shared by subsequent calls, so it must not be modified
+     * other than to pass it to {@link #setResponseDetails(FeedbackResponseDetails)}.
      * @return The Feedback*ResponseDetails object representing the response's details
      */
     public FeedbackResponseDetails getResponseDetails() {
@@ -202,6 +216,16 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             return null;
         }
         
+        if (decodedResponseDetails == null
+                || decodedResponseMetaData != responseMetaData || decodedQuestionType != feedbackQuestionType) {
+            decodedResponseDetails = decodeResponseDetails();
+            decodedResponseMetaData = responseMetaData;
+            decodedQuestionType = feedbackQuestionType;
+        }
+        return decodedResponseDetails;
+    }
+    
+    private FeedbackResponseDetails decodeResponseDetails() {
         Class<? extends FeedbackResponseDetails> responseDetailsClass = getFeedbackResponseDetailsClass();
         
         if (responseDetailsClass == FeedbackTextResponseDetails.class) {
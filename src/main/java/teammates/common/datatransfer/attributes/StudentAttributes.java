@@ -84,6 +84,8 @@ public class StudentAttributes extends EntityAttributes {
              other.course, other.team, other.section);
         this.key = other.key;
         this.updateStatus = other.updateStatus;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
     }
     
     public StudentAttributes getCopy() {
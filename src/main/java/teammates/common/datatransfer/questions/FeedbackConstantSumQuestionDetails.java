@@ -2,7 +2,6 @@ package teammates.common.datatransfer.questions;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,6 +11,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 
+import teammates.common.datatransfer.FeedbackResponseAggregate;
+import teammates.common.datatransfer.FeedbackResponseAggregate.ValueStatistics;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
 import teammates.common.datatransfer.attributes.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
@@ -399,11 +400,11 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
         StringBuilder fragments = new StringBuilder();
         List<String> options = constSumOptions;
         
-        Map<String, List<Integer>> optionPoints = generateOptionPointsMapping(responses);
+        Map<String, ValueStatistics> optionPoints = getOptionPoints(question, responses, bundle);
 
         DecimalFormat df = new DecimalFormat("#.##");
         
-        Map<String, List<Integer>> sortedOptionPoints = new TreeMap<String, List<Integer>>();
+        Map<String, ValueStatistics> sortedOptionPoints = new TreeMap<String, ValueStatistics>();
         
         Map<String, String> identifierMap = new HashMap<String, String>();
         
@@ -413,10 +414,10 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
             putOptionsInSortedMap(optionPoints, options, sortedOptionPoints);
         }
 
-        for (Entry<String, List<Integer>> entry : sortedOptionPoints.entrySet()) {
+        for (Entry<String, ValueStatistics> entry : sortedOptionPoints.entrySet()) {
             
-            List<Integer> points = entry.getValue();
-            double average = computeAverage(points);
+            ValueStatistics points = entry.getValue();
+            double average = points.getAverage();
             String pointsReceived = getListOfPointsAsString(points);
             
             if (distributeToRecipients) {
@@ -460,11 +461,11 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
         
         StringBuilder fragments = new StringBuilder();
         List<String> options = constSumOptions;
-        Map<String, List<Integer>> optionPoints = generateOptionPointsMapping(responses);
+        Map<String, ValueStatistics> optionPoints = getOptionPoints(question, responses, bundle);
 
         DecimalFormat df = new DecimalFormat("#.##");
         
-        Map<String, List<Integer>> sortedOptionPoints = new TreeMap<String, List<Integer>>();
+        Map<String, ValueStatistics> sortedOptionPoints = new TreeMap<String, ValueStatistics>();
         
         Map<String, String> identifierMap = new HashMap<String, String>();
         
@@ -474,7 +475,7 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
             putOptionsInSortedMap(optionPoints, options, sortedOptionPoints);
         }
 
-        for (Entry<String, List<Integer>> entry : sortedOptionPoints.entrySet()) {
+        for (Entry<String, ValueStatistics> entry : sortedOptionPoints.entrySet()) {
             String option;
             if (distributeToRecipients) {
                 String participantIdentifier = identifierMap.get(entry.getKey());
@@ -487,8 +488,7 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
                 option = SanitizationHelper.sanitizeForCsv(entry.getKey());
             }
             
-            List<Integer> points = entry.getValue();
-            double average = computeAverage(points);
+            double average = entry.getValue().getAverage();
             fragments.append(option).append(',').append(df.format(average)).append(Const.EOL);
             
         }
@@ -506,10 +506,10 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
      * @param sortedOptionPoints    Sorted map to contain recipient info, recipient concatenated with email used as key
      */
     private void putRecipientsInSortedMap(
-            Map<String, List<Integer>> recipientMapping, Map<String, String> identifierMap,
-            Map<String, List<Integer>> sortedOptionPoints, FeedbackSessionResultsBundle bundle) {
+            Map<String, ValueStatistics> recipientMapping, Map<String, String> identifierMap,
+            Map<String, ValueStatistics> sortedOptionPoints, FeedbackSessionResultsBundle bundle) {
         
-        for (Entry<String, List<Integer>> entry : recipientMapping.entrySet()) {
+        for (Entry<String, ValueStatistics> entry : recipientMapping.entrySet()) {
             String participantIdentifier = entry.getKey();
             String name = bundle.getNameForEmail(participantIdentifier);
             String nameEmail = name + participantIdentifier;
@@ -527,10 +527,10 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
      * @param sortedOptionPoints    Sorted map of option points
      */
     private void putOptionsInSortedMap(
-            Map<String, List<Integer>> optionPoints, List<String> optionList,
-            Map<String, List<Integer>> sortedOptionPoints) {
+            Map<String, ValueStatistics> optionPoints, List<String> optionList,
+            Map<String, ValueStatistics> sortedOptionPoints) {
         
-        for (Entry<String, List<Integer>> entry : optionPoints.entrySet()) {
+        for (Entry<String, ValueStatistics> entry : optionPoints.entrySet()) {
             String option = optionList.get(Integer.parseInt(entry.getKey()));
             
             sortedOptionPoints.put(option, entry.getValue());
@@ -538,67 +538,34 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
     }
 
     /**
-     * From the feedback responses, generate a mapping of the option to a list of points received for that option.
-     * The key of the map returned is the option name / recipient's participant identifier.
-     * The values of the map are list of points received by the key.
-     * @param responses  a list of responses
+     * Gets the points received by each option or recipient from the responses.
+     * The key of the map returned is the option index / recipient's participant identifier.
      */
-    private Map<String, List<Integer>> generateOptionPointsMapping(
-            List<FeedbackResponseAttributes> responses) {
-        
-        Map<String, List<Integer>> optionPoints = new HashMap<String, List<Integer>>();
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackConstantSumResponseDetails frd = (FeedbackConstantSumResponseDetails) response.getResponseDetails();
-            
-            for (int i = 0; i < frd.getAnswerList().size(); i++) {
-                String optionReceivingPoints =
-                        distributeToRecipients ? response.recipient : String.valueOf(i);
-                
-                int pointsReceived = frd.getAnswerList().get(i);
-                updateOptionPointsMapping(optionPoints, optionReceivingPoints, pointsReceived);
-            }
-        }
-        return optionPoints;
+    private Map<String, ValueStatistics> getOptionPoints(FeedbackQuestionAttributes question,
+            List<FeedbackResponseAttributes> responses, FeedbackSessionResultsBundle bundle) {
+        FeedbackResponseAggregate aggregate = bundle.getResponseAggregate(question, responses);
+        return distributeToRecipients ? aggregate.getStatisticsPerRecipient() : aggregate.getStatisticsPerOption();
     }
 
     /**
-     * Used to update the OptionPointsMapping for the option optionReceivingPoints
-     * 
-     * @param optionPoints
-     * @param optionReceivingPoints
-     * @param pointsReceived
+     * Returns the points received, in ascending order, as a string to display.
+     * Only the lowest and highest five are shown if there are more than ten.
      */
-    private void updateOptionPointsMapping(
-            Map<String, List<Integer>> optionPoints,
-            String optionReceivingPoints, int pointsReceived) {
-        List<Integer> points = optionPoints.get(optionReceivingPoints);
-        if (points == null) {
-            points = new ArrayList<Integer>();
-            optionPoints.put(optionReceivingPoints, points);
-        }
-        
-        points.add(pointsReceived);
-    }
-
-    /**
-     * Returns the list of points as as string to display
-     * @param points
-     */
-    private String getListOfPointsAsString(List<Integer> points) {
-        Collections.sort(points);
+    private String getListOfPointsAsString(ValueStatistics points) {
         StringBuilder pointsReceived = new StringBuilder();
-        if (points.size() > 10) {
-            for (int i = 0; i < 5; i++) {
-                pointsReceived.append(points.get(i)).append(" , ");
+        if (points.getCount() > 10) {
+            for (Double point : points.getLowestValues(5)) {
+                pointsReceived.append(point.intValue()).append(" , ");
             }
             pointsReceived.append("...");
-            for (int i = points.size() - 5; i < points.size(); i++) {
-                pointsReceived.append(" , ").append(points.get(i));
+            for (Double point : points.getHighestValues(5)) {
+                pointsReceived.append(" , ").append(point.intValue());
             }
         } else {
-            for (int i = 0; i < points.size(); i++) {
-                pointsReceived.append(points.get(i));
-                if (i != points.size() - 1) {
+            List<Double> allPoints = points.getLowestValues(10);
+            for (int i = 0; i < allPoints.size(); i++) {
+                pointsReceived.append(allPoints.get(i).intValue());
+                if (i != allPoints.size() - 1) {
                     pointsReceived.append(" , ");
                 }
             }
@@ -606,15 +573,6 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
         return pointsReceived.toString();
     }
 
-    private double computeAverage(List<Integer> points) {
-        double average = 0;
-        for (Integer point : points) {
-            average += point;
-        }
-        average = average / points.size();
-        return average;
-    }
-
     @Override
     public boolean isChangesRequiresResponseDeletion(
             FeedbackQuestionDetails newDetails) {
@@ -166,34 +166,16 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
         }
     
         String currentUserTeam = bundle.emailTeamNameTable.get(studentEmail);
-        
-        List<FeedbackResponseAttributes> actualResponses = getActualResponses(question, bundle);
 
-        //List of teams with at least one response
-        List<String> teamNames = getTeamsWithAtLeastOneResponse(actualResponses, bundle);
-        
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        //Each team's contribution question results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
+        //Each team's contribution question results, for teams with at least one response
+        Map<String, TeamEvalResult> teamResults = getTeamEvalResults(bundle, question);
 
         TeamEvalResult currentUserTeamResults = teamResults.get(currentUserTeam);
         if (currentUserTeamResults == null) {
             return "";
         }
 
-        int currentUserIndex = teamMembersEmail.get(currentUserTeam).indexOf(studentEmail);
+        int currentUserIndex = currentUserTeamResults.studentEmails.indexOf(studentEmail);
         int selfClaim = currentUserTeamResults.claimed[currentUserIndex][currentUserIndex];
         int teamClaim = currentUserTeamResults.denormalizedAveragePerceived[currentUserIndex][currentUserIndex];
         
@@ -228,28 +210,11 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
     
         List<FeedbackResponseAttributes> actualResponses = getActualResponses(question, bundle);
         
-        //List of teams visible to the instructor and in the selected section
-        List<String> teamNames = getTeamNames(bundle);
-        
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        //Each team's eval results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
+        //Each team's eval results, for teams visible to the instructor and in the selected section
+        Map<String, TeamEvalResult> teamResults = getTeamEvalResults(bundle, question, getTeamNames(bundle));
+
         //Each person's results summary
-        Map<String, StudentResultSummary> studentResults = getStudentResults(
-                teamMembersEmail, teamResults);
+        Map<String, StudentResultSummary> studentResults = getStudentResults(teamResults);
 
         //Check visibility of recipient
         boolean hideRecipient = false;
@@ -270,9 +235,8 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
             String name = bundle.roster.getStudentForEmail(email).name;
             String team = bundle.roster.getStudentForEmail(email).team;
             
-            List<String> teamEmails = teamMembersEmail.get(team);
             TeamEvalResult teamResult = teamResults.get(team);
-            int studentIndx = teamEmails.indexOf(email);
+            int studentIndx = teamResult.studentEmails.indexOf(email);
             
             String displayName = name;
             String displayTeam = team;
@@ -317,28 +281,11 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
     
         List<FeedbackResponseAttributes> actualResponses = getActualResponses(question, bundle);
 
-        //List of teams visible to the instructor and in the selected section
-        List<String> teamNames = getTeamNames(bundle);
-        
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
+        //Each team's eval results, for teams visible to the instructor and in the selected section
+        Map<String, TeamEvalResult> teamResults = getTeamEvalResults(bundle, question, getTeamNames(bundle));
 
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        //Each team's eval results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
         //Each person's results summary
-        Map<String, StudentResultSummary> studentResults = getStudentResults(
-                teamMembersEmail, teamResults);
+        Map<String, StudentResultSummary> studentResults = getStudentResults(teamResults);
         
         //Check visibility of recipient
         boolean hideRecipient = false;
@@ -362,9 +309,8 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
             String name = bundle.roster.getStudentForEmail(email).name;
             String team = bundle.roster.getStudentForEmail(email).team;
             
-            List<String> teamEmails = teamMembersEmail.get(team);
             TeamEvalResult teamResult = teamResults.get(team);
-            int studentIndx = teamEmails.indexOf(email);
+            int studentIndx = teamResult.studentEmails.indexOf(email);
             
             String displayName;
             String displayTeam;
@@ -432,70 +378,89 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
      */
     Map<String, StudentResultSummary> getStudentResults(FeedbackSessionResultsBundle bundle,
             FeedbackQuestionAttributes question) {
-        
-        List<FeedbackResponseAttributes> responses = getActualResponses(question, bundle);
-
-        List<String> teamNames = getTeamsWithAtLeastOneResponse(responses, bundle);
-        
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                responses, bundle, teamNames);
-        
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
-        return getStudentResults(teamMembersEmail, teamResults);
+        return getStudentResults(getTeamEvalResults(bundle, question));
     }
-    
+
     /**
-     * @return A Map with student email as key and TeamEvalResult as value for the specified question.
+     * Returns the results of the teams with at least one response to the specified question.
+     * The results are computed once per bundle and kept in
+     * {@link FeedbackSessionResultsBundle#contributionQuestionTeamEvalResults}.
+     * @return A Map with team name as key and TeamEvalResult as value for the specified question.
      */
     Map<String, TeamEvalResult> getTeamEvalResults(FeedbackSessionResultsBundle bundle,
             FeedbackQuestionAttributes question) {
-        
-        List<FeedbackResponseAttributes> responses = getActualResponses(question, bundle);
+        Map<String, TeamEvalResult> teamResults = bundle.contributionQuestionTeamEvalResults.get(question.getId());
+        if (teamResults == null) {
+            List<FeedbackResponseAttributes> responses = getActualResponses(question, bundle);
+            List<String> teamNames = getTeamsWithAtLeastOneResponse(responses, bundle);
+            teamResults = getTeamResults(responses, bundle, teamNames);
+            bundle.contributionQuestionTeamEvalResults.put(question.getId(), teamResults);
+        }
+        return teamResults;
+    }
 
-        List<String> teamNames = getTeamsWithAtLeastOneResponse(responses, bundle);
-        
+    /**
+     * Returns the results of the given teams for the specified question, reusing the cached results
+     * of teams with responses and computing only those of teams without any response.
+     */
+    private Map<String, TeamEvalResult> getTeamEvalResults(FeedbackSessionResultsBundle bundle,
+            FeedbackQuestionAttributes question, List<String> teamNames) {
+        Map<String, TeamEvalResult> teamResultsWithResponses = getTeamEvalResults(bundle, question);
+
+        List<String> teamNamesWithoutResponses = new ArrayList<String>();
+        for (String team : teamNames) {
+            if (!teamResultsWithResponses.containsKey(team)) {
+                teamNamesWithoutResponses.add(team);
+            }
+        }
+        Map<String, TeamEvalResult> teamResultsWithoutResponses = getTeamResults(
+                new ArrayList<FeedbackResponseAttributes>(), bundle, teamNamesWithoutResponses);
+
+        Map<String, TeamEvalResult> teamResults = new LinkedHashMap<String, TeamEvalResult>();
+        for (String team : teamNames) {
+            TeamEvalResult teamResult = teamResultsWithResponses.get(team);
+            teamResults.put(team, teamResult == null ? teamResultsWithoutResponses.get(team) : teamResult);
+        }
+        return teamResults;
+    }
+
+    private Map<String, TeamEvalResult> getTeamResults(List<FeedbackResponseAttributes> responses,
+            FeedbackSessionResultsBundle bundle, List<String> teamNames) {
+        //Each team's member(email) list
         Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
+
+        //Each team's responses
         Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
                 responses, bundle, teamNames);
-        
+
+        //Get each team's submission array. -> int[teamSize][teamSize]
+        //Where int[0][1] refers points from student 0 to student 1
+        //Where student 0 is the 0th student in the list in teamMembersEmail
         Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
                 teamNames, teamMembersEmail, teamResponses);
-        
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
-        return teamResults;
+
+        return getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
     }
 
-    private Map<String, StudentResultSummary> getStudentResults(
-            Map<String, List<String>> teamMembersEmail,
-            Map<String, TeamEvalResult> teamResults) {
+    private Map<String, StudentResultSummary> getStudentResults(Map<String, TeamEvalResult> teamResults) {
         Map<String, StudentResultSummary> studentResults = new LinkedHashMap<String, StudentResultSummary>();
-        for (Map.Entry<String, TeamEvalResult> entry : teamResults.entrySet()) {
-            TeamEvalResult teamResult = entry.getValue();
-            List<String> teamEmails = teamMembersEmail.get(entry.getKey());
+        for (TeamEvalResult teamResult : teamResults.values()) {
             int i = 0;
-            for (String studentEmail : teamEmails) {
+            for (String studentEmail : teamResult.studentEmails) {
                 StudentResultSummary summary = new StudentResultSummary();
                 summary.claimedFromStudent = teamResult.claimed[i][i];
                 summary.claimedToInstructor = teamResult.normalizedClaimed[i][i];
                 summary.perceivedToStudent = teamResult.denormalizedAveragePerceived[i][i];
                 summary.perceivedToInstructor = teamResult.normalizedAveragePerceived[i];
-                
+
                 studentResults.put(studentEmail, summary);
-                
+
                 i++;
             }
         }
         return studentResults;
     }
-    
+
     @SuppressWarnings("PMD.UnusedPrivateMethod") // false positive by PMD.
     private Map<String, TeamEvalResult> getTeamResults(List<String> teamNames,
             Map<String, int[][]> teamSubmissionArray, Map<String, List<String>> teamMembersEmail) {
@@ -590,7 +555,7 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
                 responses.add(response);
             }
         }
-        Collections.sort(responses, bundle.compareByGiverRecipientQuestion);
+        bundle.sortByGiverRecipientQuestion(responses);
         return responses;
     }
     
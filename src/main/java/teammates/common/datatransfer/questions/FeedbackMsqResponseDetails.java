@@ -59,8 +59,11 @@ public class FeedbackMsqResponseDetails extends FeedbackResponseDetails {
         return StringHelper.toString(answers, ", ");
     }
     
+    /**
+     * Returns a copy of the answers, as the response details may be shared by copies of the response.
+     */
     public List<String> getAnswerStrings() {
-        return answers;
+        return new ArrayList<String>(answers);
     }
 
     @Override
@@ -26,6 +26,12 @@ public final class Config {
     /** The value of the "app.persistence.checkduration" in build.properties file */
     public static final int PERSISTENCE_CHECK_DURATION;
     
+    /** The value of the "app.persistence.consistencymode" in build.properties file */
+    public static final String PERSISTENCE_CONSISTENCY_MODE;
+    
+    /** The value of the "app.persistence.querybysections" in build.properties file */
+    public static final boolean PERSISTENCE_QUERY_BY_SECTIONS;
+    
     /** The value of the "app.crashreport.email" in build.properties file */
     public static final String SUPPORT_EMAIL;
     
@@ -71,6 +77,8 @@ public final class Config {
         GCS_BUCKETNAME = properties.getProperty("app.gcs.bucketname");
         ENCRYPTION_KEY = properties.getProperty("app.encryption.key");
         PERSISTENCE_CHECK_DURATION = Integer.valueOf(properties.getProperty("app.persistence.checkduration"));
+        PERSISTENCE_CONSISTENCY_MODE = properties.getProperty("app.persistence.consistencymode");
+        PERSISTENCE_QUERY_BY_SECTIONS = Boolean.parseBoolean(properties.getProperty("app.persistence.querybysections"));
         SUPPORT_EMAIL = properties.getProperty("app.crashreport.email");
         STUDENT_MOTD_URL = properties.getProperty("app.student.motd.url");
         EMAIL_SENDEREMAIL = properties.getProperty("app.email.senderemail");
@@ -122,6 +130,14 @@ public final class Config {
         return new AppUrl(APP_URL + relativeUrl);
     }
 
+    /**
+     * Returns true if writes to the Datastore should be verified by polling until they are visible to queries,
+     * rather than by a single lookup by key.
+     */
+    public static boolean isUsingPersistencePolling() {
+        return "polling".equalsIgnoreCase(PERSISTENCE_CONSISTENCY_MODE);
+    }
+    
     public static boolean isUsingSendgrid() {
         return "sendgrid".equalsIgnoreCase(EMAIL_SERVICE) && SENDGRID_APIKEY != null && !SENDGRID_APIKEY.isEmpty();
     }
@@ -778,6 +778,11 @@ public final class Const {
         
         public static final String ENROLLMENT_DETAILS = "enrollmentdetails";
         
+        public static final String FEEDBACK_RESPONSES_TO_CREATE = "responsestocreate";
+        public static final String FEEDBACK_RESPONSES_TO_UPDATE = "responsestoupdate";
+        public static final String FEEDBACK_RESPONSES_TO_DELETE = "responsestodelete";
+        public static final String FEEDBACK_SUBMISSION_TIMESTAMP = "submissiontimestamp";
+
         public static final String SEARCH_KEY = "searchkey";
         public static final String DISPLAY_ARCHIVE = "displayarchive";
         
@@ -1010,6 +1015,9 @@ public final class Const {
         public static final String FEEDBACK_SESSION_UNPUBLISHED_EMAIL_WORKER_URL =
                 "/worker/feedbackSessionUnpublishedEmail";
         
+        public static final String FEEDBACK_SUBMISSION_SAVE_QUEUE_NAME = "feedback-submission-save-queue";
+        public static final String FEEDBACK_SUBMISSION_SAVE_WORKER_URL = "/worker/feedbackSubmissionSave";
+        
         public static final String INSTRUCTOR_COURSE_JOIN_EMAIL_QUEUE_NAME = "instructor-course-join-email-queue";
         public static final String INSTRUCTOR_COURSE_JOIN_EMAIL_WORKER_URL = "/worker/instructorCourseJoinEmail";
         
@@ -1297,6 +1305,9 @@ public final class Const {
                 "Please enter a valid question. The question text cannot be empty.";
         
         public static final String FEEDBACK_RESPONSES_SAVED = "All responses submitted successfully!";
+        public static final String FEEDBACK_RESPONSES_QUEUED =
+                "All responses submitted successfully! They are being processed and may take a few moments "
+                + "to appear.";
         public static final String FEEDBACK_RESPONSES_MISSING_RECIPIENT =
                 "You did not specify a recipient for your response in question %s.";
         public static final String FEEDBACK_RESPONSES_WRONG_QUESTION_TYPE =
@@ -11,57 +11,86 @@ import com.google.gson.JsonSyntaxException;
 
 /**
  * Provides means to handle, manipulate, and convert JSON objects to/from strings.
+ *
+ * <p>{@link Gson} instances are thread-safe once created, so they are built once and shared.
  */
 public final class JsonUtils {
-    
+
+    /**
+     * Handles the Date format we use in the Json file and pretty-prints the Json string.
+     */
+    private static final Gson TEAMMATES_GSON = getTeammatesGsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Same as {@link #TEAMMATES_GSON} but without pretty-printing, for Json strings that are not meant to be read.
+     */
+    private static final Gson COMPACT_TEAMMATES_GSON = getTeammatesGsonBuilder().create();
+
+    /**
+     * Used to read existing data that does not use the prescribed date format.
+     */
+    private static final Gson DEFAULT_GSON = new Gson();
+
+    private static final JsonParser PARSER = new JsonParser();
+
     private JsonUtils() {
         // utility class
     }
-    
-    /**
-     * This creates a Gson object that can handle the Date format we use in the
-     * Json file and also reformat the Json string in pretty-print format.
-     */
-    private static Gson getTeammatesGson() {
+
+    private static GsonBuilder getTeammatesGsonBuilder() {
         return new GsonBuilder().setDateFormat(DateFormat.FULL)
                                 .setDateFormat(Const.SystemParams.DEFAULT_DATE_TIME_FORMAT)
-                                .setPrettyPrinting()
-                                .disableHtmlEscaping()
-                                .create();
+                                .disableHtmlEscaping();
     }
-    
+
     /**
      * @see {@link Gson#toJson(Object, Type)}.
      */
     public static String toJson(Object src, Type typeOfSrc) {
-        return getTeammatesGson().toJson(src, typeOfSrc);
+        return TEAMMATES_GSON.toJson(src, typeOfSrc);
     }
-    
+
     /**
      * @see {@link Gson#toJson(Object)}.
      */
     public static String toJson(Object src) {
-        return getTeammatesGson().toJson(src);
+        return TEAMMATES_GSON.toJson(src);
     }
-    
+
+    /**
+     * Same as {@link #toJson(Object, Type)} but without pretty-printing.
+     * Use this for Json strings that are stored or sent rather than displayed.
+     */
+    public static String toCompactJson(Object src, Type typeOfSrc) {
+        return COMPACT_TEAMMATES_GSON.toJson(src, typeOfSrc);
+    }
+
+    /**
+     * Same as {@link #toJson(Object)} but without pretty-printing.
+     * Use this for Json strings that are stored or sent rather than displayed.
+     */
+    public static String toCompactJson(Object src) {
+        return COMPACT_TEAMMATES_GSON.toJson(src);
+    }
+
     /**
      * @see {@link Gson#fromJson(String, Type)}.
      */
     public static <T> T fromJson(String json, Type typeOfT) {
         try {
-            return getTeammatesGson().fromJson(json, typeOfT);
+            // pretty-printing only affects the output, so either instance can read any Json string
+            return TEAMMATES_GSON.fromJson(json, typeOfT);
         } catch (JsonSyntaxException e) {
             // some of the existing data does not use the prescribed date format
-            return new Gson().fromJson(json, typeOfT);
+            return DEFAULT_GSON.fromJson(json, typeOfT);
         }
     }
-    
+
     /**
      * @see {@link JsonParser#parse(String)}.
      */
     public static JsonElement parse(String json) {
-        JsonParser parser = new JsonParser();
-        return parser.parse(json);
+        return PARSER.parse(json);
     }
-    
+
 }
@@ -16,6 +16,15 @@ public final class Logger {
         return new Logger();
     }
     
+    /**
+     * Returns true if messages logged with {@link #fine(String)} will be recorded.
+     * Used to avoid building expensive debug messages that would be discarded.
+     * @see {@link java.util.logging.Logger#isLoggable(java.util.logging.Level)}.
+     */
+    public boolean isFineLoggable() {
+        return log.isLoggable(java.util.logging.Level.FINE);
+    }
+    
     /**
      * @see {@link java.util.logging.Logger#fine(String)}.
      */
@@ -0,0 +1,108 @@
+package teammates.common.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds objects that are only valid for the duration of a single request, e.g. entities
+ * read from the Datastore that are looked up repeatedly while serving the same request.
+ *
+ * <p>The cache is confined to the current thread and is only active between calls to
+ * {@link #begin()} and {@link #end()}; outside of that window all lookups miss and all
+ * puts are ignored, so code paths that are not bracketed (e.g. tests, scripts) always
+ * read from the Datastore.
+ *
+ * <p>Entries are grouped into namespaces (typically one per storage class) so that a write
+ * can invalidate every cached read that it may have affected.
+ */
+public final class RequestScopedCache {
+
+    private static final ThreadLocal<Map<String, Map<String, Object>>> PER_THREAD_CACHE =
+            new ThreadLocal<Map<String, Map<String, Object>>>();
+
+    private RequestScopedCache() {
+        // utility class
+    }
+
+    /**
+     * Activates the cache for the current thread, discarding anything left over from a previous request.
+     */
+    public static void begin() {
+        PER_THREAD_CACHE.set(new HashMap<String, Map<String, Object>>());
+    }
+
+    /**
+     * Deactivates the cache for the current thread and releases everything cached in it.
+     */
+    public static void end() {
+        PER_THREAD_CACHE.remove();
+    }
+
+    public static boolean isActive() {
+        return PER_THREAD_CACHE.get() != null;
+    }
+
+    /**
+     * Returns true if a value (possibly null) has been cached for {@code key} in {@code namespace}.
+     */
+    public static boolean contains(String namespace, String key) {
+        Map<String, Object> entries = getNamespace(namespace, false);
+        return entries != null && entries.containsKey(key);
+    }
+
+    /**
+     * Returns the value cached for {@code key} in {@code namespace}, or null if there is none.
+     * Use {@link #contains(String, String)} to distinguish a cached null from a miss.
+     */
+    public static Object get(String namespace, String key) {
+        Map<String, Object> entries = getNamespace(namespace, false);
+        return entries == null ? null : entries.get(key);
+    }
+
+    /**
+     * Caches {@code value} for {@code key} in {@code namespace}. Null values are allowed and are
+     * used to remember that an entity does not exist. Does nothing if the cache is not active.
+     */
+    public static void put(String namespace, String key, Object value) {
+        Map<String, Object> entries = getNamespace(namespace, true);
+        if (entries != null) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Removes all values cached in {@code namespace}.
+     */
+    public static void invalidate(String namespace) {
+        Map<String, Map<String, Object>> cache = PER_THREAD_CACHE.get();
+        if (cache != null) {
+            cache.remove(namespace);
+        }
+    }
+
+    /**
+     * Builds a cache key out of the identifiers used to look up an entity.
+     */
+    public static String generateKey(String... identifiers) {
+        StringBuilder key = new StringBuilder();
+        for (String identifier : identifiers) {
+            // the separator is not allowed in course IDs, emails or names and hence keeps keys unambiguous
+            key.append(identifier).append('\u0000');
+        }
+        return key.toString();
+    }
+
+    private static Map<String, Object> getNamespace(String namespace, boolean isCreatedIfAbsent) {
+        Map<String, Map<String, Object>> cache = PER_THREAD_CACHE.get();
+        if (cache == null) {
+            return null;
+        }
+        Map<String, Object> entries = cache.get(namespace);
+        if (entries == null && isCreatedIfAbsent) {
+            entries = new HashMap<String, Object>();
+            cache.put(namespace, entries);
+        }
+        return entries;
+    }
+
+}
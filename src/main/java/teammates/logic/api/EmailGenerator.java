@@ -426,11 +426,7 @@ public class EmailGenerator {
         CourseAttributes course = coursesLogic.getCourse(courseId);
         String template = EmailTemplates.USER_PENDING_COMMENTS_CLEARED;
         
-        for (String recipientEmail : recipients) {
-            StudentAttributes student = studentsLogic.getStudentForEmail(courseId, recipientEmail);
-            if (student == null) {
-                continue;
-            }
+        for (StudentAttributes student : studentsLogic.getStudentsForEmails(courseId, recipients)) {
             EmailWrapper email = generatePendingCommentsClearedEmailBaseForStudent(course, student, template);
             emails.add(email);
         }
@@ -1,5 +1,8 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -322,6 +325,19 @@ public class Logic {
         return instructorsLogic.getInstructorForEmail(courseId, email);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the instructors of the course with the given emails. Emails without a matching instructor are skipped.
+     */
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, emails);
+        
+        return instructorsLogic.getInstructorsForEmails(courseId, emails);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -583,6 +599,19 @@ public class Logic {
         
         return coursesLogic.getCourse(courseId);
     }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return the students and instructors of the course.
+     */
+    public CourseRoster getCourseRoster(String courseId) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        
+        return coursesLogic.getCourseRoster(courseId);
+    }
 
     /**
      * Returns a detailed version of course data. <br>
@@ -820,6 +849,19 @@ public class Logic {
 
         return studentsLogic.getStudentForEmail(courseId, email);
     }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return the students of the course with the given emails. Emails without a matching student are skipped.
+     */
+    public List<StudentAttributes> getStudentsForEmails(String courseId, Collection<String> emails) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, emails);
+        
+        return studentsLogic.getStudentsForEmails(courseId, emails);
+    }
 
     /**
      * Preconditions: <br>
@@ -1359,6 +1401,47 @@ public class Logic {
                 feedbackSessionName, courseId, instructorEmail, section,
                 filterText, isMissingResponsesShown, isStatsShown);
     }
+
+    /**
+     * Writes summary results (without comments) in CSV format to {@code writer}.
+     * Unlike {@link #getFeedbackSessionResultSummaryAsCsv}, there is no limit on the number of responses. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     */
+    public void writeFeedbackSessionResultSummaryAsCsv(
+            String courseId, String feedbackSessionName, String instructorEmail,
+            String filterText, boolean isMissingResponsesShown, boolean isStatsShown, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+        
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                feedbackSessionName, courseId, instructorEmail, null,
+                filterText, isMissingResponsesShown, isStatsShown, writer);
+    }
+
+    /**
+     * Writes summary results (without comments) within a section in CSV format to {@code writer}.
+     * Unlike {@link #getFeedbackSessionResultSummaryInSectionAsCsv}, there is no limit on the number of responses. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     */
+    public void writeFeedbackSessionResultSummaryInSectionAsCsv(
+            String courseId, String feedbackSessionName, String instructorEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, section);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+        
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                feedbackSessionName, courseId, instructorEmail, section,
+                filterText, isMissingResponsesShown, isStatsShown, writer);
+    }
     
     /**
      * Preconditions: <br>
@@ -1938,6 +2021,24 @@ public class Logic {
         feedbackResponsesLogic.updateFeedbackResponse(feedbackResponse);
     }
     
+    /**
+     * Creates, updates and deletes the responses of a submission together.
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     * * Responses to update or delete have an ID.
+     * @return the number of responses to update that were not written again as they were unchanged.
+     */
+    public int saveFeedbackResponses(List<FeedbackResponseAttributes> responsesToCreate,
+                                      List<FeedbackResponseAttributes> responsesToUpdate,
+                                      List<FeedbackResponseAttributes> responsesToDelete)
+            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToCreate);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToUpdate);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToDelete);
+        return feedbackResponsesLogic.saveFeedbackResponses(responsesToCreate, responsesToUpdate, responsesToDelete);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import teammates.common.datatransfer.StudentEnrollDetails;
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.TaskQueue;
 import teammates.common.util.EmailWrapper;
@@ -264,13 +265,49 @@ public class TaskQueuer {
         paramMap.put(ParamsNames.COURSE_ID, courseId);
         paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, feedbackSessionName);
         
-        String enrollmentDetails = JsonUtils.toJson(enrollmentList);
+        String enrollmentDetails = JsonUtils.toCompactJson(enrollmentList);
         paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
         
         addTask(TaskQueue.FEEDBACK_RESPONSE_ADJUSTMENT_QUEUE_NAME,
                 TaskQueue.FEEDBACK_RESPONSE_ADJUSTMENT_WORKER_URL, paramMap);
     }
     
+    /**
+     * Schedules the responses of a feedback submission to be saved.
+     * 
+     * @param courseId the course ID of the feedback session
+     * @param feedbackSessionName the name of the feedback session
+     * @param responsesToCreate the responses to be created
+     * @param responsesToUpdate the responses to be updated
+     * @param responsesToDelete the responses to be deleted
+     * @return false if the responses are too large to fit in a task, in which case they should be saved directly
+     */
+    public boolean scheduleFeedbackResponsesForSaving(String courseId, String feedbackSessionName,
+                                                      List<FeedbackResponseAttributes> responsesToCreate,
+                                                      List<FeedbackResponseAttributes> responsesToUpdate,
+                                                      List<FeedbackResponseAttributes> responsesToDelete) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, feedbackSessionName);
+        paramMap.put(ParamsNames.FEEDBACK_RESPONSES_TO_CREATE, JsonUtils.toCompactJson(responsesToCreate));
+        paramMap.put(ParamsNames.FEEDBACK_RESPONSES_TO_UPDATE, JsonUtils.toCompactJson(responsesToUpdate));
+        paramMap.put(ParamsNames.FEEDBACK_RESPONSES_TO_DELETE, JsonUtils.toCompactJson(responsesToDelete));
+        // lets the task tell whether a response was saved again after this submission
+        paramMap.put(ParamsNames.FEEDBACK_SUBMISSION_TIMESTAMP, String.valueOf(System.currentTimeMillis()));
+        
+        try {
+            addTask(TaskQueue.FEEDBACK_SUBMISSION_SAVE_QUEUE_NAME, TaskQueue.FEEDBACK_SUBMISSION_SAVE_WORKER_URL,
+                    paramMap);
+            return true;
+        } catch (IllegalArgumentException e) {
+            if (e.getMessage() != null && e.getMessage().toLowerCase().contains("task size too large")) {
+                log.info("Feedback submission task size exceeds max limit. Saving the responses directly.");
+                return false;
+            }
+            throw e;
+        }
+    }
+    
     /**
      * Schedules for the given list of emails to be sent.
      * 
@@ -32,6 +32,7 @@ import teammates.storage.api.AccountsDb;
 import teammates.storage.api.CommentsDb;
 import teammates.storage.api.CoursesDb;
 import teammates.storage.api.FeedbackQuestionsDb;
+import teammates.storage.api.FeedbackResponseAggregatesCache;
 import teammates.storage.api.FeedbackResponseCommentsDb;
 import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.api.FeedbackSessionsDb;
@@ -50,6 +51,7 @@ public class BackDoorLogic extends Logic {
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
     private static final FeedbackResponseCommentsDb fcDb = new FeedbackResponseCommentsDb();
+    private static final FeedbackResponseAggregatesCache aggregatesCache = new FeedbackResponseAggregatesCache();
     
     /**
      * Persists given data in the datastore Works ONLY if the data is correct.
@@ -135,6 +137,12 @@ public class BackDoorLogic extends Logic {
             response = injectRealIds(response);
         }
         frDb.createFeedbackResponses(responses.values());
+        // the responses are not written through the logic that keeps their aggregates up to date
+        List<String> responseQuestionIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responses.values()) {
+            responseQuestionIds.add(response.feedbackQuestionId);
+        }
+        aggregatesCache.invalidate(responseQuestionIds);
 
         Set<String> sessionIds = new HashSet<String>();
         
@@ -11,6 +11,7 @@ import java.util.Set;
 import teammates.common.datatransfer.attributes.AccountAttributes;
 import teammates.common.datatransfer.attributes.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.attributes.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
@@ -29,6 +30,7 @@ import teammates.common.util.FieldValidator;
 import teammates.common.util.Logger;
 import teammates.common.util.SanitizationHelper;
 import teammates.common.util.StringHelper;
+import teammates.storage.api.CourseRosterCache;
 import teammates.storage.api.CoursesDb;
 
 /**
@@ -52,6 +54,7 @@ public final class CoursesLogic {
      */
 
     private static final CoursesDb coursesDb = new CoursesDb();
+    private static final CourseRosterCache ROSTER_CACHE = new CourseRosterCache();
     
     private static final AccountsLogic accountsLogic = AccountsLogic.inst();
     private static final CommentsLogic commentsLogic = CommentsLogic.inst();
@@ -122,6 +125,29 @@ public final class CoursesLogic {
     public CourseAttributes getCourse(String courseId) {
         return coursesDb.getCourse(courseId);
     }
+    
+    /**
+     * Returns the students and instructors of the course, served from the shared roster cache
+     * whenever the roster has not changed since it was last read.
+     */
+    public CourseRoster getCourseRoster(String courseId) {
+        // the version must be read before the roster so that a concurrent change invalidates what we cache
+        String rosterVersion = ROSTER_CACHE.getRosterVersion(courseId);
+        CourseRoster roster = ROSTER_CACHE.getCourseRoster(courseId, rosterVersion);
+        if (roster != null) {
+            roster.setVersion(rosterVersion);
+            return roster;
+        }
+        
+        roster = new CourseRoster(studentsLogic.getStudentsForCourse(courseId),
+                                  instructorsLogic.getInstructorsForCourse(courseId));
+        if (!ROSTER_CACHE.isRecentlyChanged(courseId)) {
+            // otherwise the roster may not reflect the latest changes yet and cannot be identified by the version
+            roster.setVersion(rosterVersion);
+            ROSTER_CACHE.putCourseRoster(courseId, rosterVersion, roster);
+        }
+        return roster;
+    }
 
     /**
      * Checks whether course is present using courseId.
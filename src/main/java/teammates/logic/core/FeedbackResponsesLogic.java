@@ -5,10 +5,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackResponseAggregate;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.attributes.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
@@ -19,6 +22,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Logger;
+import teammates.storage.api.FeedbackResponseAggregatesCache;
 import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.entity.FeedbackResponse;
 
@@ -32,9 +36,13 @@ public final class FeedbackResponsesLogic {
     
     private static final Logger log = Logger.getLogger();
     
+    /** Number of responses read at a time when responses are read page by page. */
+    private static final int RESPONSES_PAGE_SIZE = 500;
+    
     private static FeedbackResponsesLogic instance = new FeedbackResponsesLogic();
     
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
+    private static final FeedbackResponseAggregatesCache aggregatesCache = new FeedbackResponseAggregatesCache();
     
     private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
     private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
@@ -53,6 +61,7 @@ public final class FeedbackResponsesLogic {
             throws InvalidParametersException, EntityDoesNotExistException {
         try {
             frDb.createEntity(fra);
+            updateResponseAggregates(null, fra);
         } catch (EntityAlreadyExistsException eaee) {
             try {
                 updateFeedbackResponse(fra, (FeedbackResponse) eaee.existingEntity);
@@ -77,28 +86,60 @@ public final class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
     }
     
+    /**
+     * Reads the responses given or received by the students of {@code section} page by page,
+     * so that there is no limit on how many responses can be read.
+     * @param section the section, or null to read the responses of all sections.
+     */
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
-        if (section == null) {
-            return getFeedbackResponsesForSession(feedbackSessionName, courseId);
-        }
-        return frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, section);
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        String cursor = null;
+        do {
+            FeedbackResponsesPage page = getFeedbackResponsesForSessionInSectionPage(
+                    feedbackSessionName, courseId, section, cursor, RESPONSES_PAGE_SIZE);
+            responses.addAll(page.getResponses());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return responses;
     }
 
+    /**
+     * Reads the responses given by the students of {@code section} page by page.
+     * @param section the section, or null to read the responses of all sections.
+     */
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSection(
             String feedbackSessionName, String courseId, String section) {
-        if (section == null) {
-            return getFeedbackResponsesForSession(feedbackSessionName, courseId);
-        }
-        return frDb.getFeedbackResponsesForSessionFromSection(feedbackSessionName, courseId, section);
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        String cursor = null;
+        do {
+            FeedbackResponsesPage page = section == null
+                    ? frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, RESPONSES_PAGE_SIZE)
+                    : frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                         cursor, RESPONSES_PAGE_SIZE);
+            responses.addAll(page.getResponses());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return responses;
     }
 
+    /**
+     * Reads the responses received by the students of {@code section} page by page.
+     * @param section the section, or null to read the responses of all sections.
+     */
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionToSection(
             String feedbackSessionName, String courseId, String section) {
-        if (section == null) {
-            return getFeedbackResponsesForSession(feedbackSessionName, courseId);
-        }
-        return frDb.getFeedbackResponsesForSessionToSection(feedbackSessionName, courseId, section);
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        String cursor = null;
+        do {
+            FeedbackResponsesPage page = section == null
+                    ? frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, RESPONSES_PAGE_SIZE)
+                    : frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                       cursor, RESPONSES_PAGE_SIZE);
+            responses.addAll(page.getResponses());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return responses;
     }
     
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionWithinRange(
@@ -133,6 +174,44 @@ public final class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName, courseId, section, range);
     }
 
+    /**
+     * Reads the responses of a session page by page.
+     * @param section the section whose students gave or received the responses, or null for all sections.
+     * @param cursor the cursor returned with the previous page, or null to read the first page.
+     * @return A page of at most {@code pageSize} responses.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section, cursor, pageSize);
+    }
+
+    /**
+     * Gets the aggregate of all the responses of a numerical scale or constant sum question,
+     * which is kept up to date as responses are written, so that it only has to be computed
+     * from the responses once.
+     */
+    public FeedbackResponseAggregate getFeedbackResponseAggregate(String feedbackQuestionId) {
+        FeedbackResponseAggregate aggregate = aggregatesCache.getAggregate(feedbackQuestionId);
+        if (aggregate != null) {
+            return aggregate;
+        }
+        
+        FeedbackResponseAggregatesCache.Reservation reservation = aggregatesCache.reserve(feedbackQuestionId);
+        aggregate = FeedbackResponseAggregate.of(getFeedbackResponsesForQuestion(feedbackQuestionId));
+        aggregatesCache.putAggregate(feedbackQuestionId, reservation, aggregate);
+        return aggregate;
+    }
+
+    /**
+     * Removes the aggregate of the responses of a question, e.g. after the question was changed.
+     */
+    public void invalidateFeedbackResponseAggregate(String feedbackQuestionId) {
+        aggregatesCache.invalidate(feedbackQuestionId);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String feedbackQuestionId) {
         return frDb.getFeedbackResponsesForQuestion(feedbackQuestionId);
     }
@@ -368,6 +447,15 @@ public final class FeedbackResponsesLogic {
         return question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER_TEAM_MEMBERS);
     }
     
+    /**
+     * Closes the persistence manager of the current thread. Threads other than the request thread
+     * that read responses must call this when they are done, as their persistence managers are not
+     * closed with the request.
+     */
+    public void closePersistenceManager() {
+        frDb.commitOutstandingChanges();
+    }
+
     public boolean hasResponsesForCourse(String courseId) {
         return frDb.hasFeedbackResponseEntitiesForCourse(courseId);
     }
@@ -439,12 +527,129 @@ public final class FeedbackResponsesLogic {
             } catch (EntityDoesNotExistException e) {
                 Assumption.fail();
             }
+            updateResponseAggregates(oldResponse, newResponse);
         } else {
             // Recreate response to prevent possible future id conflict.
             recreateResponse(newResponse, oldResponse);
         }
     }
 
+    /**
+     * Saves the responses of a submission together, using as few Datastore calls as possible. <br>
+     * Responses are deleted first (together with their comments), then updated, then created.
+     * An updated response whose recipient changed is recreated on its own, as in
+     * {@link #updateFeedbackResponse(FeedbackResponseAttributes, FeedbackResponse)}.
+     * An updated response that is the same as the stored response is not written again.
+     * @param responsesToUpdate responses that have an ID
+     * @param responsesToDelete responses that have an ID
+     * @throws EntityDoesNotExistException if a response to update does not exist,
+     *                                     in which case no response is updated or created.
+     * @throws EntityAlreadyExistsException if a response whose recipient changed could not be recreated
+     *                                      because a response to the new recipient already exists.
+     *                                      Such responses are left unchanged, all other responses are saved.
+     * @return the number of responses to update that were not written again as they were unchanged.
+     */
+    public int saveFeedbackResponses(List<FeedbackResponseAttributes> responsesToCreate,
+                                      List<FeedbackResponseAttributes> responsesToUpdate,
+                                      List<FeedbackResponseAttributes> responsesToDelete)
+            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
+        
+        List<FeedbackResponseAttributes> conflictingResponses = new ArrayList<FeedbackResponseAttributes>();
+        int numOfUnchangedResponses = 0;
+        
+        if (!responsesToDelete.isEmpty()) {
+            List<String> responseIdsToDelete = new ArrayList<String>();
+            for (FeedbackResponseAttributes response : responsesToDelete) {
+                responseIdsToDelete.add(response.getId());
+            }
+            frcLogic.deleteFeedbackResponseCommentsForResponses(responseIdsToDelete);
+            List<FeedbackResponseAttributes> deletedResponses = frDb.deleteFeedbackResponses(responsesToDelete);
+            aggregatesCache.updateAggregates(deletedResponses, new ArrayList<FeedbackResponseAttributes>());
+        }
+        
+        if (!responsesToUpdate.isEmpty()) {
+            List<String> responseIdsToUpdate = new ArrayList<String>();
+            for (FeedbackResponseAttributes response : responsesToUpdate) {
+                responseIdsToUpdate.add(response.getId());
+            }
+            Map<String, FeedbackResponse> oldResponseEntities = frDb.getFeedbackResponseEntities(responseIdsToUpdate);
+            
+            List<FeedbackResponseAttributes> responsesToUpdateInPlace = new ArrayList<FeedbackResponseAttributes>();
+            List<FeedbackResponseAttributes> responsesUpdatedInPlace = new ArrayList<FeedbackResponseAttributes>();
+            List<FeedbackResponse> responseEntitiesToUpdateInPlace = new ArrayList<FeedbackResponse>();
+            List<FeedbackResponseAttributes> responsesToRecreate = new ArrayList<FeedbackResponseAttributes>();
+            List<FeedbackResponseAttributes> responsesToReplace = new ArrayList<FeedbackResponseAttributes>();
+            for (FeedbackResponseAttributes responseToUpdate : responsesToUpdate) {
+                FeedbackResponse oldResponseEntity = oldResponseEntities.get(responseToUpdate.getId());
+                if (oldResponseEntity == null) {
+                    throw new EntityDoesNotExistException(
+                            "Trying to update a feedback response that does not exist.");
+                }
+                
+                // Create a copy.
+                FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(responseToUpdate);
+                FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
+                copyFixedValuesFromOldToNew(newResponse, oldResponse);
+                
+                if (isUnchangedResponse(newResponse, oldResponse)) {
+                    // submissions re-send every answer on the page, most of which were not changed
+                    numOfUnchangedResponses++;
+                    continue;
+                }
+                if (newResponse.recipient.equals(oldResponse.recipient)
+                        && newResponse.giver.equals(oldResponse.giver)) {
+                    responsesToUpdateInPlace.add(newResponse);
+                    responsesUpdatedInPlace.add(oldResponse);
+                    responseEntitiesToUpdateInPlace.add(oldResponseEntity);
+                } else {
+                    responsesToRecreate.add(newResponse);
+                    responsesToReplace.add(oldResponse);
+                }
+            }
+            
+            frDb.updateFeedbackResponsesOptimized(responsesToUpdateInPlace, responseEntitiesToUpdateInPlace);
+            aggregatesCache.updateAggregates(responsesUpdatedInPlace, responsesToUpdateInPlace);
+            for (int i = 0; i < responsesToRecreate.size(); i++) {
+                try {
+                    // Recreate response to prevent possible future id conflict.
+                    recreateResponse(responsesToRecreate.get(i), responsesToReplace.get(i));
+                } catch (EntityAlreadyExistsException e) {
+                    // the response is left as it is, the other responses are still saved
+                    conflictingResponses.add(responsesToRecreate.get(i));
+                }
+            }
+        }
+        
+        if (!responsesToCreate.isEmpty()) {
+            List<FeedbackResponseAttributes> existingResponses = frDb.createFeedbackResponses(responsesToCreate);
+            List<FeedbackResponseAttributes> createdResponses =
+                    new ArrayList<FeedbackResponseAttributes>(responsesToCreate);
+            createdResponses.removeAll(existingResponses);
+            aggregatesCache.updateAggregates(new ArrayList<FeedbackResponseAttributes>(), createdResponses);
+            // the values that the existing responses were overwritten with are not known
+            for (FeedbackResponseAttributes response : existingResponses) {
+                aggregatesCache.invalidate(response.feedbackQuestionId);
+            }
+        }
+        
+        if (!conflictingResponses.isEmpty()) {
+            throw new EntityAlreadyExistsException(
+                    "Trying to update responses to ones that already exist: " + conflictingResponses);
+        }
+        return numOfUnchangedResponses;
+    }
+
+    /**
+     * @return true if saving {@code newResponse} would not change {@code oldResponse}, the response it updates.
+     */
+    private boolean isUnchangedResponse(FeedbackResponseAttributes newResponse, FeedbackResponseAttributes oldResponse) {
+        return newResponse.responseMetaData.getValue().equals(oldResponse.responseMetaData.getValue())
+               && newResponse.recipient.equals(oldResponse.recipient)
+               && newResponse.giver.equals(oldResponse.giver)
+               && Objects.equals(newResponse.giverSection, oldResponse.giverSection)
+               && Objects.equals(newResponse.recipientSection, oldResponse.recipientSection);
+    }
+
     /**
      * Copies values that cannot be changed to defensively avoid invalid parameters.
      * @param newResponse  values are copied from oldResponse
@@ -474,6 +679,24 @@ public final class FeedbackResponsesLogic {
         }
     }
 
+    /**
+     * Keeps the aggregates of the responses of questions up to date after a response was written.
+     * @param oldResponse the response before it was written, or null if it was created
+     * @param newResponse the response after it was written, or null if it was deleted
+     */
+    private void updateResponseAggregates(FeedbackResponseAttributes oldResponse,
+                                          FeedbackResponseAttributes newResponse) {
+        List<FeedbackResponseAttributes> removedResponses = new ArrayList<FeedbackResponseAttributes>();
+        if (oldResponse != null) {
+            removedResponses.add(oldResponse);
+        }
+        List<FeedbackResponseAttributes> addedResponses = new ArrayList<FeedbackResponseAttributes>();
+        if (newResponse != null) {
+            addedResponses.add(newResponse);
+        }
+        aggregatesCache.updateAggregates(removedResponses, addedResponses);
+    }
+
     private void recreateResponse(
             FeedbackResponseAttributes newResponse, FeedbackResponseAttributes oldResponse)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
@@ -482,6 +705,7 @@ public final class FeedbackResponsesLogic {
             FeedbackResponse createdResponseEntity =
                     (FeedbackResponse) frDb.createEntity(newResponse);
             frDb.deleteEntity(oldResponse);
+            updateResponseAggregates(oldResponse, newResponse);
             frcLogic.updateFeedbackResponseCommentsForChangingResponseId(
                     oldResponse.getId(), createdResponseEntity.getId());
         } catch (EntityAlreadyExistsException e) {
@@ -512,6 +736,7 @@ public final class FeedbackResponsesLogic {
                 getFeedbackResponsesForReceiverForCourse(courseId, oldTeam);
         for (FeedbackResponseAttributes response : responsesToOldTeam) {
             frDb.deleteEntity(response);
+            aggregatesCache.invalidate(response.feedbackQuestionId);
         }
     }
 
@@ -524,6 +749,7 @@ public final class FeedbackResponsesLogic {
             question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
             if (isRecipientTypeTeamMembers(question)) {
                 frDb.deleteEntity(response);
+                aggregatesCache.invalidate(response.feedbackQuestionId);
             }
         }
     }
@@ -539,6 +765,7 @@ public final class FeedbackResponsesLogic {
             if (question.giverType == FeedbackParticipantType.TEAMS
                     || isRecipientTypeTeamMembers(question)) {
                 frDb.deleteEntity(response);
+                aggregatesCache.invalidate(response.feedbackQuestionId);
             }
         }
     }
@@ -599,6 +826,7 @@ public final class FeedbackResponsesLogic {
 
         if (shouldDeleteResponse) {
             frDb.deleteEntity(response);
+            aggregatesCache.invalidate(response.feedbackQuestionId);
             updateSessionResponseRateForDeletingStudentResponse(enrollment.email,
                     response.feedbackSessionName, enrollment.course);
         }
@@ -683,6 +911,8 @@ public final class FeedbackResponsesLogic {
     public void deleteFeedbackResponseAndCascade(FeedbackResponseAttributes responseToDelete) {
         frcLogic.deleteFeedbackResponseCommentsForResponse(responseToDelete.getId());
         frDb.deleteEntity(responseToDelete);
+        // the response may not be as it was in the Datastore
+        aggregatesCache.invalidate(responseToDelete.feedbackQuestionId);
     }
 
     public void deleteFeedbackResponsesForQuestionAndCascade(
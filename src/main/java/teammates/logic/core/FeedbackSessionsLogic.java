@@ -1,7 +1,10 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -12,9 +15,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackResponseAggregate;
 import teammates.common.datatransfer.attributes.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.questions.FeedbackQuestionDetails;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
@@ -24,7 +35,10 @@ import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResponseStatus;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionResultsBundle.QuestionStatisticsStore;
+import teammates.common.datatransfer.FeedbackSessionResultsBundle.ResponseAggregateStore;
 import teammates.common.datatransfer.FeedbackSessionType;
+import teammates.common.datatransfer.MissingResponsesTracker;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
 import teammates.common.datatransfer.UserRole;
@@ -40,8 +54,11 @@ import teammates.common.util.Logger;
 import teammates.common.util.SanitizationHelper;
 import teammates.common.util.StringHelper;
 import teammates.common.util.TimeHelper;
+import teammates.storage.api.FeedbackQuestionStatisticsCache;
 import teammates.storage.api.FeedbackSessionsDb;
 
+import com.google.appengine.api.ThreadManager;
+
 /**
  * Handles operations related to feedback sessions.
  * 
@@ -83,11 +100,20 @@ public final class FeedbackSessionsLogic {
     private static final String ERROR_FS_PRIVATE_UNPUBLISH = "Error unpublishing feedback session: "
                                                              + "Session is private and can't be unpublished.";
     
+    /**
+     * The maximum number of questions whose responses are fetched at the same time when building results.
+     * Kept small as each fetch holds a request thread and issues several Datastore queries.
+     */
+    private static final int MAX_CONCURRENT_QUESTION_FETCHES = 5;
+
+    private static final AtomicBoolean IS_REQUEST_THREAD_WARNING_LOGGED = new AtomicBoolean();
+
     private static final Logger log = Logger.getLogger();
     
     private static FeedbackSessionsLogic instance = new FeedbackSessionsLogic();
     
     private static final FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private static final FeedbackQuestionStatisticsCache STATISTICS_CACHE = new FeedbackQuestionStatisticsCache();
     
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
     private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
@@ -305,12 +331,13 @@ public final class FeedbackSessionsLogic {
         
         InstructorAttributes instructorGiver = instructor;
         StudentAttributes studentGiver = null;
+        CourseRoster courseRoster = coursesLogic.getCourseRoster(courseId);
 
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponsesForInstructor(courseId,
                     userEmail, fsa, instructor, bundle, recipientList,
-                    question, instructorGiver, studentGiver);
+                    question, instructorGiver, studentGiver, courseRoster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -339,7 +366,7 @@ public final class FeedbackSessionsLogic {
 
         updateBundleAndRecipientListWithResponsesForInstructor(courseId,
                 userEmail, fsa, instructor, bundle, recipientList,
-                question, instructorGiver, studentGiver);
+                question, instructorGiver, studentGiver, coursesLogic.getCourseRoster(courseId));
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
     }
@@ -352,19 +379,19 @@ public final class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            InstructorAttributes instructorGiver, StudentAttributes studentGiver)
-            throws EntityDoesNotExistException {
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver,
+            CourseRoster courseRoster) {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromGiverForQuestion(
                         question.getId(), userEmail);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver);
+                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver, courseRoster);
         // instructor can only see students in allowed sections for him/her
         if (question.recipientType.equals(FeedbackParticipantType.STUDENTS)) {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> studentEntry = iter.next();
-                StudentAttributes student = studentsLogic.getStudentForEmail(courseId, studentEntry.getKey());
+                StudentAttributes student = courseRoster.getStudentForEmail(studentEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(student.section,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -376,7 +403,7 @@ public final class FeedbackSessionsLogic {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> teamEntry = iter.next();
-                String teamSection = studentsLogic.getSectionForTeam(courseId, teamEntry.getKey());
+                String teamSection = courseRoster.getSectionForTeam(teamEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(teamSection,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -416,11 +443,13 @@ public final class FeedbackSessionsLogic {
         List<FeedbackQuestionAttributes> questions = fqLogic.getFeedbackQuestionsForStudents(feedbackSessionName,
                 courseId);
 
+        // the recipients of all questions are taken from the same roster
+        CourseRoster courseRoster = coursesLogic.getCourseRoster(courseId);
         Set<String> hiddenInstructorEmails = null;
         
         for (FeedbackQuestionAttributes question : questions) {
             if (question.getRecipientType() == FeedbackParticipantType.INSTRUCTORS) {
-                hiddenInstructorEmails = getHiddenInstructorEmails(courseId);
+                hiddenInstructorEmails = getHiddenInstructorEmails(courseRoster);
                 break;
             }
         }
@@ -428,7 +457,7 @@ public final class FeedbackSessionsLogic {
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponsesForStudent(userEmail, student,
-                    bundle, recipientList, question, hiddenInstructorEmails);
+                    bundle, recipientList, question, hiddenInstructorEmails, courseRoster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -456,14 +485,15 @@ public final class FeedbackSessionsLogic {
 
         FeedbackQuestionAttributes question = fqLogic.getFeedbackQuestion(feedbackQuestionId);
 
+        CourseRoster courseRoster = coursesLogic.getCourseRoster(courseId);
         Set<String> hiddenInstructorEmails = null;
 
         if (question.getRecipientType() == FeedbackParticipantType.INSTRUCTORS) {
-            hiddenInstructorEmails = getHiddenInstructorEmails(courseId);
+            hiddenInstructorEmails = getHiddenInstructorEmails(courseRoster);
         }
 
         updateBundleAndRecipientListWithResponsesForStudent(userEmail, student,
-                bundle, recipientList, question, hiddenInstructorEmails);
+                bundle, recipientList, question, hiddenInstructorEmails, courseRoster);
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
     }
@@ -474,13 +504,13 @@ public final class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            Set<String> hiddenInstructorEmails)
-            throws EntityDoesNotExistException {
+            Set<String> hiddenInstructorEmails,
+            CourseRoster courseRoster) {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromStudentOrTeamForQuestion(
                         question, student);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, null, student);
+                fqLogic.getRecipientsForQuestion(question, userEmail, null, student, courseRoster);
 
         removeHiddenInstructors(question, responses, recipients, hiddenInstructorEmails);
 
@@ -545,8 +575,8 @@ public final class FeedbackSessionsLogic {
      * @return a {@link Set} of emails of the instructors who are not displayed
      *         to students in the course specified by {@code courseId}
      */
-    private Set<String> getHiddenInstructorEmails(String courseId) {
-        List<InstructorAttributes> instructors = instructorsLogic.getInstructorsForCourse(courseId);
+    private Set<String> getHiddenInstructorEmails(CourseRoster courseRoster) {
+        List<InstructorAttributes> instructors = courseRoster.getInstructors();
         Set<String> hiddenInstructorEmails = new HashSet<>();
 
         for (InstructorAttributes instructor : instructors) {
@@ -571,8 +601,7 @@ public final class FeedbackSessionsLogic {
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
                         courseId);
         
-        CourseRoster roster = new CourseRoster(studentsLogic.getStudentsForCourse(courseId),
-                                               instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         return getFeedbackSessionResponseStatus(session, roster, allQuestions);
     }
 
@@ -588,9 +617,7 @@ public final class FeedbackSessionsLogic {
         // Load details of students and instructors once and pass it to callee
         // methods
         // (rather than loading them many times).
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -613,9 +640,7 @@ public final class FeedbackSessionsLogic {
                                                 String questionId, String selectedSection)
                                         throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
@@ -648,9 +673,7 @@ public final class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range, String viewType)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
@@ -674,9 +697,7 @@ public final class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -698,9 +719,7 @@ public final class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -733,9 +752,7 @@ public final class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
@@ -755,9 +772,7 @@ public final class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "false");
         params.put(PARAM_IN_SECTION, "false");
@@ -777,9 +792,7 @@ public final class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -853,24 +866,11 @@ public final class FeedbackSessionsLogic {
             throw new ExceedingRangeException(ERROR_NUMBER_OF_RESPONSES_EXCEEDS_RANGE);
         }
         // sort responses by giver > recipient > qnNumber
-        Collections.sort(results.responses,
-                results.compareByGiverRecipientQuestion);
+        results.sortByGiverRecipientQuestion(results.responses);
         
         StringBuilder exportBuilder = new StringBuilder(100);
 
-        exportBuilder.append(String.format("Course,%s",
-                             SanitizationHelper.sanitizeForCsv(results.feedbackSession.getCourseId())))
-                     .append(Const.EOL)
-                     .append(String.format("Session Name,%s",
-                             SanitizationHelper.sanitizeForCsv(results.feedbackSession.getFeedbackSessionName())))
-                     .append(Const.EOL);
-        
-        if (section != null) {
-            exportBuilder.append(String.format("Section Name,%s", SanitizationHelper.sanitizeForCsv(section)))
-                         .append(Const.EOL);
-        }
-
-        exportBuilder.append(Const.EOL).append(Const.EOL);
+        exportBuilder.append(getCsvHeader(results.feedbackSession, section));
         
         Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet =
                 results.getQuestionResponseMap().entrySet();
@@ -881,12 +881,90 @@ public final class FeedbackSessionsLogic {
         
         for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry : entrySet) {
             exportBuilder.append(getFeedbackSessionResultsForQuestionInCsvFormat(
-                    results, entry, isMissingResponsesShown, isStatsShown));
+                    results, entry.getKey(), entry.getValue(), isMissingResponsesShown, isStatsShown));
         }
         return exportBuilder.toString();
         
     }
 
+    /**
+     * Writes the summary results (without comments) of a feedback session in CSV format to {@code writer}.
+     * 
+     * <p>Unlike {@link #getFeedbackSessionResultsSummaryInSectionAsCsv}, the responses are read and written
+     * one question at a time, so sessions of any size can be exported.
+     * 
+     * @param section the section to export the results of, or null to export the results of all sections
+     */
+    public void writeFeedbackSessionResultsSummaryInSectionAsCsv(
+            String feedbackSessionName, String courseId, String userEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown,
+            Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        FeedbackSessionAttributes session = getFeedbackSession(feedbackSessionName, courseId);
+        if (session == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_VIEW + courseId + "/" + feedbackSessionName);
+        }
+        
+        // everything except the responses is loaded once and shared by all the questions
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
+        QuestionStatisticsStore statisticsStore = getQuestionStatisticsStore(session, roster);
+        ResultsViewer viewer = getResultsViewer(courseId, feedbackSessionName, userEmail, UserRole.INSTRUCTOR);
+        List<FeedbackQuestionAttributes> questions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
+                                                                                            courseId);
+        // sorts the questions by its natural ordering, which is by question number
+        Collections.sort(questions);
+        String lowerCaseFilterText = filterText == null ? null : filterText.toLowerCase();
+        boolean isPrivateSessionNotCreatedByThisUser = session.isPrivateSession() && !session.isCreator(userEmail);
+        
+        writer.write(getCsvHeader(session, section));
+        
+        for (FeedbackQuestionAttributes question : questions) {
+            if (lowerCaseFilterText != null && !lowerCaseFilterText.isEmpty()
+                    && !isQuestionMatchingFilterText(question, lowerCaseFilterText)) {
+                continue;
+            }
+            
+            FeedbackSessionResultsBundle results = isPrivateSessionNotCreatedByThisUser
+                    ? getEmptyFeedbackSessionResults(session, roster)
+                    : getFeedbackSessionResultsForQuestion(session, question, viewer, section, roster,
+                                                           statisticsStore);
+            
+            // the bundle holds this question only, unless the session is not visible to the user at all
+            Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> questionResponseMap =
+                    results.getQuestionResponseMap();
+            List<FeedbackResponseAttributes> responsesForQuestion = questionResponseMap.isEmpty()
+                    ? new ArrayList<FeedbackResponseAttributes>()
+                    : questionResponseMap.values().iterator().next();
+            
+            writer.append(getFeedbackSessionResultsForQuestionInCsvFormat(
+                    results, question, responsesForQuestion, isMissingResponsesShown, isStatsShown));
+        }
+    }
+
+    private String getCsvHeader(FeedbackSessionAttributes session, String section) {
+        StringBuilder headerBuilder = new StringBuilder(100);
+
+        headerBuilder.append(String.format("Course,%s",
+                             SanitizationHelper.sanitizeForCsv(session.getCourseId())))
+                     .append(Const.EOL)
+                     .append(String.format("Session Name,%s",
+                             SanitizationHelper.sanitizeForCsv(session.getFeedbackSessionName())))
+                     .append(Const.EOL);
+        
+        if (section != null) {
+            headerBuilder.append(String.format("Section Name,%s", SanitizationHelper.sanitizeForCsv(section)))
+                         .append(Const.EOL);
+        }
+
+        headerBuilder.append(Const.EOL).append(Const.EOL);
+        return headerBuilder.toString();
+    }
+
+    private boolean isQuestionMatchingFilterText(FeedbackQuestionAttributes question, String lowerCaseFilterText) {
+        return question.getQuestionMetaData().getValue().toLowerCase().contains(lowerCaseFilterText);
+    }
+
     private Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> filterQuestions(
             Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet,
             String filterText) {
@@ -894,7 +972,7 @@ public final class FeedbackSessionsLogic {
         for (Iterator<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> it =
                 entrySet.iterator(); it.hasNext(); ) {
             Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry = it.next();
-            if (!entry.getKey().getQuestionMetaData().getValue().toLowerCase().contains(filterText)) {
+            if (!isQuestionMatchingFilterText(entry.getKey(), filterText)) {
                 it.remove();
             }
         }
@@ -903,13 +981,10 @@ public final class FeedbackSessionsLogic {
     }
 
     private StringBuilder getFeedbackSessionResultsForQuestionInCsvFormat(
-            FeedbackSessionResultsBundle fsrBundle,
-            Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry,
-            boolean isMissingResponsesShown, boolean isStatsShown) {
+            FeedbackSessionResultsBundle fsrBundle, FeedbackQuestionAttributes question,
+            List<FeedbackResponseAttributes> allResponses, boolean isMissingResponsesShown, boolean isStatsShown) {
         
-        FeedbackQuestionAttributes question = entry.getKey();
         FeedbackQuestionDetails questionDetails = question.getQuestionDetails();
-        List<FeedbackResponseAttributes> allResponses = entry.getValue();
         
         StringBuilder exportBuilder = new StringBuilder();
         
@@ -917,8 +992,7 @@ public final class FeedbackSessionsLogic {
                 + SanitizationHelper.sanitizeForCsv(questionDetails.getQuestionText())
                 + Const.EOL + Const.EOL);
         
-        String statistics = questionDetails.getQuestionResultStatisticsCsv(allResponses,
-                                    question, fsrBundle);
+        String statistics = fsrBundle.getQuestionResultStatisticsCsv(allResponses, question);
         if (!statistics.isEmpty() && isStatsShown) {
             exportBuilder.append("Summary Statistics,").append(Const.EOL);
             exportBuilder.append(statistics).append(Const.EOL);
@@ -926,37 +1000,30 @@ public final class FeedbackSessionsLogic {
         
         exportBuilder.append(questionDetails.getCsvDetailedResponsesHeader());
 
-        List<String> possibleGiversWithoutResponses = fsrBundle.getPossibleGivers(question);
-        List<String> possibleRecipientsForGiver = new ArrayList<String>();
+        MissingResponsesTracker missingResponses = new MissingResponsesTracker(fsrBundle, question);
         String prevGiver = "";
         
         for (FeedbackResponseAttributes response : allResponses) {
 
             // do not show all possible givers and recipients if there are anonymous givers and recipients
             if (!fsrBundle.isRecipientVisible(response) || !fsrBundle.isGiverVisible(response)) {
-                possibleGiversWithoutResponses.clear();
-                possibleRecipientsForGiver.clear();
+                missingResponses.clear();
             }
             
             // keep track of possible recipients with no responses
-            removeParticipantIdentifierFromList(question.giverType,
-                    possibleGiversWithoutResponses, response.giver, fsrBundle);
+            missingResponses.removeGiver(getParticipantIdentifier(question.giverType, response.giver, fsrBundle));
             
             boolean isNewGiver = !prevGiver.equals(response.giver);
             // print missing responses from the current giver
             if (isNewGiver) {
                 exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(fsrBundle,
                         question, questionDetails,
-                        possibleRecipientsForGiver, prevGiver));
-                String giverIdentifier = question.giverType == FeedbackParticipantType.TEAMS
-                                             ? fsrBundle.getFullNameFromRoster(response.giver)
-                                             : response.giver;
-                
-                possibleRecipientsForGiver = fsrBundle.getPossibleRecipients(question, giverIdentifier);
+                        missingResponses.getRecipientsWithoutResponsesFromGiver(), prevGiver));
+                missingResponses.startGiver(getParticipantIdentifier(question.giverType, response.giver, fsrBundle));
             }
             
-            removeParticipantIdentifierFromList(question.recipientType, possibleRecipientsForGiver,
-                                                response.recipient, fsrBundle);
+            missingResponses.removeRecipient(
+                    getParticipantIdentifier(question.recipientType, response.recipient, fsrBundle));
             prevGiver = response.giver;
             
             // Append row(s)
@@ -966,9 +1033,7 @@ public final class FeedbackSessionsLogic {
         // add the rows for the possible givers and recipients who have missing responses
         if (isMissingResponsesShown) {
             exportBuilder.append(
-                    getRemainingRowsInCsvFormat(
-                            fsrBundle, entry, question, questionDetails,
-                            possibleGiversWithoutResponses, possibleRecipientsForGiver, prevGiver));
+                    getRemainingRowsInCsvFormat(fsrBundle, question, questionDetails, missingResponses, prevGiver));
         }
         
         exportBuilder.append(Const.EOL + Const.EOL);
@@ -976,63 +1041,46 @@ public final class FeedbackSessionsLogic {
     }
 
     /**
-     * Given a participantIdentifier, remove it from participantIdentifierList.
-     * 
-     * Before removal, FeedbackSessionResultsBundle.getNameFromRoster is used to
-     * convert the identifier into a canonical form if the participantIdentifierType is TEAMS.
-     * 
-     * @param participantIdentifierType
-     * @param participantIdentifierList
-     * @param participantIdentifier
-     * @param bundle
+     * Converts a participantIdentifier into the form used by FeedbackSessionResultsBundle for
+     * possible givers and recipients, i.e. FeedbackSessionResultsBundle.getFullNameFromRoster
+     * is used if the participantIdentifierType is TEAMS.
      */
-    private void removeParticipantIdentifierFromList(
-            FeedbackParticipantType participantIdentifierType,
-            List<String> participantIdentifierList, String participantIdentifier,
-            FeedbackSessionResultsBundle bundle) {
-        if (participantIdentifierType == FeedbackParticipantType.TEAMS) {
-            participantIdentifierList.remove(bundle.getFullNameFromRoster(participantIdentifier));
-        } else {
-            participantIdentifierList.remove(participantIdentifier);
-        }
+    private String getParticipantIdentifier(FeedbackParticipantType participantIdentifierType,
+                                            String participantIdentifier, FeedbackSessionResultsBundle bundle) {
+        return participantIdentifierType == FeedbackParticipantType.TEAMS
+               ? bundle.getFullNameFromRoster(participantIdentifier)
+               : participantIdentifier;
     }
 
     /**
      * Generate rows of missing responses for the remaining possible givers and recipients.
      * 
-     * If for the prevGiver, possibleRecipientsForGiver is not empty,
+     * If for the prevGiver, there are possible recipients without responses,
      * the remaining missing responses for the prevGiver will be generated first.
      * 
      * @param results
-     * @param entry
      * @param question
      * @param questionDetails
-     * @param remainingPossibleGivers
-     * @param possibleRecipientsForGiver
+     * @param missingResponses
      * @param prevGiver
      * @return the remaining rows of missing responses in csv format
      */
     private StringBuilder getRemainingRowsInCsvFormat(
             FeedbackSessionResultsBundle results,
-            Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry,
             FeedbackQuestionAttributes question,
             FeedbackQuestionDetails questionDetails,
-            List<String> remainingPossibleGivers,
-            List<String> possibleRecipientsForGiver, String prevGiver) {
+            MissingResponsesTracker missingResponses, String prevGiver) {
         StringBuilder exportBuilder = new StringBuilder();
         
-        if (possibleRecipientsForGiver != null) {
-            exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
-                    question, questionDetails, possibleRecipientsForGiver,
-                    prevGiver));
-            
-        }
+        exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
+                question, questionDetails, missingResponses.getRecipientsWithoutResponsesFromGiver(),
+                prevGiver));
         
-        removeParticipantIdentifierFromList(question.giverType, remainingPossibleGivers, prevGiver, results);
+        missingResponses.removeGiver(getParticipantIdentifier(question.giverType, prevGiver, results));
 
-        for (String possibleGiverWithNoResponses : remainingPossibleGivers) {
+        for (String possibleGiverWithNoResponses : missingResponses.getGiversWithoutResponses()) {
             List<String> possibleRecipientsForRemainingGiver =
-                    results.getPossibleRecipients(entry.getKey(), possibleGiverWithNoResponses);
+                    missingResponses.getPossibleRecipients(possibleGiverWithNoResponses);
             
             exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
                     question, questionDetails, possibleRecipientsForRemainingGiver,
@@ -1057,7 +1105,7 @@ public final class FeedbackSessionsLogic {
             FeedbackSessionResultsBundle results,
             FeedbackQuestionAttributes question,
             FeedbackQuestionDetails questionDetails,
-            List<String> possibleRecipientsForGiver, String giver) {
+            Collection<String> possibleRecipientsForGiver, String giver) {
         StringBuilder exportBuilder = new StringBuilder();
         for (String possibleRecipient : possibleRecipientsForGiver) {
             String giverName = results.getFullNameFromRoster(giver);
@@ -1611,9 +1659,7 @@ public final class FeedbackSessionsLogic {
         // Load details of students and instructors once and pass it to callee
         // methods
         // (rather than loading them many times).
-        CourseRoster roster = new CourseRoster(
-                studentsLogic.getStudentsForCourse(courseId),
-                instructorsLogic.getInstructorsForCourse(courseId));
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
         
         return getFeedbackSessionResultsForUserInSectionByQuestions(
                 feedbackSessionName, courseId, userEmail, role, section, roster);
@@ -1662,23 +1708,18 @@ public final class FeedbackSessionsLogic {
                     visibilityTable, responseStatus, roster, responseComments);
         }
 
+        QuestionStatisticsStore statisticsStore = getQuestionStatisticsStore(session, roster);
+        ResultsViewer viewer = getResultsViewer(courseId, feedbackSessionName, userEmail, role);
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(
                                                                     feedbackSessionName, courseId);
+        boolean isPrivateSessionCreatedByThisUser = session
+                .isCreator(userEmail) && session.isPrivateSession();
+        List<List<FeedbackResponseAttributes>> responsesForQuestions = getViewableResponsesForQuestions(
+                allQuestions, userEmail, role, section, isPrivateSessionCreatedByThisUser);
         Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
-        for (FeedbackQuestionAttributes question : allQuestions) {
-
-            List<FeedbackResponseAttributes> responsesForThisQn;
-
-            boolean isPrivateSessionCreatedByThisUser = session
-                    .isCreator(userEmail) && session.isPrivateSession();
-            if (isPrivateSessionCreatedByThisUser) {
-                responsesForThisQn = frLogic
-                        .getFeedbackResponsesForQuestion(question.getId());
-            } else {
-                responsesForThisQn = frLogic
-                        .getViewableFeedbackResponsesForQuestionInSection(
-                                question, userEmail, role, section);
-            }
+        for (int i = 0; i < allQuestions.size(); i++) {
+            FeedbackQuestionAttributes question = allQuestions.get(i);
+            List<FeedbackResponseAttributes> responsesForThisQn = responsesForQuestions.get(i);
 
             boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
             if (thisQuestionHasResponses) {
@@ -1698,22 +1739,6 @@ public final class FeedbackSessionsLogic {
             }
         }
 
-        StudentAttributes student = null;
-        Set<String> studentsEmailInTeam = new HashSet<String>();
-        if (role == UserRole.STUDENT) {
-            student = studentsLogic.getStudentForEmail(courseId, userEmail);
-            List<StudentAttributes> studentsInTeam = studentsLogic
-                    .getStudentsForTeam(student.team, courseId);
-            for (StudentAttributes teammates : studentsInTeam) {
-                studentsEmailInTeam.add(teammates.email);
-            }
-        }
-        
-        InstructorAttributes instructor = null;
-        if (role == UserRole.INSTRUCTOR) {
-            instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-        }
-        
         List<FeedbackResponseCommentAttributes> allResponseComments =
                 frcLogic.getFeedbackResponseCommentForSession(courseId,
                         feedbackSessionName);
@@ -1721,8 +1746,8 @@ public final class FeedbackSessionsLogic {
             FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
             FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
             boolean isVisibleResponseComment = frcLogic.isResponseCommentVisibleForUser(userEmail, courseId,
-                    role, section, student, studentsEmailInTeam, relatedResponse,
-                    relatedQuestion, frc, instructor);
+                    role, section, viewer.student, viewer.studentsEmailInTeam, relatedResponse,
+                    relatedQuestion, frc, viewer.instructor);
             if (isVisibleResponseComment) {
                 if (!frcLogic.isNameVisibleToUser(frc, relatedResponse, userEmail, roster)) {
                     frc.giverEmail = "Anonymous";
@@ -1741,17 +1766,141 @@ public final class FeedbackSessionsLogic {
             sortByCreatedDate(responseCommentList);
         }
         
-        addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, role, feedbackSessionName, section);
+        addSectionTeamNamesToTable(sectionTeamNameTable, roster, viewer, section);
 
         FeedbackSessionResultsBundle results =
                 new FeedbackSessionResultsBundle(
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments);
+        results.setStatisticsStore(statisticsStore);
+        results.setResponseAggregateStore(getResponseAggregateStore(viewer, section, roster));
 
         return results;
     }
 
+    /**
+     * Gets the responses viewable by the user for each of the questions, in the same order as the questions.
+     *
+     * <p>Each question needs several Datastore queries, so the responses of up to
+     * {@link #MAX_CONCURRENT_QUESTION_FETCHES} questions are fetched at the same time in request threads.
+     * The responses are fetched one question at a time if request threads are not available.
+     */
+    private List<List<FeedbackResponseAttributes>> getViewableResponsesForQuestions(
+            List<FeedbackQuestionAttributes> questions, String userEmail, UserRole role,
+            String section, boolean isPrivateSessionCreatedByThisUser) {
+        ThreadFactory threadFactory = questions.size() > 1 ? getRequestThreadFactory() : null;
+        return getViewableResponsesForQuestions(questions, userEmail, role, section,
+                                                isPrivateSessionCreatedByThisUser, threadFactory);
+    }
+
+    /**
+     * @param threadFactory creates the threads to fetch the responses in,
+     *         or null to fetch them one question at a time in the current thread
+     */
+    private List<List<FeedbackResponseAttributes>> getViewableResponsesForQuestions(
+            List<FeedbackQuestionAttributes> questions, final String userEmail, final UserRole role,
+            final String section, final boolean isPrivateSessionCreatedByThisUser, ThreadFactory threadFactory) {
+        if (threadFactory == null) {
+            List<List<FeedbackResponseAttributes>> responsesForQuestions =
+                    new ArrayList<List<FeedbackResponseAttributes>>();
+            for (FeedbackQuestionAttributes question : questions) {
+                responsesForQuestions.add(getViewableResponsesForQuestion(
+                        question, userEmail, role, section, isPrivateSessionCreatedByThisUser));
+            }
+            return responsesForQuestions;
+        }
+
+        List<Callable<List<FeedbackResponseAttributes>>> fetches =
+                new ArrayList<Callable<List<FeedbackResponseAttributes>>>();
+        for (final FeedbackQuestionAttributes question : questions) {
+            fetches.add(new Callable<List<FeedbackResponseAttributes>>() {
+                @Override
+                public List<FeedbackResponseAttributes> call() {
+                    try {
+                        return getViewableResponsesForQuestion(
+                                question, userEmail, role, section, isPrivateSessionCreatedByThisUser);
+                    } finally {
+                        // the thread has its own persistence manager, which is not closed with the request
+                        frLogic.closePersistenceManager();
+                    }
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(questions.size(), MAX_CONCURRENT_QUESTION_FETCHES), threadFactory);
+        try {
+            List<List<FeedbackResponseAttributes>> responsesForQuestions =
+                    new ArrayList<List<FeedbackResponseAttributes>>();
+            for (Future<List<FeedbackResponseAttributes>> fetch : executor.invokeAll(fetches)) {
+                responsesForQuestions.add(fetch.get());
+            }
+            return responsesForQuestions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            // the fetches do not throw checked exceptions
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<FeedbackResponseAttributes> getViewableResponsesForQuestion(
+            FeedbackQuestionAttributes question, String userEmail, UserRole role,
+            String section, boolean isPrivateSessionCreatedByThisUser) {
+        if (isPrivateSessionCreatedByThisUser) {
+            return frLogic.getFeedbackResponsesForQuestion(question.getId());
+        }
+        return frLogic.getViewableFeedbackResponsesForQuestionInSection(question, userEmail, role, section);
+    }
+
+    /**
+     * Returns the factory for threads that can make API calls on behalf of the current request,
+     * or null if there is none, e.g. outside of a request.
+     */
+    private static ThreadFactory getRequestThreadFactory() {
+        try {
+            return ThreadManager.currentRequestThreadFactory();
+        } catch (Exception e) {
+            // the cause is the same every time, e.g. when running outside of requests
+            if (IS_REQUEST_THREAD_WARNING_LOGGED.compareAndSet(false, true)) {
+                log.warning("Request threads are not available: " + TeammatesException.toStringWithStackTrace(e));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the details of the user viewing the results of a session once,
+     * so that they can be used by every stage of building the results.
+     */
+    private ResultsViewer getResultsViewer(String courseId, String feedbackSessionName,
+                                           String userEmail, UserRole role) {
+        StudentAttributes student = null;
+        Set<String> studentsEmailInTeam = new HashSet<String>();
+        if (role == UserRole.STUDENT) {
+            student = studentsLogic.getStudentForEmail(courseId, userEmail);
+            List<StudentAttributes> studentsInTeam = studentsLogic
+                    .getStudentsForTeam(student.team, courseId);
+            for (StudentAttributes teammates : studentsInTeam) {
+                studentsEmailInTeam.add(teammates.email);
+            }
+        }
+        
+        InstructorAttributes instructor = null;
+        if (role == UserRole.INSTRUCTOR) {
+            instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+        }
+        
+        return new ResultsViewer(feedbackSessionName, userEmail, role, student, studentsEmailInTeam, instructor);
+    }
+
     private FeedbackSessionResultsBundle getFeedbackSessionResultsForUserWithParams(
             String feedbackSessionName, String courseId, String userEmail,
             UserRole role, CourseRoster roster, Map<String, String> params)
@@ -1765,6 +1914,7 @@ public final class FeedbackSessionsLogic {
             throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_VIEW + courseId + "/" + feedbackSessionName);
         }
 
+        QuestionStatisticsStore statisticsStore = getQuestionStatisticsStore(session, roster);
         List<FeedbackQuestionAttributes> allQuestions =
                 fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
                         courseId);
@@ -1810,6 +1960,8 @@ public final class FeedbackSessionsLogic {
         
         String section = params.get(PARAM_SECTION);
         
+        ResultsViewer viewer = getResultsViewer(courseId, feedbackSessionName, userEmail, role);
+        
         if (params.get(PARAM_QUESTION_ID) != null) {
             String questionId = params.get(PARAM_QUESTION_ID);
             boolean isQueryingResponseRateStatus = questionId.equals(QUESTION_ID_FOR_RESPONSE_RATE);
@@ -1821,58 +1973,19 @@ public final class FeedbackSessionsLogic {
             } else {
                 FeedbackQuestionAttributes question = fqLogic.getFeedbackQuestion(questionId);
                 if (question != null) {
-                    relevantQuestions.put(question.getId(), question);
-                    
-                    List<FeedbackResponseAttributes> responsesForThisQn;
-    
-                    boolean isPrivateSessionCreatedByThisUser = session
-                            .isCreator(userEmail) && session.isPrivateSession();
-                    if (isPrivateSessionCreatedByThisUser) {
-                        responsesForThisQn = frLogic
-                                .getFeedbackResponsesForQuestion(question.getId());
-                    } else {
-                        responsesForThisQn = frLogic
-                                .getViewableFeedbackResponsesForQuestionInSection(
-                                        question, userEmail, UserRole.INSTRUCTOR, section);
-                    }
-    
-                    boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
-                    if (thisQuestionHasResponses) {
-                        for (FeedbackResponseAttributes response : responsesForThisQn) {
-                            InstructorAttributes instructor = null;
-                            if (role == UserRole.INSTRUCTOR) {
-                                instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-                            }
-                            StudentAttributes student = null;
-                            Set<String> studentsEmailInTeam = null;
-                            boolean isVisibleResponse = isResponseVisibleForUser(userEmail,
-                                    role, student, studentsEmailInTeam, response,
-                                    question, instructor);
-                            if (isVisibleResponse) {
-                                responses.add(response);
-                                addEmailNamePairsToTable(emailNameTable, response,
-                                        question, roster);
-                                addEmailLastNamePairsToTable(emailLastNameTable, response,
-                                        question, roster);
-                                addEmailTeamNamePairsToTable(emailTeamNameTable,
-                                        response,
-                                        question, roster);
-                                addVisibilityToTable(visibilityTable, question,
-                                        response, userEmail, role, roster);
-                            }
-                        }
-                    }
+                    return getFeedbackSessionResultsForQuestion(session, question, viewer, section, roster,
+                                                                statisticsStore);
                 }
             }
 
-            addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, role,
-                                       feedbackSessionName, section);
+            addSectionTeamNamesToTable(sectionTeamNameTable, roster, viewer, section);
             
             FeedbackSessionResultsBundle results =
                     new FeedbackSessionResultsBundle(
                             session, responses, relevantQuestions, emailNameTable,
                             emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                             visibilityTable, responseStatus, roster, responseComments, true);
+            results.setStatisticsStore(statisticsStore);
 
             return results;
         }
@@ -1903,30 +2016,12 @@ public final class FeedbackSessionsLogic {
                        ? getFeedbackSessionResponseStatus(session, roster, allQuestions)
                        : null;
 
-        StudentAttributes student = null;
-        Set<String> studentsEmailInTeam = new HashSet<String>();
-        if (role == UserRole.STUDENT) {
-            student = studentsLogic.getStudentForEmail(courseId, userEmail);
-            List<StudentAttributes> studentsInTeam = studentsLogic
-                    .getStudentsForTeam(student.team, courseId);
-            for (StudentAttributes teammates : studentsInTeam) {
-                studentsEmailInTeam.add(teammates.email);
-            }
-        }
-        
-        InstructorAttributes instructor = null;
-        if (role == UserRole.INSTRUCTOR) {
-            instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-        }
-        
         Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
         for (FeedbackResponseAttributes response : allResponses) {
             FeedbackQuestionAttributes relatedQuestion = allQuestionsMap
                     .get(response.feedbackQuestionId);
             if (relatedQuestion != null) {
-                boolean isVisibleResponse = isResponseVisibleForUser(userEmail,
-                        role, student, studentsEmailInTeam, response,
-                        relatedQuestion, instructor);
+                boolean isVisibleResponse = isResponseVisibleForUser(viewer, response, relatedQuestion);
                 if (isVisibleResponse) {
                     responses.add(response);
                     relevantResponse.put(response.getId(), response);
@@ -1954,8 +2049,8 @@ public final class FeedbackSessionsLogic {
                 FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
                 FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
                 boolean isVisibleResponseComment = frcLogic.isResponseCommentVisibleForUser(userEmail, courseId,
-                        role, section, student, studentsEmailInTeam, relatedResponse,
-                        relatedQuestion, frc, instructor);
+                        role, section, viewer.student, viewer.studentsEmailInTeam, relatedResponse,
+                        relatedQuestion, frc, viewer.instructor);
                 if (isVisibleResponseComment) {
                     if (!frcLogic.isNameVisibleToUser(frc, relatedResponse, userEmail, roster)) {
                         frc.giverEmail = "Anonymous";
@@ -1979,17 +2074,158 @@ public final class FeedbackSessionsLogic {
             }
         }
         
-        addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, role, feedbackSessionName, section);
+        addSectionTeamNamesToTable(sectionTeamNameTable, roster, viewer, section);
         
         FeedbackSessionResultsBundle results =
                 new FeedbackSessionResultsBundle(
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments, isComplete);
+        results.setStatisticsStore(statisticsStore);
+        results.setResponseAggregateStore(getResponseAggregateStore(viewer, section, roster));
 
         return results;
     }
 
+    /**
+     * Gets the results of a single question of a session to show to an instructor.
+     * The session, roster, viewer and statistics store are loaded by the caller, so that they can be
+     * shared when the results of several questions are needed.
+     */
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForQuestion(
+            FeedbackSessionAttributes session, FeedbackQuestionAttributes question, ResultsViewer viewer,
+            String section, CourseRoster roster, QuestionStatisticsStore statisticsStore) {
+        String userEmail = viewer.email;
+        List<FeedbackResponseAttributes> responsesForThisQn;
+        boolean isPrivateSessionCreatedByThisUser = session.isCreator(userEmail) && session.isPrivateSession();
+        if (isPrivateSessionCreatedByThisUser) {
+            responsesForThisQn = frLogic.getFeedbackResponsesForQuestion(question.getId());
+        } else {
+            responsesForThisQn = frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                    question, userEmail, UserRole.INSTRUCTOR, section);
+        }
+        return getFeedbackSessionResultsForQuestion(session, question, viewer, section, roster, statisticsStore,
+                                                    responsesForThisQn);
+    }
+
+    /**
+     * Gets the results of a single question of a session to show to an instructor
+     * from the responses of the question that the instructor can view.
+     */
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForQuestion(
+            FeedbackSessionAttributes session, FeedbackQuestionAttributes question, ResultsViewer viewer,
+            String section, CourseRoster roster, QuestionStatisticsStore statisticsStore,
+            List<FeedbackResponseAttributes> responsesForThisQn) {
+        String userEmail = viewer.email;
+        
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        Map<String, FeedbackQuestionAttributes> relevantQuestions = new HashMap<String, FeedbackQuestionAttributes>();
+        Map<String, String> emailNameTable = new HashMap<String, String>();
+        Map<String, String> emailLastNameTable = new HashMap<String, String>();
+        Map<String, String> emailTeamNameTable = new HashMap<String, String>();
+        Map<String, Set<String>> sectionTeamNameTable = new HashMap<String, Set<String>>();
+        Map<String, boolean[]> visibilityTable = new HashMap<String, boolean[]>();
+        Map<String, List<FeedbackResponseCommentAttributes>> responseComments =
+                new HashMap<String, List<FeedbackResponseCommentAttributes>>();
+        
+        relevantQuestions.put(question.getId(), question);
+        
+        for (FeedbackResponseAttributes response : responsesForThisQn) {
+            boolean isVisibleResponse = isResponseVisibleForUser(viewer, response, question);
+            if (isVisibleResponse) {
+                responses.add(response);
+                addEmailNamePairsToTable(emailNameTable, response, question, roster);
+                addEmailLastNamePairsToTable(emailLastNameTable, response, question, roster);
+                addEmailTeamNamePairsToTable(emailTeamNameTable, response, question, roster);
+                addVisibilityToTable(visibilityTable, question, response, userEmail, viewer.role, roster);
+            }
+        }
+        
+        addSectionTeamNamesToTable(sectionTeamNameTable, roster, viewer, section);
+        
+        FeedbackSessionResultsBundle results =
+                new FeedbackSessionResultsBundle(
+                        session, responses, relevantQuestions, emailNameTable,
+                        emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
+                        visibilityTable, new FeedbackSessionResponseStatus(), roster, responseComments, true);
+        results.setStatisticsStore(statisticsStore);
+        results.setResponseAggregateStore(getResponseAggregateStore(viewer, section, roster));
+        return results;
+    }
+    
+    private FeedbackSessionResultsBundle getEmptyFeedbackSessionResults(FeedbackSessionAttributes session,
+                                                                        CourseRoster roster) {
+        return new FeedbackSessionResultsBundle(
+                session, new ArrayList<FeedbackResponseAttributes>(),
+                new HashMap<String, FeedbackQuestionAttributes>(), new HashMap<String, String>(),
+                new HashMap<String, String>(), new HashMap<String, String>(), new HashMap<String, Set<String>>(),
+                new HashMap<String, boolean[]>(), new FeedbackSessionResponseStatus(), roster,
+                new HashMap<String, List<FeedbackResponseCommentAttributes>>());
+    }
+
+    /**
+     * Returns a store that lets result bundles of the session reuse question statistics computed
+     * by earlier requests, or null if statistics should be computed afresh.<br>
+     * Statistics are only kept for closed sessions, as responses seldom change after that.
+     * Must be called before the responses of the session are read.
+     */
+    private QuestionStatisticsStore getQuestionStatisticsStore(final FeedbackSessionAttributes session,
+                                                               CourseRoster roster) {
+        if (!session.isClosed() || roster.getVersion() == null) {
+            return null;
+        }
+        String statisticsVersion =
+                STATISTICS_CACHE.getStatisticsVersion(session.getCourseId(), session.getFeedbackSessionName());
+        if (statisticsVersion == null) {
+            return null;
+        }
+        
+        // statistics also depend on the names and teams of the students and instructors
+        final String keyPrefix = session.getCourseId() + '\u0000' + session.getFeedbackSessionName() + '\u0000'
+                                 + statisticsVersion + '\u0000' + roster.getVersion() + '\u0000';
+        return new QuestionStatisticsStore() {
+            @Override
+            public String get(String questionId, String scope) {
+                return STATISTICS_CACHE.getStatistics(keyPrefix + questionId + '\u0000' + scope);
+            }
+            
+            @Override
+            public void put(String questionId, String scope, String statistics) {
+                STATISTICS_CACHE.putStatistics(session.getCourseId(), session.getFeedbackSessionName(),
+                                               keyPrefix + questionId + '\u0000' + scope, statistics);
+            }
+        };
+    }
+
+    /**
+     * Returns a store of the aggregates of all the responses of questions, or null if the viewer does not
+     * see all the responses of the session, i.e. the results are of one section, or the viewer is a student
+     * or an instructor who may not view every section. The store only provides aggregates of questions
+     * whose responses are visible to instructors, as the aggregates are otherwise of responses that
+     * the viewer does not see.
+     */
+    private ResponseAggregateStore getResponseAggregateStore(ResultsViewer viewer, String section,
+                                                             CourseRoster roster) {
+        if (section != null || viewer.role != UserRole.INSTRUCTOR || viewer.instructor == null
+                || !viewer.isAllowedToViewSection(Const.DEFAULT_SECTION)) {
+            return null;
+        }
+        for (StudentAttributes student : roster.getStudents()) {
+            if (!viewer.isAllowedToViewSection(student.section)) {
+                return null;
+            }
+        }
+        return new ResponseAggregateStore() {
+            @Override
+            public FeedbackResponseAggregate get(FeedbackQuestionAttributes question) {
+                if (!question.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS)) {
+                    return null;
+                }
+                return frLogic.getFeedbackResponseAggregate(question.getId());
+            }
+        };
+    }
+
     private List<FeedbackResponseAttributes> getAllResponses(String feedbackSessionName, String courseId,
             Map<String, String> params, String section) {
         boolean isInSection = Boolean.parseBoolean(params.get(PARAM_IN_SECTION));
@@ -2030,19 +2266,10 @@ public final class FeedbackSessionsLogic {
     }
 
     private void addSectionTeamNamesToTable(Map<String, Set<String>> sectionTeamNameTable,
-                                    CourseRoster roster, String courseId, String userEmail, UserRole role,
-                                    String feedbackSessionName, String sectionToView) {
-        InstructorAttributes instructor = null;
-        if (role == UserRole.INSTRUCTOR) {
-            instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-        }
-        if (instructor != null) {
+                                    CourseRoster roster, ResultsViewer viewer, String sectionToView) {
+        if (viewer.instructor != null) {
             for (StudentAttributes student : roster.getStudents()) {
-                boolean isVisibleResponse =
-                        instructor.isAllowedForPrivilege(
-                                           student.section,
-                                           feedbackSessionName,
-                                           Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+                boolean isVisibleResponse = viewer.isAllowedToViewSection(student.section);
                 boolean isStudentInSelectedSection = student.section.equals(sectionToView);
                 boolean isViewingAllSections = sectionToView == null;
                 
@@ -2060,47 +2287,44 @@ public final class FeedbackSessionsLogic {
         }
     }
 
-    private boolean isResponseVisibleForUser(String userEmail,
-            UserRole role, StudentAttributes student,
-            Set<String> studentsEmailInTeam,
-            FeedbackResponseAttributes response,
-            FeedbackQuestionAttributes relatedQuestion, InstructorAttributes instructor) {
+    private boolean isResponseVisibleForUser(ResultsViewer viewer,
+            FeedbackResponseAttributes response, FeedbackQuestionAttributes relatedQuestion) {
+        String userEmail = viewer.email;
+        UserRole role = viewer.role;
+        StudentAttributes student = viewer.student;
+        Set<String> studentsEmailInTeam = viewer.studentsEmailInTeam;
+        InstructorAttributes instructor = viewer.instructor;
+        QuestionVisibility visibility = viewer.getQuestionVisibility(relatedQuestion);
         
         boolean isVisibleResponse = false;
-        if (role == UserRole.INSTRUCTOR && relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS)
-                || response.recipient.equals(userEmail)
-                        && relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.RECEIVER)
+        if (role == UserRole.INSTRUCTOR && visibility.isVisibleToInstructors
+                || response.recipient.equals(userEmail) && visibility.isVisibleToReceiver
                 || response.giver.equals(userEmail)
-                || role == UserRole.STUDENT && relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
+                || role == UserRole.STUDENT && visibility.isVisibleToStudents) {
             isVisibleResponse = true;
         } else if (studentsEmailInTeam != null && role == UserRole.STUDENT) {
-            if (relatedQuestion.recipientType == FeedbackParticipantType.TEAMS
-                    && relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.RECEIVER)
+            if (visibility.isRecipientTeam
+                    && visibility.isVisibleToReceiver
                     && response.recipient.equals(student.team)) {
                 isVisibleResponse = true;
-            } else if (relatedQuestion.giverType == FeedbackParticipantType.TEAMS
+            } else if (visibility.isGiverTeam
                        && studentsEmailInTeam.contains(response.giver)) {
                 isVisibleResponse = true;
-            } else if (relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.OWN_TEAM_MEMBERS)
+            } else if (visibility.isVisibleToOwnTeamMembers
                        && studentsEmailInTeam.contains(response.giver)) {
                 isVisibleResponse = true;
-            } else if (relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.RECEIVER_TEAM_MEMBERS)
+            } else if (visibility.isVisibleToReceiverTeamMembers
                        && studentsEmailInTeam.contains(response.recipient)) {
                 isVisibleResponse = true;
             }
         }
         if (isVisibleResponse && instructor != null) {
-            boolean isGiverSectionRestricted =
-                    !instructor.isAllowedForPrivilege(response.giverSection,
-                                                      response.feedbackSessionName,
-                                                      Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+            boolean isGiverSectionRestricted = !viewer.isAllowedToViewSection(response.giverSection);
             // If instructors are not restricted to view the giver's section,
             // they are allowed to view responses to GENERAL, subject to visibility options
             boolean isRecipientSectionRestricted =
-                    relatedQuestion.recipientType != FeedbackParticipantType.NONE
-                    && !instructor.isAllowedForPrivilege(response.recipientSection,
-                                                         response.feedbackSessionName,
-                                                         Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+                    !visibility.isRecipientNone
+                    && !viewer.isAllowedToViewSection(response.recipientSection);
             
             boolean isNotAllowedForInstructor = isGiverSectionRestricted || isRecipientSectionRestricted;
             if (isNotAllowedForInstructor) {
@@ -2476,4 +2700,83 @@ public final class FeedbackSessionsLogic {
         }
     }
 
+    /**
+     * The user viewing the results of a feedback session.
+     *
+     * <p>The parts of the visibility checks that only depend on the viewer and the question,
+     * or the viewer and the section, are worked out once and reused for every response.
+     */
+    private static final class ResultsViewer {
+        final String feedbackSessionName;
+        final String email;
+        final UserRole role;
+        /** The viewer if the viewer is a student, null otherwise. */
+        final StudentAttributes student;
+        /** Emails of the students in the viewer's team, empty if the viewer is not a student. */
+        final Set<String> studentsEmailInTeam;
+        /** The viewer if the viewer is an instructor, null otherwise. */
+        final InstructorAttributes instructor;
+
+        private final Map<String, QuestionVisibility> questionVisibilities = new HashMap<String, QuestionVisibility>();
+        private final Map<String, Boolean> sectionViewPrivileges = new HashMap<String, Boolean>();
+
+        ResultsViewer(String feedbackSessionName, String email, UserRole role, StudentAttributes student,
+                      Set<String> studentsEmailInTeam, InstructorAttributes instructor) {
+            this.feedbackSessionName = feedbackSessionName;
+            this.email = email;
+            this.role = role;
+            this.student = student;
+            this.studentsEmailInTeam = studentsEmailInTeam;
+            this.instructor = instructor;
+        }
+
+        QuestionVisibility getQuestionVisibility(FeedbackQuestionAttributes question) {
+            QuestionVisibility visibility = questionVisibilities.get(question.getId());
+            if (visibility == null) {
+                visibility = new QuestionVisibility(question);
+                questionVisibilities.put(question.getId(), visibility);
+            }
+            return visibility;
+        }
+
+        /**
+         * Returns true if the viewer, who must be an instructor, may view the session in the given section.
+         */
+        boolean isAllowedToViewSection(String section) {
+            Boolean isAllowed = sectionViewPrivileges.get(section);
+            if (isAllowed == null) {
+                isAllowed = instructor.isAllowedForPrivilege(
+                        section, feedbackSessionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+                sectionViewPrivileges.put(section, isAllowed);
+            }
+            return isAllowed;
+        }
+    }
+
+    /**
+     * The settings of a question that determine who can see its responses.
+     */
+    private static final class QuestionVisibility {
+        final boolean isVisibleToInstructors;
+        final boolean isVisibleToReceiver;
+        final boolean isVisibleToStudents;
+        final boolean isVisibleToOwnTeamMembers;
+        final boolean isVisibleToReceiverTeamMembers;
+        final boolean isGiverTeam;
+        final boolean isRecipientTeam;
+        final boolean isRecipientNone;
+
+        QuestionVisibility(FeedbackQuestionAttributes question) {
+            isVisibleToInstructors = question.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS);
+            isVisibleToReceiver = question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER);
+            isVisibleToStudents = question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS);
+            isVisibleToOwnTeamMembers = question.isResponseVisibleTo(FeedbackParticipantType.OWN_TEAM_MEMBERS);
+            isVisibleToReceiverTeamMembers =
+                    question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER_TEAM_MEMBERS);
+            isGiverTeam = question.giverType == FeedbackParticipantType.TEAMS;
+            isRecipientTeam = question.recipientType == FeedbackParticipantType.TEAMS;
+            isRecipientNone = question.recipientType == FeedbackParticipantType.NONE;
+        }
+    }
+
 }
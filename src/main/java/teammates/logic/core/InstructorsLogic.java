@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import teammates.common.datatransfer.attributes.InstructorAttributes;
@@ -92,6 +93,10 @@ public final class InstructorsLogic {
         
         return instructorsDb.getInstructorForEmail(courseId, email);
     }
+    
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        return instructorsDb.getInstructorsForEmails(courseId, emails);
+    }
 
     public InstructorAttributes getInstructorForGoogleId(String courseId, String googleId) {
         
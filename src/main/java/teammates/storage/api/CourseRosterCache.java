@@ -0,0 +1,120 @@
+package teammates.storage.api;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.attributes.InstructorAttributes;
+import teammates.common.datatransfer.attributes.StudentAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Config;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.Logger;
+
+/**
+ * Caches {@link CourseRoster}s in Memcache so that they can be shared across requests.
+ *
+ * <p>Every course has a roster version. A roster is cached under the version that was current
+ * before it was read from the Datastore, and {@link StudentsDb} and {@link InstructorsDb}
+ * move the course to a new version on every write to its students or instructors, so an
+ * outdated roster can never be served. Rosters are not cached while the Datastore may still be
+ * catching up with a recent write (see {@link Config#PERSISTENCE_CHECK_DURATION}).
+ * A roster that cannot be read from or written to Memcache is read from the Datastore instead.
+ */
+public class CourseRosterCache {
+
+    private static final Logger log = Logger.getLogger();
+
+    private static final String ROSTER_KEY_PREFIX = "CourseRoster.roster|";
+
+    /**
+     * A roster is read on most pages of its course, so it is reused long before it expires.
+     * Rosters of courses that are no longer used only take up Memcache space until then.
+     */
+    private static final int ROSTER_EXPIRATION_SECONDS = 60 * 60;
+
+    private static final VersionedMemcache VERSIONED_MEMCACHE = new VersionedMemcache("CourseRoster");
+
+    /**
+     * Returns the current roster version of the course, creating one if there is none yet.
+     * @return null if the version could not be determined, in which case nothing should be cached.
+     */
+    public String getRosterVersion(String courseId) {
+        return VERSIONED_MEMCACHE.getVersion(courseId);
+    }
+
+    /**
+     * @return the roster of the course cached under {@code version}, or null if there is none.
+     */
+    public CourseRoster getCourseRoster(String courseId, String version) {
+        if (version == null) {
+            return null;
+        }
+        String rosterJson = (String) VERSIONED_MEMCACHE.get(getRosterKey(courseId, version));
+        if (rosterJson == null) {
+            return null;
+        }
+        try {
+            SerializedRoster roster = JsonUtils.fromJson(rosterJson, SerializedRoster.class);
+            return new CourseRoster(roster.students, roster.instructors);
+        } catch (Exception e) {
+            log.warning("Failed to read cached roster of " + courseId + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Caches the roster of the course under {@code version}, which must have been obtained
+     * from {@link #getRosterVersion(String)} before the roster was read from the Datastore.
+     */
+    public void putCourseRoster(String courseId, String version, CourseRoster roster) {
+        if (version == null) {
+            return;
+        }
+        SerializedRoster serializedRoster = new SerializedRoster();
+        serializedRoster.students = roster.getStudents();
+        serializedRoster.instructors = roster.getInstructors();
+        VERSIONED_MEMCACHE.put(courseId, getRosterKey(courseId, version), JsonUtils.toCompactJson(serializedRoster),
+                               ROSTER_EXPIRATION_SECONDS);
+    }
+
+    /**
+     * Returns true if the students or instructors of the course were changed so recently that
+     * the Datastore may not reflect the change yet, in which case nothing derived from the
+     * roster should be cached.
+     */
+    public boolean isRecentlyChanged(String courseId) {
+        return VERSIONED_MEMCACHE.isRecentlyChanged(courseId);
+    }
+
+    /**
+     * Moves the course to a new roster version so that previously cached rosters are no longer used.
+     */
+    public void invalidate(String courseId) {
+        VERSIONED_MEMCACHE.invalidate(courseId);
+    }
+
+    /**
+     * Moves each of the given courses to a new roster version.
+     */
+    public void invalidate(Collection<String> courseIds) {
+        for (String courseId : new HashSet<String>(courseIds)) {
+            invalidate(courseId);
+        }
+    }
+
+    private static String getRosterKey(String courseId, String version) {
+        return ROSTER_KEY_PREFIX + courseId + "|" + version;
+    }
+
+    /**
+     * The form in which a roster is stored in Memcache.
+     */
+    private static class SerializedRoster {
+        List<StudentAttributes> students;
+        List<InstructorAttributes> instructors;
+    }
+
+}
@@ -2,9 +2,14 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
 
@@ -16,12 +21,14 @@ import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.ThreadHelper;
 import teammates.storage.search.SearchDocument;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -48,8 +55,14 @@ public abstract class EntitiesDb {
 
     protected static final Logger log = Logger.getLogger();
     
+    /**
+     * The maximum number of values the Datastore accepts in a single {@code contains()} query filter.
+     */
+    protected static final int MAX_VALUES_PER_CONTAINS_FILTER = 30;
+    
     private static final PersistenceManagerFactory PMF = JDOHelper.getPersistenceManagerFactory("transactions-optional");
     private static final ThreadLocal<PersistenceManager> PER_THREAD_PM = new ThreadLocal<PersistenceManager>();
+    private static final AtomicLong PERSISTENCE_POLLING_COUNT = new AtomicLong();
     
     /**
      * Preconditions:
@@ -80,26 +93,9 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
+        onEntitiesChanged(Collections.singletonList(entityToAdd));
 
-        // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            while (createdEntity == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                createdEntity = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (createdEntity == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                        + entityToAdd.getEntityTypeAsString() + "->"
-                        + entityToAdd.getIdentificationString());
-            }
-        }
+        verifyCreationPersisted(entityToAdd, entity);
         
         log.info(entityToAdd.getBackupIdentifier());
         
@@ -113,26 +109,11 @@ public abstract class EntitiesDb {
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
-        List<Object> entities = new ArrayList<Object>();
-        
-        for (EntityAttributes entityToAdd : entitiesToAdd) {
-            entityToAdd.sanitizeForSaving();
-            
-            if (!entityToAdd.isValid()) {
-                throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
-            }
-            
-            if (getEntity(entityToAdd) == null) {
-                entities.add(entityToAdd.toEntity());
-            } else {
-                entitiesToUpdate.add(entityToAdd);
-            }
-            
-            log.info(entityToAdd.getBackupIdentifier());
-        }
+        List<Object> entities = toNewEntities(entitiesToAdd, entitiesToUpdate);
        
         getPm().makePersistentAll(entities);
         getPm().flush();
+        onEntitiesChanged(entitiesToAdd);
  
         return entitiesToUpdate;
 
@@ -145,31 +126,48 @@ public abstract class EntitiesDb {
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
-        List<Object> entities = new ArrayList<Object>();
+        List<Object> entities = toNewEntities(entitiesToAdd, entitiesToUpdate);
         
+        getPm().makePersistentAll(entities);
+        getPm().flush();
+        onEntitiesChanged(entitiesToAdd);
+ 
+        return entities;
+
+    }
+
+    
+    /**
+     * Sanitizes and validates {@code entitiesToAdd}, then checks which of them already exist.
+     * @param entitiesToUpdate collects the entities that already exist
+     * @return the Datastore entities to persist for those that do not exist yet
+     */
+    private List<Object> toNewEntities(Collection<? extends EntityAttributes> entitiesToAdd,
+                                       List<EntityAttributes> entitiesToUpdate)
+            throws InvalidParametersException {
+        List<EntityAttributes> validEntities = new ArrayList<EntityAttributes>();
         for (EntityAttributes entityToAdd : entitiesToAdd) {
             entityToAdd.sanitizeForSaving();
             
             if (!entityToAdd.isValid()) {
                 throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
             }
-            
-            if (getEntity(entityToAdd) == null) {
-                entities.add(entityToAdd.toEntity());
-            } else {
+            validEntities.add(entityToAdd);
+        }
+        
+        Set<EntityAttributes> existingEntities = getExistingEntities(validEntities);
+        List<Object> entities = new ArrayList<Object>();
+        for (EntityAttributes entityToAdd : validEntities) {
+            if (existingEntities.contains(entityToAdd)) {
                 entitiesToUpdate.add(entityToAdd);
+            } else {
+                entities.add(entityToAdd.toEntity());
             }
             
             log.info(entityToAdd.getBackupIdentifier());
         }
-        
-        getPm().makePersistentAll(entities);
-        getPm().flush();
- 
         return entities;
-
     }
-
     
     /**
      * Warning: Do not use this method unless a previous update might cause
@@ -191,26 +189,10 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
+        onEntitiesChanged(Collections.singletonList(entityToAdd));
 
-        // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToAdd);
-            while (entityCheck == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                         + entityToAdd.getEntityTypeAsString() + "->"
-                         + entityToAdd.getIdentificationString());
-            }
-        }
+        verifyCreationPersisted(entityToAdd, entity);
+        
         log.info(entityToAdd.getBackupIdentifier());
         
         return entity;
@@ -232,31 +214,15 @@ public abstract class EntitiesDb {
             return;
         }
 
+        // the object ID has to be taken before the entity is deleted
+        Object objectId = JDOHelper.getObjectId(entity);
+        
         getPm().deletePersistent(entity);
         getPm().flush();
+        onEntitiesChanged(Collections.singletonList(entityToDelete));
+        
+        verifyDeletionPersisted(entityToDelete, objectId);
         
-        // wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToDelete);
-            boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-            while (!isEntityDeleted
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToDelete);
-                
-                isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-                //check before incrementing to avoid boundary case problem
-                if (!isEntityDeleted) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: delete"
-                        + entityToDelete.getEntityTypeAsString() + "->"
-                        + entityToDelete.getIdentificationString());
-            }
-        }
         log.info(entityToDelete.getBackupIdentifier());
     }
     
@@ -274,6 +240,119 @@ public abstract class EntitiesDb {
         
         getPm().deletePersistentAll(entities);
         getPm().flush();
+        onEntitiesChanged(entitiesToDelete);
+    }
+    
+    /**
+     * Returns the number of writes so far for which polling found that the write was not yet visible
+     * to queries and had to wait for it. Always 0 unless {@link Config#isUsingPersistencePolling()}.
+     */
+    public static long getPersistencePollingCount() {
+        return PERSISTENCE_POLLING_COUNT.get();
+    }
+    
+    /**
+     * Returns true if writes should be verified by polling until they are visible to queries.
+     * Otherwise, writes are verified by a single strongly-consistent lookup by key, or not at all
+     * where no key is available.
+     */
+    protected static boolean isPollingForPersistence() {
+        return Config.isUsingPersistencePolling() && Config.PERSISTENCE_CHECK_DURATION > 0;
+    }
+    
+    /**
+     * Records that polling had to wait for a write to become visible to queries.
+     */
+    protected static void recordPersistencePolling() {
+        PERSISTENCE_POLLING_COUNT.incrementAndGet();
+    }
+    
+    private void verifyCreationPersisted(EntityAttributes entityToAdd, Object entity) {
+        if (!isPollingForPersistence()) {
+            if (!isPresentByKey(JDOHelper.getObjectId(entity))) {
+                log.warning("Operation did not persist: create"
+                            + entityToAdd.getEntityTypeAsString() + "->"
+                            + entityToAdd.getIdentificationString());
+            }
+            return;
+        }
+        
+        int elapsedTime = 0;
+        Object createdEntity = getEntity(entityToAdd);
+        if (createdEntity == null) {
+            recordPersistencePolling();
+        }
+        while (createdEntity == null
+               && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            createdEntity = getEntity(entityToAdd);
+            //check before incrementing to avoid boundary case problem
+            if (createdEntity == null) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
+            log.info("Operation did not persist in time: create"
+                    + entityToAdd.getEntityTypeAsString() + "->"
+                    + entityToAdd.getIdentificationString()
+                    + " (writes polled for so far: " + getPersistencePollingCount() + ")");
+        }
+    }
+    
+    private void verifyDeletionPersisted(EntityAttributes entityToDelete, Object objectId) {
+        if (!isPollingForPersistence()) {
+            if (isPresentByKey(objectId)) {
+                log.warning("Operation did not persist: delete"
+                            + entityToDelete.getEntityTypeAsString() + "->"
+                            + entityToDelete.getIdentificationString());
+            }
+            return;
+        }
+        
+        int elapsedTime = 0;
+        Object entityCheck = getEntity(entityToDelete);
+        boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
+        if (!isEntityDeleted) {
+            recordPersistencePolling();
+        }
+        while (!isEntityDeleted
+                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            entityCheck = getEntity(entityToDelete);
+            
+            isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
+            //check before incrementing to avoid boundary case problem
+            if (!isEntityDeleted) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
+            log.info("Operation did not persist in time: delete"
+                    + entityToDelete.getEntityTypeAsString() + "->"
+                    + entityToDelete.getIdentificationString()
+                    + " (writes polled for so far: " + getPersistencePollingCount() + ")");
+        }
+    }
+    
+    /**
+     * Looks the entity up by key in the Datastore. Unlike queries, lookups by key are strongly consistent.
+     * A separate persistence manager is used so that the lookup is not answered from the cache of the
+     * current one.
+     */
+    private boolean isPresentByKey(Object objectId) {
+        if (objectId == null) {
+            // not expected to happen, as all entities have application-assigned or generated keys
+            return true;
+        }
+        PersistenceManager pm = PMF.getPersistenceManager();
+        try {
+            pm.getObjectById(objectId);
+            return true;
+        } catch (JDOObjectNotFoundException e) {
+            return false;
+        } finally {
+            pm.close();
+        }
     }
     
     public void commitOutstandingChanges() {
@@ -299,6 +378,79 @@ public abstract class EntitiesDb {
      */
     protected abstract Object getEntity(EntityAttributes attributes);
     
+    /**
+     * Returns the entities among {@code entitiesToCheck} that already exist in the Datastore,
+     * identified in the same way as {@link #getEntity(EntityAttributes)}. The returned set compares
+     * by identity, i.e. it contains the given {@link EntityAttributes} objects themselves.
+     * 
+     * <p>This implementation checks the entities one by one. Subclasses whose entities are
+     * created in bulk should override it to check them in batches.
+     */
+    protected Set<EntityAttributes> getExistingEntities(List<EntityAttributes> entitiesToCheck) {
+        Set<EntityAttributes> existingEntities = newIdentitySet();
+        for (EntityAttributes entityToCheck : entitiesToCheck) {
+            if (getEntity(entityToCheck) != null) {
+                existingEntities.add(entityToCheck);
+            }
+        }
+        return existingEntities;
+    }
+    
+    protected static Set<EntityAttributes> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<EntityAttributes, Boolean>());
+    }
+    
+    /**
+     * Returns true if a lookup identified by {@code cacheKey} has already been served
+     * by this class during the current request (see {@link RequestScopedCache}).
+     */
+    protected boolean isInRequestCache(String cacheKey) {
+        return RequestScopedCache.contains(getClass().getName(), cacheKey);
+    }
+    
+    protected Object getFromRequestCache(String cacheKey) {
+        return RequestScopedCache.get(getClass().getName(), cacheKey);
+    }
+    
+    protected void putInRequestCache(String cacheKey, Object value) {
+        RequestScopedCache.put(getClass().getName(), cacheKey, value);
+    }
+    
+    /**
+     * Discards every lookup cached by this class during the current request.
+     * Must be called after any write performed through this class.
+     */
+    protected void invalidateRequestCache() {
+        RequestScopedCache.invalidate(getClass().getName());
+    }
+    
+    /**
+     * Called after entities have been created or deleted through the generic methods of this class.
+     * Subclasses that cache data derived from their entities should extend this to invalidate it.
+     */
+    protected void onEntitiesChanged(Collection<? extends EntityAttributes> changedEntities) {
+        invalidateRequestCache();
+    }
+    
+    /**
+     * Splits {@code values} into consecutive batches that each fit in a {@code contains()} query filter.
+     */
+    protected static List<List<String>> splitIntoContainsFilterBatches(Collection<String> values) {
+        List<List<String>> batches = new ArrayList<List<String>>();
+        List<String> currentBatch = new ArrayList<String>();
+        for (String value : values) {
+            if (currentBatch.size() == MAX_VALUES_PER_CONTAINS_FILTER) {
+                batches.add(currentBatch);
+                currentBatch = new ArrayList<String>();
+            }
+            currentBatch.add(value);
+        }
+        if (!currentBatch.isEmpty()) {
+            batches.add(currentBatch);
+        }
+        return batches;
+    }
+    
     protected PersistenceManager getPm() {
         PersistenceManager pm = PER_THREAD_PM.get();
         if (pm != null && !pm.isClosed()) {
@@ -322,6 +474,21 @@ public abstract class EntitiesDb {
         }
     }
     
+    protected void putDocuments(String indexName, List<? extends SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try {
+            List<Document> searchDocuments = new ArrayList<Document>();
+            for (SearchDocument document : documents) {
+                searchDocuments.add(document.build());
+            }
+            SearchManager.putDocuments(indexName, searchDocuments);
+        } catch (Exception e) {
+            log.info("Failed to put " + documents.size() + " searchable documents in " + indexName);
+        }
+    }
+    
     protected Results<ScoredDocument> searchDocuments(String indexName, SearchQuery query) {
         try {
             if (query.getFilterSize() > 0) {
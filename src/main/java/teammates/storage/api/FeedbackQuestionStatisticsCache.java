@@ -0,0 +1,115 @@
+package teammates.storage.api;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.util.Config;
+
+/**
+ * Caches the result statistics of feedback questions in Memcache so that result pages of
+ * sessions whose responses no longer change do not have to recompute them from every response.
+ *
+ * <p>Every feedback session has a statistics version. Statistics are cached under the version
+ * that was current before the responses were read from the Datastore, and {@link FeedbackResponsesDb}
+ * and {@link FeedbackQuestionsDb} move the session to a new version on every write to its
+ * responses or questions, so outdated statistics can never be served. Statistics are not cached
+ * while the Datastore may still be catching up with a recent write
+ * (see {@link Config#PERSISTENCE_CHECK_DURATION}).
+ * If statistics cannot be read from Memcache, the results page computes them from the responses.
+ */
+public class FeedbackQuestionStatisticsCache {
+
+    private static final String STATISTICS_KEY_PREFIX = "QuestionStatistics.statistics|";
+
+    /**
+     * Statistics are only cached for closed sessions, whose results are typically viewed and downloaded
+     * many times over the days after closing.
+     */
+    private static final int STATISTICS_EXPIRATION_SECONDS = 6 * 60 * 60;
+
+    private static final VersionedMemcache VERSIONED_MEMCACHE = new VersionedMemcache("QuestionStatistics");
+
+    /**
+     * Returns the current statistics version of the session, creating one if there is none yet.
+     * @return null if the version could not be determined, in which case nothing should be cached.
+     */
+    public String getStatisticsVersion(String courseId, String feedbackSessionName) {
+        return VERSIONED_MEMCACHE.getVersion(getSessionKey(courseId, feedbackSessionName));
+    }
+
+    /**
+     * @param statisticsKey identifies the statistics, including the statistics version
+     *         obtained from {@link #getStatisticsVersion(String, String)}.
+     * @return the statistics cached under {@code statisticsKey}, or null if there are none.
+     */
+    public String getStatistics(String statisticsKey) {
+        return (String) VERSIONED_MEMCACHE.get(getStatisticsKey(statisticsKey));
+    }
+
+    /**
+     * Caches statistics of the session under {@code statisticsKey}, which must include a version
+     * obtained from {@link #getStatisticsVersion(String, String)} before the responses were read.
+     */
+    public void putStatistics(String courseId, String feedbackSessionName, String statisticsKey, String statistics) {
+        VERSIONED_MEMCACHE.put(getSessionKey(courseId, feedbackSessionName), getStatisticsKey(statisticsKey),
+                               statistics, STATISTICS_EXPIRATION_SECONDS);
+    }
+
+    /**
+     * Moves the session to a new statistics version so that previously cached statistics are no longer used.
+     */
+    public void invalidate(String courseId, String feedbackSessionName) {
+        VERSIONED_MEMCACHE.invalidate(getSessionKey(courseId, feedbackSessionName));
+    }
+
+    /**
+     * Moves each of the given sessions to a new statistics version.
+     * @param feedbackSessionNamesByCourse names of the sessions to invalidate, keyed by their course ID
+     */
+    public void invalidate(Map<String, Set<String>> feedbackSessionNamesByCourse) {
+        for (Map.Entry<String, Set<String>> course : feedbackSessionNamesByCourse.entrySet()) {
+            for (String feedbackSessionName : course.getValue()) {
+                invalidate(course.getKey(), feedbackSessionName);
+            }
+        }
+    }
+
+    /**
+     * Adds a session to a map of session names keyed by course ID, as taken by {@link #invalidate(Map)}.
+     */
+    public static void addSession(Map<String, Set<String>> feedbackSessionNamesByCourse,
+                                  String courseId, String feedbackSessionName) {
+        Set<String> feedbackSessionNames = feedbackSessionNamesByCourse.get(courseId);
+        if (feedbackSessionNames == null) {
+            feedbackSessionNames = new HashSet<String>();
+            feedbackSessionNamesByCourse.put(courseId, feedbackSessionNames);
+        }
+        feedbackSessionNames.add(feedbackSessionName);
+    }
+
+    private static String getSessionKey(String courseId, String feedbackSessionName) {
+        return courseId + "|" + feedbackSessionName;
+    }
+
+    /**
+     * Statistics keys include the viewer and the responses shown and can be arbitrarily long,
+     * so they are hashed to stay within the Memcache key size limit.
+     */
+    private static String getStatisticsKey(String statisticsKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(statisticsKey.getBytes("UTF-8"));
+            StringBuilder key = new StringBuilder(STATISTICS_KEY_PREFIX);
+            for (byte b : digest) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -2,7 +2,10 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -25,6 +28,8 @@ import teammates.storage.entity.FeedbackQuestion;
 public class FeedbackQuestionsDb extends EntitiesDb {
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Question : ";
     
+    private final FeedbackQuestionStatisticsCache statisticsCache = new FeedbackQuestionStatisticsCache();
+    
     public void createFeedbackQuestions(Collection<FeedbackQuestionAttributes> questionsToAdd)
             throws InvalidParametersException {
         List<EntityAttributes> questionsToUpdate = createEntities(questionsToAdd);
@@ -210,6 +215,7 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         
         log.info(newAttributes.getBackupIdentifier());
         getPm().close();
+        statisticsCache.invalidate(newAttributes.courseId, newAttributes.feedbackSessionName);
     }
     
     public void deleteFeedbackQuestionsForCourse(String courseId) {
@@ -224,9 +230,15 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
         List<FeedbackQuestion> feedbackQuestionList = getFeedbackQuestionEntitiesForCourses(courseIds);
+        Map<String, Set<String>> sessionNamesByCourse = new HashMap<String, Set<String>>();
+        for (FeedbackQuestion question : feedbackQuestionList) {
+            FeedbackQuestionStatisticsCache.addSession(sessionNamesByCourse, question.getCourseId(),
+                                                       question.getFeedbackSessionName());
+        }
         
         getPm().deletePersistentAll(feedbackQuestionList);
         getPm().flush();
+        statisticsCache.invalidate(sessionNamesByCourse);
     }
     
     private List<FeedbackQuestion> getFeedbackQuestionEntitiesForCourses(List<String> courseIds) {
@@ -334,4 +346,16 @@ public class FeedbackQuestionsDb extends EntitiesDb {
                 feedbackQuestionToGet.courseId,
                 feedbackQuestionToGet.questionNumber);
     }
+    
+    @Override
+    protected void onEntitiesChanged(Collection<? extends EntityAttributes> changedEntities) {
+        super.onEntitiesChanged(changedEntities);
+        Map<String, Set<String>> sessionNamesByCourse = new HashMap<String, Set<String>>();
+        for (EntityAttributes entity : changedEntities) {
+            FeedbackQuestionAttributes question = (FeedbackQuestionAttributes) entity;
+            FeedbackQuestionStatisticsCache.addSession(sessionNamesByCourse, question.courseId,
+                                                       question.feedbackSessionName);
+        }
+        statisticsCache.invalidate(sessionNamesByCourse);
+    }
 }
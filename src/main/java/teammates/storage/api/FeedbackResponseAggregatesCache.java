@@ -0,0 +1,247 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.FeedbackResponseAggregate;
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Config;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.Logger;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.IdentifiableValue;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * Caches a {@link FeedbackResponseAggregate} of all the responses of each question in Memcache,
+ * and keeps it up to date as responses are created, updated and deleted.
+ *
+ * <p>A cached aggregate is changed with compare-and-set, so concurrent submissions cannot overwrite
+ * each other's changes; it is removed when it cannot be changed. An aggregate that is computed from
+ * responses read from the Datastore is only cached if no response of the question was written since
+ * the computation was reserved, nor so recently that the Datastore may not reflect the write yet
+ * (see {@link Config#PERSISTENCE_CHECK_DURATION}).
+ *
+ * <p>Memcache is best-effort: all failures are logged and treated as cache misses.
+ */
+public class FeedbackResponseAggregatesCache {
+
+    private static final Logger log = Logger.getLogger();
+
+    private static final String AGGREGATE_KEY_PREFIX = "ResponseAggregate.aggregate|";
+    private static final String RECENT_CHANGE_KEY_PREFIX = "ResponseAggregate.recentChange|";
+
+    /** Stored in place of an aggregate while it is being computed. */
+    private static final String RESERVED = "reserved";
+
+    /** Aggregates of questions that are no longer viewed only need to live long enough to be reused. */
+    private static final int AGGREGATE_EXPIRATION_SECONDS = 24 * 60 * 60;
+
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private static final MemcacheService MEMCACHE = MemcacheServiceFactory.getMemcacheService();
+
+    /**
+     * @return the aggregate of all the responses of the question, or null if there is none.
+     */
+    public FeedbackResponseAggregate getAggregate(String feedbackQuestionId) {
+        try {
+            return toAggregate(MEMCACHE.get(getAggregateKey(feedbackQuestionId)));
+        } catch (Exception e) {
+            log.warning("Failed to get cached response aggregate of " + feedbackQuestionId + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Reserves the computation of the aggregate of the question from its responses.
+     * Must be called before the responses are read from the Datastore.
+     * @return the reservation to pass to {@link #putAggregate}, or null if the aggregate should not be cached.
+     */
+    public Reservation reserve(String feedbackQuestionId) {
+        try {
+            String aggregateKey = getAggregateKey(feedbackQuestionId);
+            MEMCACHE.put(aggregateKey, RESERVED, Expiration.byDeltaSeconds(AGGREGATE_EXPIRATION_SECONDS),
+                         SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+            IdentifiableValue reserved = MEMCACHE.getIdentifiable(aggregateKey);
+            if (reserved == null || !RESERVED.equals(reserved.getValue())) {
+                // another request has cached an aggregate in the meantime
+                return null;
+            }
+            // checked after reserving, as a write before the reservation may not be visible to the read yet
+            if (MEMCACHE.contains(getRecentChangeKey(feedbackQuestionId))) {
+                return null;
+            }
+            return new Reservation(reserved);
+        } catch (Exception e) {
+            log.warning("Failed to reserve response aggregate of " + feedbackQuestionId + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Caches the aggregate of the question, unless a response of the question was written since
+     * {@code reservation} was made.
+     */
+    public void putAggregate(String feedbackQuestionId, Reservation reservation, FeedbackResponseAggregate aggregate) {
+        if (reservation == null) {
+            return;
+        }
+        try {
+            MEMCACHE.putIfUntouched(getAggregateKey(feedbackQuestionId), reservation.reserved,
+                                    JsonUtils.toCompactJson(aggregate),
+                                    Expiration.byDeltaSeconds(AGGREGATE_EXPIRATION_SECONDS));
+        } catch (Exception e) {
+            log.warning("Failed to cache response aggregate of " + feedbackQuestionId + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    /**
+     * Changes the cached aggregates after responses were written to the Datastore.
+     * Responses of questions whose statistics are not aggregated are ignored.
+     * @param removedResponses responses as they were before they were updated or deleted
+     * @param addedResponses responses as they are after they were created or updated
+     */
+    public void updateAggregates(Collection<FeedbackResponseAttributes> removedResponses,
+                                 Collection<FeedbackResponseAttributes> addedResponses) {
+        Map<String, ResponseChanges> changesPerQuestion = new LinkedHashMap<String, ResponseChanges>();
+        for (FeedbackResponseAttributes response : removedResponses) {
+            if (FeedbackResponseAggregate.isAggregated(response.feedbackQuestionType)) {
+                getResponseChanges(changesPerQuestion, response.feedbackQuestionId).removed.add(response);
+            }
+        }
+        for (FeedbackResponseAttributes response : addedResponses) {
+            if (FeedbackResponseAggregate.isAggregated(response.feedbackQuestionType)) {
+                getResponseChanges(changesPerQuestion, response.feedbackQuestionId).added.add(response);
+            }
+        }
+        for (Map.Entry<String, ResponseChanges> changes : changesPerQuestion.entrySet()) {
+            updateAggregate(changes.getKey(), changes.getValue());
+        }
+    }
+
+    /**
+     * Removes the cached aggregates of the questions, e.g. after the questions were changed.
+     */
+    public void invalidate(Collection<String> feedbackQuestionIds) {
+        for (String feedbackQuestionId : new HashSet<String>(feedbackQuestionIds)) {
+            invalidate(feedbackQuestionId);
+        }
+    }
+
+    public void invalidate(String feedbackQuestionId) {
+        try {
+            // marked first, so that a computation reserved after the removal does not use outdated responses
+            markRecentChange(feedbackQuestionId);
+            MEMCACHE.delete(getAggregateKey(feedbackQuestionId));
+        } catch (Exception e) {
+            // an outdated aggregate may be used until it expires
+            log.severe("Failed to invalidate response aggregate of " + feedbackQuestionId + ": "
+                       + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    private void updateAggregate(String feedbackQuestionId, ResponseChanges changes) {
+        try {
+            String aggregateKey = getAggregateKey(feedbackQuestionId);
+            for (int i = 0; i < MAX_UPDATE_ATTEMPTS; i++) {
+                IdentifiableValue current = MEMCACHE.getIdentifiable(aggregateKey);
+                FeedbackResponseAggregate aggregate = current == null ? null : toAggregate(current.getValue());
+                if (aggregate == null) {
+                    // there is nothing to change, but an aggregate being computed may miss the change
+                    invalidate(feedbackQuestionId);
+                    return;
+                }
+                if (!changes.applyTo(aggregate)) {
+                    break;
+                }
+                if (MEMCACHE.putIfUntouched(aggregateKey, current, JsonUtils.toCompactJson(aggregate),
+                                            Expiration.byDeltaSeconds(AGGREGATE_EXPIRATION_SECONDS))) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.warning("Failed to update response aggregate of " + feedbackQuestionId + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+        }
+        invalidate(feedbackQuestionId);
+    }
+
+    private void markRecentChange(String feedbackQuestionId) {
+        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
+            MEMCACHE.put(getRecentChangeKey(feedbackQuestionId), Boolean.TRUE,
+                         Expiration.byDeltaMillis(Config.PERSISTENCE_CHECK_DURATION));
+        }
+    }
+
+    private static FeedbackResponseAggregate toAggregate(Object cachedValue) {
+        if (cachedValue == null || RESERVED.equals(cachedValue)) {
+            return null;
+        }
+        return JsonUtils.fromJson((String) cachedValue, FeedbackResponseAggregate.class);
+    }
+
+    private static ResponseChanges getResponseChanges(Map<String, ResponseChanges> changesPerQuestion,
+                                                      String feedbackQuestionId) {
+        ResponseChanges changes = changesPerQuestion.get(feedbackQuestionId);
+        if (changes == null) {
+            changes = new ResponseChanges();
+            changesPerQuestion.put(feedbackQuestionId, changes);
+        }
+        return changes;
+    }
+
+    private static String getAggregateKey(String feedbackQuestionId) {
+        return AGGREGATE_KEY_PREFIX + feedbackQuestionId;
+    }
+
+    private static String getRecentChangeKey(String feedbackQuestionId) {
+        return RECENT_CHANGE_KEY_PREFIX + feedbackQuestionId;
+    }
+
+    /**
+     * The right to cache an aggregate computed from responses read after it was obtained.
+     */
+    public static final class Reservation {
+        private final IdentifiableValue reserved;
+
+        private Reservation(IdentifiableValue reserved) {
+            this.reserved = reserved;
+        }
+    }
+
+    /**
+     * The changes to the responses of a question.
+     */
+    private static class ResponseChanges {
+        final List<FeedbackResponseAttributes> removed = new ArrayList<FeedbackResponseAttributes>();
+        final List<FeedbackResponseAttributes> added = new ArrayList<FeedbackResponseAttributes>();
+
+        /**
+         * @return false if the aggregate does not contain the removed responses.
+         */
+        boolean applyTo(FeedbackResponseAggregate aggregate) {
+            for (FeedbackResponseAttributes response : removed) {
+                if (!aggregate.remove(response)) {
+                    return false;
+                }
+            }
+            for (FeedbackResponseAttributes response : added) {
+                aggregate.add(response);
+            }
+            return true;
+        }
+    }
+
+}
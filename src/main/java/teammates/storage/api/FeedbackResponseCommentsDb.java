@@ -19,6 +19,7 @@ import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponseComment;
 import teammates.storage.search.FeedbackResponseCommentSearchDocument;
@@ -206,6 +207,29 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * Deletes the comments of all the given responses at once.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteFeedbackResponseCommentsForResponses(Collection<String> responseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responseIds);
+        
+        List<FeedbackResponseComment> frcList = new ArrayList<FeedbackResponseComment>();
+        for (List<String> idBatch : splitIntoContainsFilterBatches(responseIds)) {
+            Query q = getPm().newQuery(FeedbackResponseComment.class);
+            q.setFilter(":p.contains(feedbackResponseId)");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponseComment> frcBatch = (List<FeedbackResponseComment>) q.execute(idBatch);
+            frcList.addAll(frcBatch);
+        }
+        
+        getPm().deletePersistentAll(frcList);
+        getPm().flush();
+    }
+    
     /*
      * Remove response comments for the course Ids
      */
@@ -655,40 +679,37 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         return getCommentsWithoutDeletedEntity(feedbackResponseCommentList);
     }
     
-    private Collection<FeedbackResponseComment> getFeedbackResponseCommentEntitiesForSessionInSection(
+    private List<FeedbackResponseComment> getFeedbackResponseCommentEntitiesForSessionInSection(
                                                         String courseId, String feedbackSessionName, String section) {
 
-        Map<String, FeedbackResponseComment> feedbackResponseCommentList =
-                new HashMap<String, FeedbackResponseComment>();
-
         Query q = getPm().newQuery(FeedbackResponseComment.class);
         q.declareParameters("String courseIdParam, String feedbackSessionNameParam, String sectionParam");
-        q.setFilter("courseId == courseIdParam && "
-                    + "feedbackSessionName == feedbackSessionNameParam && giverSection == sectionParam");
         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponseComment> firstQueryResponseComments =
-                (List<FeedbackResponseComment>) q.execute(courseId, feedbackSessionName, section);
-        for (FeedbackResponseComment responseComment : firstQueryResponseComments) {
-            if (!JDOHelper.isDeleted(responseComment)) {
-                feedbackResponseCommentList.put(
-                        String.valueOf(responseComment.getFeedbackResponseCommentId()), responseComment);
-            }
+        // comments stored before the "sections" property was introduced do not have it until they are migrated
+        if (Config.PERSISTENCE_QUERY_BY_SECTIONS) {
+            q.setFilter("courseId == courseIdParam && "
+                        + "feedbackSessionName == feedbackSessionNameParam && sections == sectionParam");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponseComment> feedbackResponseCommentList =
+                    (List<FeedbackResponseComment>) q.execute(courseId, feedbackSessionName, section);
+            
+            return getCommentsWithoutDeletedEntity(feedbackResponseCommentList);
         }
         
-        q.setFilter("courseId == courseIdParam && "
-                + "feedbackSessionName == feedbackSessionNameParam && receiverSection == sectionParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponseComment> secondQueryResponseComments =
-                (List<FeedbackResponseComment>) q.execute(courseId, feedbackSessionName, section);
-        for (FeedbackResponseComment responseComment : secondQueryResponseComments) {
-            if (!JDOHelper.isDeleted(responseComment)) {
-                feedbackResponseCommentList.put(
-                        String.valueOf(responseComment.getFeedbackResponseCommentId()), responseComment);
+        Map<Long, FeedbackResponseComment> feedbackResponseComments = new HashMap<Long, FeedbackResponseComment>();
+        for (String sectionProperty : new String[] { "giverSection", "receiverSection" }) {
+            q.setFilter("courseId == courseIdParam && "
+                        + "feedbackSessionName == feedbackSessionNameParam && " + sectionProperty + " == sectionParam");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponseComment> queryResponseComments =
+                    (List<FeedbackResponseComment>) q.execute(courseId, feedbackSessionName, section);
+            for (FeedbackResponseComment responseComment : getCommentsWithoutDeletedEntity(queryResponseComments)) {
+                feedbackResponseComments.put(responseComment.getFeedbackResponseCommentId(), responseComment);
             }
         }
         
-        return feedbackResponseCommentList.values();
+        return new ArrayList<FeedbackResponseComment>(feedbackResponseComments.values());
     }
 }
@@ -3,20 +3,28 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.attributes.EntityAttributes;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponse;
 
+import com.google.appengine.api.datastore.Cursor;
+
 /**
  * Handles CRUD operations for feedback responses.
  * 
@@ -25,9 +33,19 @@ import teammates.storage.entity.FeedbackResponse;
  */
 public class FeedbackResponsesDb extends EntitiesDb {
 
-    public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
+    private static final String FROM_SECTION_CURSOR_PREFIX = "from:";
+    private static final String TO_SECTION_CURSOR_PREFIX = "to:";
+
+    private final FeedbackQuestionStatisticsCache statisticsCache = new FeedbackQuestionStatisticsCache();
+
+    /**
+     * Creates the responses, updating those that already exist instead.
+     * @return the responses that already existed and were updated.
+     */
+    public List<FeedbackResponseAttributes> createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
             throws InvalidParametersException {
         List<EntityAttributes> responsesToUpdate = createEntities(responsesToAdd);
+        List<FeedbackResponseAttributes> updatedResponses = new ArrayList<FeedbackResponseAttributes>();
         for (EntityAttributes entity : responsesToUpdate) {
             FeedbackResponseAttributes response = (FeedbackResponseAttributes) entity;
             try {
@@ -37,7 +55,9 @@ public class FeedbackResponsesDb extends EntitiesDb {
              // difficult during testing
                 Assumption.fail("Entity found be already existing and not existing simultaneously");
             }
+            updatedResponses.add(response);
         }
+        return updatedResponses;
     }
     
     /**
@@ -121,6 +141,30 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return (FeedbackResponse) getEntity(response);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the existing responses among those with the given IDs, keyed by ID.
+     */
+    public Map<String, FeedbackResponse> getFeedbackResponseEntities(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseIds);
+        
+        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
+        for (List<String> idBatch : splitIntoContainsFilterBatches(feedbackResponseIds)) {
+            Query q = getPm().newQuery(FeedbackResponse.class);
+            q.setFilter(":p.contains(feedbackResponseId)");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponse> frList = (List<FeedbackResponse>) q.execute(idBatch);
+            for (FeedbackResponse fr : frList) {
+                if (!JDOHelper.isDeleted(fr)) {
+                    feedbackResponses.put(fr.getId(), fr);
+                }
+            }
+        }
+        return feedbackResponses;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -392,6 +436,124 @@ public class FeedbackResponsesDb extends EntitiesDb {
 
         return fraList;
     }
+
+    /**
+     * Reads the responses of a session one page at a time, in the order of their keys.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the cursor returned with the previous page, or null to read the first page.
+     * @return A page of at most {@code pageSize} responses.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId);
+    }
+
+    /**
+     * Reads the responses of a session given or received by the students of a section one page at a time.
+     * Unless {@link Config#PERSISTENCE_QUERY_BY_SECTIONS} is set, the responses given by the section are read
+     * first, then those received from other sections.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the cursor returned with the previous page, or null to read the first page.
+     * @return A page of at most {@code pageSize} responses. A page may have fewer responses even if it is
+     *         not the last one, which is marked by a null cursor only.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        String sessionFilter = "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam";
+
+        if (Config.PERSISTENCE_QUERY_BY_SECTIONS) {
+            q.setFilter(sessionFilter + " && sections == sectionParam");
+            return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+        }
+
+        // the responses given by the section are read first, then those received from other sections
+        if (cursor == null || cursor.startsWith(FROM_SECTION_CURSOR_PREFIX)) {
+            String fromSectionCursor = cursor == null ? null : cursor.substring(FROM_SECTION_CURSOR_PREFIX.length());
+            q.setFilter(sessionFilter + " && giverSection == sectionParam");
+            FeedbackResponsesPage page =
+                    getFeedbackResponsesPage(q, fromSectionCursor, pageSize, feedbackSessionName, courseId, section);
+            String nextCursor = page.hasNextPage()
+                                ? FROM_SECTION_CURSOR_PREFIX + page.getNextCursor()
+                                : TO_SECTION_CURSOR_PREFIX;
+            return new FeedbackResponsesPage(page.getResponses(), nextCursor);
+        }
+
+        Assumption.assertTrue(cursor.startsWith(TO_SECTION_CURSOR_PREFIX));
+        String toSectionCursor = cursor.substring(TO_SECTION_CURSOR_PREFIX.length());
+        q.setFilter(sessionFilter + " && receiverSection == sectionParam");
+        FeedbackResponsesPage page = getFeedbackResponsesPage(q, toSectionCursor.isEmpty() ? null : toSectionCursor,
+                                                              pageSize, feedbackSessionName, courseId, section);
+        List<FeedbackResponseAttributes> responsesFromOtherSections = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : page.getResponses()) {
+            if (!section.equals(response.giverSection)) {
+                responsesFromOtherSections.add(response);
+            }
+        }
+        String nextCursor = page.hasNextPage() ? TO_SECTION_CURSOR_PREFIX + page.getNextCursor() : null;
+        return new FeedbackResponsesPage(responsesFromOtherSections, nextCursor);
+    }
+
+    /**
+     * Reads the responses of a session given by the students of a section one page at a time.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the cursor returned with the previous page, or null to read the first page.
+     * @return A page of at most {@code pageSize} responses.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam"
+                    + " && giverSection == sectionParam");
+
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
+
+    /**
+     * Reads the responses of a session received by the students of a section one page at a time.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the cursor returned with the previous page, or null to read the first page.
+     * @return A page of at most {@code pageSize} responses.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam"
+                    + " && receiverSection == sectionParam");
+
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
+
     
     /**
      * Preconditions: <br>
@@ -647,6 +809,7 @@ public class FeedbackResponsesDb extends EntitiesDb {
                 
         log.info(newAttributes.getBackupIdentifier());
         getPm().close();
+        statisticsCache.invalidate(newAttributes.courseId, newAttributes.feedbackSessionName);
     }
     
     public void updateFeedbackResponseOptimized(FeedbackResponseAttributes newAttributes, FeedbackResponse fr)
@@ -654,6 +817,84 @@ public class FeedbackResponsesDb extends EntitiesDb {
         updateFeedbackResponseOptimized(newAttributes, fr, false);
     }
     
+    /**
+     * Updates several responses at once. All of them are validated before any of them is changed,
+     * and the changes are written together.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @param responseEntities the entities of the responses, in the same order as {@code newAttributesList}.
+     *         The giver and recipient of each response must not change.
+     */
+    public void updateFeedbackResponsesOptimized(List<FeedbackResponseAttributes> newAttributesList,
+                                                 List<FeedbackResponse> responseEntities)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newAttributesList);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responseEntities);
+        Assumption.assertEquals(newAttributesList.size(), responseEntities.size());
+        
+        for (int i = 0; i < newAttributesList.size(); i++) {
+            FeedbackResponseAttributes newAttributes = newAttributesList.get(i);
+            if (!newAttributes.isValid()) {
+                throw new InvalidParametersException(newAttributes.getInvalidityInfo());
+            }
+            
+            FeedbackResponse fr = responseEntities.get(i);
+            if (fr == null || JDOHelper.isDeleted(fr)) {
+                throw new EntityDoesNotExistException(
+                        ERROR_UPDATE_NON_EXISTENT + newAttributes.toString());
+            }
+        }
+        
+        for (int i = 0; i < newAttributesList.size(); i++) {
+            FeedbackResponseAttributes newAttributes = newAttributesList.get(i);
+            FeedbackResponse fr = responseEntities.get(i);
+            fr.keepUpdateTimestamp = false;
+            fr.setAnswer(newAttributes.responseMetaData);
+            fr.setRecipientEmail(newAttributes.recipient);
+            fr.setGiverSection(newAttributes.giverSection);
+            fr.setRecipientSection(newAttributes.recipientSection);
+            
+            log.info(newAttributes.getBackupIdentifier());
+        }
+        
+        getPm().close();
+        onEntitiesChanged(newAttributesList);
+    }
+    
+    /**
+     * Deletes several responses at once. Responses that do not exist are ignored.
+     * Note: This is a non-cascade delete.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null and all responses have an ID.
+     * @return the responses that were deleted, as they were in the Datastore.
+     */
+    public List<FeedbackResponseAttributes> deleteFeedbackResponses(
+            Collection<FeedbackResponseAttributes> responsesToDelete) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responsesToDelete);
+        
+        List<String> responseIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responsesToDelete) {
+            Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, response.getId());
+            responseIds.add(response.getId());
+        }
+        
+        Map<String, FeedbackResponse> responseEntities = getFeedbackResponseEntities(responseIds);
+        List<FeedbackResponseAttributes> deletedResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responsesToDelete) {
+            FeedbackResponse responseEntity = responseEntities.get(response.getId());
+            if (responseEntity != null) {
+                log.info(response.getBackupIdentifier());
+                deletedResponses.add(new FeedbackResponseAttributes(responseEntity));
+            }
+        }
+        
+        getPm().deletePersistentAll(responseEntities.values());
+        getPm().flush();
+        onEntitiesChanged(responsesToDelete);
+        return deletedResponses;
+    }
+    
     public void deleteFeedbackResponsesForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -667,9 +908,15 @@ public class FeedbackResponsesDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
         List<FeedbackResponse> feedbackResponses = getFeedbackResponseEntitiesForCourses(courseIds);
+        Map<String, Set<String>> sessionNamesByCourse = new HashMap<String, Set<String>>();
+        for (FeedbackResponse response : feedbackResponses) {
+            FeedbackQuestionStatisticsCache.addSession(sessionNamesByCourse, response.getCourseId(),
+                                                       response.getFeedbackSessionName());
+        }
         
         getPm().deletePersistentAll(feedbackResponses);
         getPm().flush();
+        statisticsCache.invalidate(sessionNamesByCourse);
     }
     
     @SuppressWarnings("unchecked")
@@ -845,36 +1092,12 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInSection(
+                q, "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam",
+                feedbackSessionName, courseId, section);
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSection(
@@ -912,38 +1135,13 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
             String feedbackSessionName, String courseId, String section, long range) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        q.setRange(0, range + 1);
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
         q.setRange(0, range + 1);
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInSection(
+                q, "feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam",
+                feedbackSessionName, courseId, section);
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSectionWithinRange(
@@ -979,6 +1177,38 @@ public class FeedbackResponsesDb extends EntitiesDb {
 
         return queryResponses;
     }
+
+    /**
+     * Executes {@code q} starting from {@code cursor}. Only equality filters are used, so the results
+     * come in the order of their keys and no composite index is needed to resume from a cursor.
+     */
+    private FeedbackResponsesPage getFeedbackResponsesPage(Query q, String cursor, int pageSize,
+                                                           Object... parameters) {
+        Assumption.assertTrue(pageSize > 0);
+
+        if (cursor != null) {
+            Map<String, Object> extensions = new HashMap<String, Object>();
+            extensions.put(JDOCursorHelper.CURSOR_EXTENSION, Cursor.fromWebSafeString(cursor));
+            q.setExtensions(extensions);
+        }
+        q.setRange(0, pageSize);
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> queryResponses = (List<FeedbackResponse>) q.executeWithArray(parameters);
+
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : queryResponses) {
+            if (!JDOHelper.isDeleted(fr)) {
+                fraList.add(new FeedbackResponseAttributes(fr));
+            }
+        }
+
+        // a page that is not full is the last one, so there is no need to query for more
+        String nextCursor = queryResponses.size() < pageSize
+                            ? null
+                            : JDOCursorHelper.getCursor(queryResponses).toWebSafeString();
+        return new FeedbackResponsesPage(fraList, nextCursor);
+    }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestion(
             String feedbackQuestionId, String receiver) {
@@ -997,34 +1227,12 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
             String feedbackQuestionId, String receiver, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String receiverParam, String sectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                    + "&& giverSection == sectionParam");
-    
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        return feedbackResponses.values();
+        return getFeedbackResponseEntitiesInSection(
+                q, "feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam",
+                feedbackQuestionId, receiver, section);
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestion(
@@ -1044,33 +1252,41 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
             String feedbackQuestionId, String giverEmail, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String giverEmailParam, String sectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                    + "&& giverSection == sectionParam");
+        
+        return getFeedbackResponseEntitiesInSection(
+                q, "feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam",
+                feedbackQuestionId, giverEmail, section);
+    }
     
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
+    /**
+     * Executes {@code q} for the responses matching {@code filter} that were given or received by the students
+     * of a section, passed as the last of {@code parameters} to the parameter "sectionParam".
+     * The "sections" property is only queried if {@link Config#PERSISTENCE_QUERY_BY_SECTIONS} is set, as
+     * responses stored before it was introduced do not have it until they are migrated. Otherwise, the giver
+     * section and the recipient section are queried separately.
+     */
+    private Collection<FeedbackResponse> getFeedbackResponseEntitiesInSection(Query q, String filter,
+                                                                              Object... parameters) {
+        if (Config.PERSISTENCE_QUERY_BY_SECTIONS) {
+            q.setFilter(filter + " && sections == sectionParam");
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponse> queryResponses = (List<FeedbackResponse>) q.executeWithArray(parameters);
+            return queryResponses;
         }
         
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
+        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
+        for (String sectionProperty : new String[] { "giverSection", "receiverSection" }) {
+            q.setFilter(filter + " && " + sectionProperty + " == sectionParam");
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponse> queryResponses = (List<FeedbackResponse>) q.executeWithArray(parameters);
+            for (FeedbackResponse response : queryResponses) {
+                if (!JDOHelper.isDeleted(response)) {
+                    feedbackResponses.put(response.getId(), response);
+                }
             }
         }
-        
         return feedbackResponses.values();
     }
     
@@ -1117,6 +1333,76 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
     
+    /**
+     * Checks responses with a known ID by ID, and the others by question, giver and recipient
+     * (as {@link #getEntity(EntityAttributes)} does), with one query per batch of IDs or givers.
+     */
+    @Override
+    protected Set<EntityAttributes> getExistingEntities(List<EntityAttributes> entitiesToCheck) {
+        List<String> responseIds = new ArrayList<String>();
+        Map<String, List<FeedbackResponseAttributes>> responsesWithoutIdByQuestion =
+                new HashMap<String, List<FeedbackResponseAttributes>>();
+        for (EntityAttributes entity : entitiesToCheck) {
+            FeedbackResponseAttributes response = (FeedbackResponseAttributes) entity;
+            if (response.getId() != null) {
+                responseIds.add(response.getId());
+                continue;
+            }
+            List<FeedbackResponseAttributes> responsesForQuestion =
+                    responsesWithoutIdByQuestion.get(response.feedbackQuestionId);
+            if (responsesForQuestion == null) {
+                responsesForQuestion = new ArrayList<FeedbackResponseAttributes>();
+                responsesWithoutIdByQuestion.put(response.feedbackQuestionId, responsesForQuestion);
+            }
+            responsesForQuestion.add(response);
+        }
+        
+        Set<String> existingResponseIds = getFeedbackResponseEntities(responseIds).keySet();
+        
+        Set<String> existingResponseIdentifiers = new HashSet<String>();
+        for (Map.Entry<String, List<FeedbackResponseAttributes>> entry : responsesWithoutIdByQuestion.entrySet()) {
+            Set<String> givers = new HashSet<String>();
+            for (FeedbackResponseAttributes response : entry.getValue()) {
+                givers.add(response.giver);
+            }
+            for (List<String> giverBatch : splitIntoContainsFilterBatches(givers)) {
+                Query q = getPm().newQuery(FeedbackResponse.class);
+                q.declareParameters("String feedbackQuestionIdParam, java.util.Collection giverEmailsParam");
+                q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmailsParam.contains(giverEmail)");
+                
+                @SuppressWarnings("unchecked")
+                List<FeedbackResponse> feedbackResponses =
+                        (List<FeedbackResponse>) q.execute(entry.getKey(), giverBatch);
+                for (FeedbackResponse fr : feedbackResponses) {
+                    if (!JDOHelper.isDeleted(fr)) {
+                        existingResponseIdentifiers.add(
+                                getResponseIdentifier(fr.getFeedbackQuestionId(), fr.getGiverEmail(),
+                                                      fr.getRecipientEmail()));
+                    }
+                }
+            }
+        }
+        
+        Set<EntityAttributes> existingResponses = newIdentitySet();
+        for (EntityAttributes entity : entitiesToCheck) {
+            FeedbackResponseAttributes response = (FeedbackResponseAttributes) entity;
+            boolean isExisting = response.getId() == null
+                               ? existingResponseIdentifiers.contains(
+                                         getResponseIdentifier(response.feedbackQuestionId, response.giver,
+                                                               response.recipient))
+                               : existingResponseIds.contains(response.getId());
+            if (isExisting) {
+                existingResponses.add(response);
+            }
+        }
+        return existingResponses;
+    }
+    
+    private static String getResponseIdentifier(String feedbackQuestionId, String giver, String recipient) {
+        // the separator cannot appear in question IDs or emails and hence keeps the identifiers unambiguous
+        return feedbackQuestionId + '\u0000' + giver + '\u0000' + recipient;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
@@ -1132,4 +1418,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
             feedbackResponseToGet.giver,
             feedbackResponseToGet.recipient);
     }
+    
+    @Override
+    protected void onEntitiesChanged(Collection<? extends EntityAttributes> changedEntities) {
+        super.onEntitiesChanged(changedEntities);
+        Map<String, Set<String>> sessionNamesByCourse = new HashMap<String, Set<String>>();
+        for (EntityAttributes entity : changedEntities) {
+            FeedbackResponseAttributes response = (FeedbackResponseAttributes) entity;
+            FeedbackQuestionStatisticsCache.addSession(sessionNamesByCourse, response.courseId,
+                                                       response.feedbackSessionName);
+        }
+        statisticsCache.invalidate(sessionNamesByCourse);
+    }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -18,6 +19,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.TimeHelper;
 import teammates.storage.entity.FeedbackSession;
 
@@ -128,13 +130,22 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        String cacheKey = RequestScopedCache.generateKey(courseId, feedbackSessionName);
+        if (isInRequestCache(cacheKey)) {
+            FeedbackSessionAttributes cachedSession = (FeedbackSessionAttributes) getFromRequestCache(cacheKey);
+            return cachedSession == null ? null : copyOf(cachedSession);
+        }
+        
         FeedbackSession fs = getFeedbackSessionEntity(feedbackSessionName, courseId);
         
         if (fs == null) {
             log.info("Trying to get non-existent Session: " + feedbackSessionName + "/" + courseId);
+            putInRequestCache(cacheKey, null);
             return null;
         }
-        return new FeedbackSessionAttributes(fs);
+        FeedbackSessionAttributes session = new FeedbackSessionAttributes(fs);
+        putInRequestCache(cacheKey, copyOf(session));
+        return session;
         
     }
     
@@ -284,6 +295,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.setSendPublishedEmail(newAttributes.isPublishedEmailEnabled());
                 
         log.info(newAttributes.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -316,6 +328,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingInstructorList().addAll(emails);
         
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -344,6 +357,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         }
        
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -367,6 +381,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingInstructorList().clear();
 
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -399,6 +414,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingInstructorList().remove(email);
 
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -423,6 +439,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingStudentList().addAll(emails);
 
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -451,6 +468,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         }
         
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -474,6 +492,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingStudentList().clear();
 
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
 
@@ -498,6 +517,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         fs.getRespondingStudentList().remove(email);
 
         log.info(feedbackSession.getBackupIdentifier());
+        invalidateRequestCache();
         getPm().close();
     }
     
@@ -516,6 +536,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(feedbackSessionList);
         getPm().flush();
+        invalidateRequestCache();
     }
     
     @SuppressWarnings("unchecked")
@@ -605,6 +626,14 @@ public class FeedbackSessionsDb extends EntitiesDb {
         return feedbackSessionList.get(0);
     }
 
+    private static FeedbackSessionAttributes copyOf(FeedbackSessionAttributes session) {
+        FeedbackSessionAttributes copy = session.getCopy();
+        // the respondent sets are mutable and must not be shared with the cached instance
+        copy.setRespondingInstructorList(new HashSet<String>(session.getRespondingInstructorList()));
+        copy.setRespondingStudentList(new HashSet<String>(session.getRespondingStudentList()));
+        return copy;
+    }
+
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         FeedbackSessionAttributes feedbackSessionToGet = (FeedbackSessionAttributes) attributes;
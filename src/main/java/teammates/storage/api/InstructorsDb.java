@@ -1,16 +1,24 @@
 package teammates.storage.api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.attributes.EntityAttributes;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.datatransfer.InstructorSearchResultBundle;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -18,6 +26,8 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
 import teammates.storage.entity.Instructor;
@@ -35,6 +45,8 @@ import com.google.appengine.api.search.ScoredDocument;
  */
 public class InstructorsDb extends EntitiesDb {
     
+    private final CourseRosterCache rosterCache = new CourseRosterCache();
+    
     /* =========================================================================
      * Methods related to Google Search API
      * =========================================================================
@@ -146,14 +158,67 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
+        String cacheKey = RequestScopedCache.generateKey("email", courseId, email);
+        if (isInRequestCache(cacheKey)) {
+            InstructorAttributes cachedInstructor = (InstructorAttributes) getFromRequestCache(cacheKey);
+            return cachedInstructor == null ? null : copyOf(cachedInstructor);
+        }
+        
         Instructor i = getInstructorEntityForEmail(courseId, email);
     
         if (i == null) {
             log.info("Trying to get non-existent Instructor: " + courseId + "/" + email);
+            putInRequestCache(cacheKey, null);
             return null;
         }
     
-        return new InstructorAttributes(i);
+        InstructorAttributes instructor = new InstructorAttributes(i);
+        putInRequestCache(cacheKey, copyOf(instructor));
+        return instructor;
+    }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return the instructors of the course with the given emails, fetched in as few Datastore
+     *         calls as possible. Emails that do not belong to any instructor of the course are skipped.
+     */
+    public List<InstructorAttributes> getInstructorsForEmails(String courseId, Collection<String> emails) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+        
+        Map<String, InstructorAttributes> instructorsByEmail = new LinkedHashMap<String, InstructorAttributes>();
+        Set<String> emailsToFetch = new LinkedHashSet<String>();
+        for (String email : emails) {
+            String cacheKey = RequestScopedCache.generateKey("email", courseId, email);
+            if (isInRequestCache(cacheKey)) {
+                InstructorAttributes cachedInstructor = (InstructorAttributes) getFromRequestCache(cacheKey);
+                instructorsByEmail.put(email, cachedInstructor == null ? null : copyOf(cachedInstructor));
+            } else {
+                emailsToFetch.add(email);
+                instructorsByEmail.put(email, null);
+            }
+        }
+        
+        if (!emailsToFetch.isEmpty()) {
+            for (Instructor entity : getInstructorEntitiesForEmails(courseId, emailsToFetch)) {
+                instructorsByEmail.put(entity.getEmail(), new InstructorAttributes(entity));
+            }
+            for (String email : emailsToFetch) {
+                InstructorAttributes instructor = instructorsByEmail.get(email);
+                putInRequestCache(RequestScopedCache.generateKey("email", courseId, email),
+                                  instructor == null ? null : copyOf(instructor));
+            }
+        }
+        
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+        for (InstructorAttributes instructor : instructorsByEmail.values()) {
+            if (instructor != null) {
+                instructors.add(instructor);
+            }
+        }
+        return instructors;
     }
 
     /**
@@ -312,7 +377,9 @@ public class InstructorsDb extends EntitiesDb {
         
         putDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
+        // the changes are saved when the persistence manager is closed
         getPm().close();
+        invalidateCachedInstructors(Arrays.asList(instructorAttributesToUpdate.courseId));
     }
     
     /**
@@ -349,7 +416,9 @@ public class InstructorsDb extends EntitiesDb {
         //TODO: make courseId+email the non-modifiable values
         putDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
+        // the changes are saved when the persistence manager is closed
         getPm().close();
+        invalidateCachedInstructors(Arrays.asList(instructorAttributesToUpdate.courseId));
     }
     
     /**
@@ -372,11 +441,15 @@ public class InstructorsDb extends EntitiesDb {
 
         getPm().deletePersistent(instructorToDelete);
         getPm().flush();
+        invalidateCachedInstructors(Arrays.asList(courseId));
   
         // Check delete operation persisted
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
+        if (isPollingForPersistence()) {
             int elapsedTime = 0;
             Instructor instructorCheck = getInstructorEntityForEmail(courseId, email);
+            if (instructorCheck != null) {
+                recordPersistencePolling();
+            }
             while (instructorCheck != null
                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
                 ThreadHelper.waitBriefly();
@@ -410,6 +483,7 @@ public class InstructorsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(instructorsToDelete);
         getPm().flush();
+        invalidateCachedInstructors(courseIds);
     }
     
     /**
@@ -421,13 +495,16 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
 
         List<Instructor> instructorList = getInstructorEntitiesForGoogleId(googleId);
+        List<String> courseIds = new ArrayList<String>();
         
         for (Instructor instructor : instructorList) {
+            courseIds.add(instructor.getCourseId());
             deleteDocument(new InstructorAttributes(instructor));
         }
         
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
+        invalidateCachedInstructors(courseIds);
       
     }
     
@@ -446,6 +523,7 @@ public class InstructorsDb extends EntitiesDb {
         }
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
+        invalidateCachedInstructors(Arrays.asList(courseId));
 
     }
     
@@ -483,6 +561,52 @@ public class InstructorsDb extends EntitiesDb {
         return instructorList.get(0);
     }
     
+    /**
+     * Instructors are keyed by their email and course ID, so most of them can be fetched with a single
+     * batch get by key. As the key is not updated when the email of a instructor changes, emails that
+     * cannot be resolved by key are then looked up through a query on the email itself.
+     */
+    private List<Instructor> getInstructorEntitiesForEmails(String courseId, Collection<String> emails) {
+        List<Instructor> instructorList = new ArrayList<Instructor>();
+        Set<String> unresolvedEmails = new LinkedHashSet<String>(emails);
+        
+        List<String> ids = new ArrayList<String>();
+        for (String email : unresolvedEmails) {
+            ids.add(email + '%' + courseId);
+        }
+        for (List<String> idBatch : splitIntoContainsFilterBatches(ids)) {
+            Query q = getPm().newQuery(Instructor.class);
+            q.setFilter(":p.contains(id)");
+            
+            @SuppressWarnings("unchecked")
+            List<Instructor> batch = (List<Instructor>) q.execute(idBatch);
+            collectInstructorsForEmails(courseId, batch, unresolvedEmails, instructorList);
+        }
+        
+        for (List<String> emailBatch : splitIntoContainsFilterBatches(new ArrayList<String>(unresolvedEmails))) {
+            Query q = getPm().newQuery(Instructor.class);
+            q.declareParameters("String courseIdParam, java.util.Collection emailsParam");
+            q.setFilter("courseId == courseIdParam && emailsParam.contains(email)");
+            
+            @SuppressWarnings("unchecked")
+            List<Instructor> batch = (List<Instructor>) q.execute(courseId, emailBatch);
+            collectInstructorsForEmails(courseId, batch, unresolvedEmails, instructorList);
+        }
+        
+        return instructorList;
+    }
+    
+    private static void collectInstructorsForEmails(String courseId, List<Instructor> candidates,
+            Set<String> unresolvedEmails, List<Instructor> instructorList) {
+        for (Instructor candidate : candidates) {
+            // an entity found by key may have had its email changed since it was created
+            if (!JDOHelper.isDeleted(candidate) && courseId.equals(candidate.getCourseId())
+                    && unresolvedEmails.remove(candidate.getEmail())) {
+                instructorList.add(candidate);
+            }
+        }
+    }
+    
     private List<Instructor> getInstructorEntitiesForCourses(List<String> courseIds) {
         Query q = getPm().newQuery(Instructor.class);
         q.setFilter(":p.contains(courseId)");
@@ -575,6 +699,64 @@ public class InstructorsDb extends EntitiesDb {
         return instructorList;
     }
 
+    /**
+     * Invalidates everything cached about the instructors of the given courses.
+     */
+    private void invalidateCachedInstructors(Collection<String> courseIds) {
+        invalidateRequestCache();
+        rosterCache.invalidate(courseIds);
+    }
+    
+    @Override
+    protected void onEntitiesChanged(Collection<? extends EntityAttributes> changedEntities) {
+        List<String> courseIds = new ArrayList<String>();
+        for (EntityAttributes entity : changedEntities) {
+            courseIds.add(((InstructorAttributes) entity).courseId);
+        }
+        invalidateCachedInstructors(courseIds);
+    }
+
+    private static InstructorAttributes copyOf(InstructorAttributes instructor) {
+        InstructorAttributes copy = instructor.getCopy();
+        // privileges are mutable and must not be shared with the cached instance
+        copy.privileges = JsonUtils.fromJson(instructor.getTextFromInstructorPrivileges(), InstructorPrivileges.class);
+        return copy;
+    }
+
+    @Override
+    protected Set<EntityAttributes> getExistingEntities(List<EntityAttributes> entitiesToCheck) {
+        Map<String, List<InstructorAttributes>> instructorsByCourse = new HashMap<String, List<InstructorAttributes>>();
+        for (EntityAttributes entity : entitiesToCheck) {
+            InstructorAttributes instructor = (InstructorAttributes) entity;
+            List<InstructorAttributes> instructorsInCourse = instructorsByCourse.get(instructor.courseId);
+            if (instructorsInCourse == null) {
+                instructorsInCourse = new ArrayList<InstructorAttributes>();
+                instructorsByCourse.put(instructor.courseId, instructorsInCourse);
+            }
+            instructorsInCourse.add(instructor);
+        }
+        
+        Set<EntityAttributes> existingInstructors = newIdentitySet();
+        for (Map.Entry<String, List<InstructorAttributes>> entry : instructorsByCourse.entrySet()) {
+            Set<String> emails = new HashSet<String>();
+            for (InstructorAttributes instructor : entry.getValue()) {
+                emails.add(instructor.email);
+            }
+            
+            Set<String> existingEmails = new HashSet<String>();
+            for (Instructor instructor : getInstructorEntitiesForEmails(entry.getKey(), emails)) {
+                existingEmails.add(instructor.getEmail());
+            }
+            
+            for (InstructorAttributes instructor : entry.getValue()) {
+                if (existingEmails.contains(instructor.email)) {
+                    existingInstructors.add(instructor);
+                }
+            }
+        }
+        return existingInstructors;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
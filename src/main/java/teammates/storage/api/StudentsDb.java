@@ -1,11 +1,16 @@
 package teammates.storage.api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -21,6 +26,7 @@ import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
 import teammates.storage.entity.CourseStudent;
@@ -40,10 +46,20 @@ public class StudentsDb extends EntitiesDb {
 
     public static final String ERROR_UPDATE_EMAIL_ALREADY_USED = "Trying to update to an email that is already used by: ";
     
+    private final CourseRosterCache rosterCache = new CourseRosterCache();
+    
     public void putDocument(StudentAttributes student) {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    public void putDocuments(List<StudentAttributes> students) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student));
+        }
+        putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -131,6 +147,39 @@ public class StudentsDb extends EntitiesDb {
         }
     }
 
+    /**
+     * Creates the given students with a single batch persist operation,
+     * and puts their search documents in batches if {@code hasDocument} is true.
+     * Students which already exist are not created.
+     * @return the created students, with their registration keys.
+     * @throws EntityAlreadyExistsException if any of the students already exists.
+     *         The other students are created nevertheless.
+     */
+    public List<StudentAttributes> createStudents(Collection<StudentAttributes> studentsToAdd, boolean hasDocument)
+            throws InvalidParametersException, EntityAlreadyExistsException {
+        List<StudentAttributes> createdStudents = new ArrayList<StudentAttributes>();
+        Set<String> createdStudentIds = new HashSet<String>();
+        for (Object entity : createAndReturnEntities(studentsToAdd)) {
+            StudentAttributes createdStudent = new StudentAttributes((CourseStudent) entity);
+            createdStudents.add(createdStudent);
+            createdStudentIds.add(createdStudent.getId());
+        }
+        
+        if (hasDocument) {
+            putDocuments(createdStudents);
+        }
+        
+        for (StudentAttributes student : studentsToAdd) {
+            if (!createdStudentIds.contains(student.getId())) {
+                String error = String.format(ERROR_CREATE_ENTITY_ALREADY_EXISTS, student.getEntityTypeAsString())
+                        + student.getIdentificationString();
+                log.info(error);
+                throw new EntityAlreadyExistsException(error);
+            }
+        }
+        return createdStudents;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -142,11 +191,60 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
     
+        String cacheKey = RequestScopedCache.generateKey("email", courseId, email);
+        if (isInRequestCache(cacheKey)) {
+            StudentAttributes cachedStudent = (StudentAttributes) getFromRequestCache(cacheKey);
+            return cachedStudent == null ? null : cachedStudent.getCopy();
+        }
+        
         CourseStudent cs = getCourseStudentEntityForEmail(courseId, email);
-        if (cs == null) {
-            return null;
+        StudentAttributes student = cs == null ? null : new StudentAttributes(cs);
+        putInRequestCache(cacheKey, student == null ? null : student.getCopy());
+        return student;
+    }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return the students of the course with the given emails, fetched in as few Datastore
+     *         calls as possible. Emails that do not belong to any student of the course are skipped.
+     */
+    public List<StudentAttributes> getStudentsForEmails(String courseId, Collection<String> emails) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+        
+        Map<String, StudentAttributes> studentsByEmail = new LinkedHashMap<String, StudentAttributes>();
+        Set<String> emailsToFetch = new LinkedHashSet<String>();
+        for (String email : emails) {
+            String cacheKey = RequestScopedCache.generateKey("email", courseId, email);
+            if (isInRequestCache(cacheKey)) {
+                StudentAttributes cachedStudent = (StudentAttributes) getFromRequestCache(cacheKey);
+                studentsByEmail.put(email, cachedStudent == null ? null : cachedStudent.getCopy());
+            } else {
+                emailsToFetch.add(email);
+                studentsByEmail.put(email, null);
+            }
         }
-        return new StudentAttributes(cs);
+        
+        if (!emailsToFetch.isEmpty()) {
+            for (CourseStudent entity : getCourseStudentEntitiesForEmails(courseId, emailsToFetch)) {
+                studentsByEmail.put(entity.getEmail(), new StudentAttributes(entity));
+            }
+            for (String email : emailsToFetch) {
+                StudentAttributes student = studentsByEmail.get(email);
+                putInRequestCache(RequestScopedCache.generateKey("email", courseId, email),
+                                  student == null ? null : student.getCopy());
+            }
+        }
+        
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : studentsByEmail.values()) {
+            if (student != null) {
+                students.add(student);
+            }
+        }
+        return students;
     }
     
     /**
@@ -249,6 +347,13 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, teamName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        String cacheKey = RequestScopedCache.generateKey("team", courseId, teamName);
+        if (isInRequestCache(cacheKey)) {
+            @SuppressWarnings("unchecked")
+            List<StudentAttributes> cachedStudents = (List<StudentAttributes>) getFromRequestCache(cacheKey);
+            return copyOf(cachedStudents);
+        }
+        
         List<StudentAttributes> studentDataList = new ArrayList<StudentAttributes>();
         List<CourseStudent> courseStudentList = getCourseStudentEntitiesForTeam(teamName, courseId);
         
@@ -259,6 +364,7 @@ public class StudentsDb extends EntitiesDb {
             }
         }
         
+        putInRequestCache(cacheKey, copyOf(studentDataList));
         return studentDataList;
     }
 
@@ -431,7 +537,63 @@ public class StudentsDb extends EntitiesDb {
         }
         
         log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        // the changes are saved when the persistence manager is closed
         getPm().close();
+        invalidateCachedStudents(Arrays.asList(courseId));
+    }
+
+    /**
+     * Updates the name, team, section, Google ID and comments of the given students of the course,
+     * fetching all of them at once and saving them when the persistence manager is closed.
+     * The students are identified by their emails, which are not changed. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null and the students are valid.
+     * @throws EntityDoesNotExistException if any of the students does not exist; no student is updated then.
+     */
+    public void updateStudents(String courseId, Collection<StudentAttributes> students, boolean hasDocument)
+            throws EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, students);
+        
+        if (students.isEmpty()) {
+            return;
+        }
+        
+        Set<String> emails = new LinkedHashSet<String>();
+        for (StudentAttributes student : students) {
+            emails.add(student.email);
+        }
+        Map<String, CourseStudent> courseStudentsByEmail = new HashMap<String, CourseStudent>();
+        for (CourseStudent courseStudent : getCourseStudentEntitiesForEmails(courseId, emails)) {
+            courseStudentsByEmail.put(courseStudent.getEmail(), courseStudent);
+        }
+        for (String email : emails) {
+            if (!courseStudentsByEmail.containsKey(email)) {
+                String error = ERROR_UPDATE_NON_EXISTENT_STUDENT + courseId + "/" + email;
+                throw new EntityDoesNotExistException(error);
+            }
+        }
+        
+        List<StudentAttributes> updatedStudents = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            CourseStudent courseStudent = courseStudentsByEmail.get(student.email);
+            courseStudent.setName(student.name);
+            courseStudent.setLastName(StringHelper.splitName(student.name)[1]);
+            courseStudent.setComments(student.comments);
+            courseStudent.setGoogleId(student.googleId);
+            courseStudent.setTeamName(student.team);
+            courseStudent.setSectionName(student.section);
+            updatedStudents.add(new StudentAttributes(courseStudent));
+        }
+        
+        if (hasDocument) {
+            putDocuments(updatedStudents);
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        // the changes are saved when the persistence manager is closed
+        getPm().close();
+        invalidateCachedStudents(Arrays.asList(courseId));
     }
 
     //TODO: add an updateStudent(StudentAttributes) version and make the above private
@@ -466,12 +628,16 @@ public class StudentsDb extends EntitiesDb {
            
             getPm().deletePersistent(courseStudentToDelete);
             getPm().flush();
+            invalidateCachedStudents(Arrays.asList(courseId));
         }
     
         // Check delete operation persisted
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
+        if (isPollingForPersistence()) {
             int elapsedTime = 0;
             CourseStudent studentCheck = getCourseStudentEntityForEmail(courseId, email);
+            if (studentCheck != null) {
+                recordPersistencePolling();
+            }
             while (studentCheck != null
                     && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
                 ThreadHelper.waitBriefly();
@@ -506,8 +672,10 @@ public class StudentsDb extends EntitiesDb {
 
         // Delete from CourseStudent
         List<CourseStudent> courseStudents = getCourseStudentEntitiesForGoogleId(googleId);
-        if (hasDocument) {
-            for (CourseStudent student : courseStudents) {
+        List<String> courseIds = new ArrayList<String>();
+        for (CourseStudent student : courseStudents) {
+            courseIds.add(student.getCourseId());
+            if (hasDocument) {
                 deleteDocument(new StudentAttributes(student));
             }
         }
@@ -515,6 +683,7 @@ public class StudentsDb extends EntitiesDb {
         
         
         getPm().flush();
+        invalidateCachedStudents(courseIds);
 
     }
 
@@ -545,6 +714,7 @@ public class StudentsDb extends EntitiesDb {
 
         getPm().deletePersistentAll(courseStudentList);
         getPm().flush();
+        invalidateCachedStudents(Arrays.asList(courseId));
     }
 
     public void deleteStudentsForCourses(List<String> courseIds) {
@@ -554,6 +724,7 @@ public class StudentsDb extends EntitiesDb {
         List<CourseStudent> courseStudentsToDelete = getCourseStudentEntitiesForCourses(courseIds);
         getPm().deletePersistentAll(courseStudentsToDelete);
         getPm().flush();
+        invalidateCachedStudents(courseIds);
     }
     
     /**
@@ -593,6 +764,52 @@ public class StudentsDb extends EntitiesDb {
         return studentList.get(0);
     }
     
+    /**
+     * Students are keyed by their email and course ID, so most of them can be fetched with a single
+     * batch get by key. As the key is not updated when the email of a student changes, emails that
+     * cannot be resolved by key are then looked up through a query on the email itself.
+     */
+    private List<CourseStudent> getCourseStudentEntitiesForEmails(String courseId, Collection<String> emails) {
+        List<CourseStudent> studentList = new ArrayList<CourseStudent>();
+        Set<String> unresolvedEmails = new LinkedHashSet<String>(emails);
+        
+        List<String> ids = new ArrayList<String>();
+        for (String email : unresolvedEmails) {
+            ids.add(email + '%' + courseId);
+        }
+        for (List<String> idBatch : splitIntoContainsFilterBatches(ids)) {
+            Query q = getPm().newQuery(CourseStudent.class);
+            q.setFilter(":p.contains(id)");
+            
+            @SuppressWarnings("unchecked")
+            List<CourseStudent> batch = (List<CourseStudent>) q.execute(idBatch);
+            collectCourseStudentsForEmails(courseId, batch, unresolvedEmails, studentList);
+        }
+        
+        for (List<String> emailBatch : splitIntoContainsFilterBatches(new ArrayList<String>(unresolvedEmails))) {
+            Query q = getPm().newQuery(CourseStudent.class);
+            q.declareParameters("String courseIdParam, java.util.Collection emailsParam");
+            q.setFilter("courseId == courseIdParam && emailsParam.contains(email)");
+            
+            @SuppressWarnings("unchecked")
+            List<CourseStudent> batch = (List<CourseStudent>) q.execute(courseId, emailBatch);
+            collectCourseStudentsForEmails(courseId, batch, unresolvedEmails, studentList);
+        }
+        
+        return studentList;
+    }
+    
+    private static void collectCourseStudentsForEmails(String courseId, List<CourseStudent> candidates,
+            Set<String> unresolvedEmails, List<CourseStudent> studentList) {
+        for (CourseStudent candidate : candidates) {
+            // an entity found by key may have had its email changed since it was created
+            if (!JDOHelper.isDeleted(candidate) && courseId.equals(candidate.getCourseId())
+                    && unresolvedEmails.remove(candidate.getEmail())) {
+                studentList.add(candidate);
+            }
+        }
+    }
+    
     @SuppressWarnings("unchecked")
     private CourseStudent getCourseStudentEntityForRegistrationKey(String registrationKey) {
         
@@ -680,6 +897,65 @@ public class StudentsDb extends EntitiesDb {
         return (List<CourseStudent>) q.execute();
     }
     
+    /**
+     * Invalidates everything cached about the students of the given courses.
+     */
+    private void invalidateCachedStudents(Collection<String> courseIds) {
+        invalidateRequestCache();
+        rosterCache.invalidate(courseIds);
+    }
+    
+    @Override
+    protected void onEntitiesChanged(Collection<? extends EntityAttributes> changedEntities) {
+        List<String> courseIds = new ArrayList<String>();
+        for (EntityAttributes entity : changedEntities) {
+            courseIds.add(((StudentAttributes) entity).course);
+        }
+        invalidateCachedStudents(courseIds);
+    }
+    
+    private static List<StudentAttributes> copyOf(List<StudentAttributes> students) {
+        List<StudentAttributes> copies = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            copies.add(student.getCopy());
+        }
+        return copies;
+    }
+    
+    @Override
+    protected Set<EntityAttributes> getExistingEntities(List<EntityAttributes> entitiesToCheck) {
+        Map<String, List<StudentAttributes>> studentsByCourse = new HashMap<String, List<StudentAttributes>>();
+        for (EntityAttributes entity : entitiesToCheck) {
+            StudentAttributes student = (StudentAttributes) entity;
+            List<StudentAttributes> studentsInCourse = studentsByCourse.get(student.course);
+            if (studentsInCourse == null) {
+                studentsInCourse = new ArrayList<StudentAttributes>();
+                studentsByCourse.put(student.course, studentsInCourse);
+            }
+            studentsInCourse.add(student);
+        }
+        
+        Set<EntityAttributes> existingStudents = newIdentitySet();
+        for (Map.Entry<String, List<StudentAttributes>> entry : studentsByCourse.entrySet()) {
+            Set<String> emails = new HashSet<String>();
+            for (StudentAttributes student : entry.getValue()) {
+                emails.add(student.email);
+            }
+            
+            Set<String> existingEmails = new HashSet<String>();
+            for (CourseStudent student : getCourseStudentEntitiesForEmails(entry.getKey(), emails)) {
+                existingEmails.add(student.getEmail());
+            }
+            
+            for (StudentAttributes student : entry.getValue()) {
+                if (existingEmails.contains(student.email)) {
+                    existingStudents.add(student);
+                }
+            }
+        }
+        return existingStudents;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes entity) {
         StudentAttributes studentToGet = (StudentAttributes) entity;
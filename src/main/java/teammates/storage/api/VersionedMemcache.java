@@ -0,0 +1,126 @@
+package teammates.storage.api;
+
+import java.util.UUID;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Config;
+import teammates.common.util.Logger;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * Values in Memcache that are derived from some data in the Datastore and cached under a version of
+ * that data, e.g. the roster of a course or the statistics of a feedback session.
+ *
+ * <p>Every write to the data moves it to a new version, so values cached under an older version are
+ * no longer found. Values are not cached while the Datastore may still be catching up with a recent
+ * write to the data (see {@link Config#PERSISTENCE_CHECK_DURATION}), as they may have been derived from
+ * outdated data.
+ *
+ * <p>Memcache failures are logged and treated as cache misses, so callers fall back to the Datastore.
+ */
+class VersionedMemcache {
+
+    private static final Logger log = Logger.getLogger();
+
+    private static final MemcacheService MEMCACHE = MemcacheServiceFactory.getMemcacheService();
+
+    private final String versionKeyPrefix;
+    private final String recentChangeKeyPrefix;
+
+    /**
+     * @param cacheName prefixes the Memcache keys of the versions, e.g. "CourseRoster"
+     */
+    VersionedMemcache(String cacheName) {
+        this.versionKeyPrefix = cacheName + ".version|";
+        this.recentChangeKeyPrefix = cacheName + ".recentChange|";
+    }
+
+    /**
+     * Returns the current version of the data, creating one if there is none yet.
+     * @param dataKey identifies the data, e.g. a course ID
+     * @return null if the version could not be determined, in which case nothing should be cached.
+     */
+    String getVersion(String dataKey) {
+        try {
+            String versionKey = versionKeyPrefix + dataKey;
+            String version = (String) MEMCACHE.get(versionKey);
+            if (version == null) {
+                // another request may be creating the version at the same time; the first one wins
+                MEMCACHE.put(versionKey, generateVersion(), null, SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+                version = (String) MEMCACHE.get(versionKey);
+            }
+            return version;
+        } catch (Exception e) {
+            log.warning("Failed to get cache version of " + versionKeyPrefix + dataKey + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the data was written so recently that the Datastore may not reflect the write yet,
+     * in which case nothing derived from the data should be cached.
+     */
+    boolean isRecentlyChanged(String dataKey) {
+        try {
+            return MEMCACHE.contains(recentChangeKeyPrefix + dataKey);
+        } catch (Exception e) {
+            log.warning("Failed to check for recent changes of " + versionKeyPrefix + dataKey + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return true;
+        }
+    }
+
+    /**
+     * @return the value cached under {@code key}, or null if there is none.
+     */
+    Object get(String key) {
+        try {
+            return MEMCACHE.get(key);
+        } catch (Exception e) {
+            log.warning("Failed to get cached value of " + key + ": " + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Caches a value derived from the data, unless the data was changed recently.
+     * @param key must include a version obtained from {@link #getVersion(String)} before the data was read.
+     */
+    void put(String dataKey, String key, Object value, int expirationSeconds) {
+        if (isRecentlyChanged(dataKey)) {
+            return;
+        }
+        try {
+            MEMCACHE.put(key, value, Expiration.byDeltaSeconds(expirationSeconds));
+        } catch (Exception e) {
+            log.warning("Failed to cache value of " + key + ": " + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    /**
+     * Moves the data to a new version so that previously cached values are no longer used.
+     */
+    void invalidate(String dataKey) {
+        try {
+            if (Config.PERSISTENCE_CHECK_DURATION > 0) {
+                MEMCACHE.put(recentChangeKeyPrefix + dataKey, Boolean.TRUE,
+                             Expiration.byDeltaMillis(Config.PERSISTENCE_CHECK_DURATION));
+            }
+            MEMCACHE.put(versionKeyPrefix + dataKey, generateVersion());
+        } catch (Exception e) {
+            // outdated values may be served until they expire
+            log.severe("Failed to invalidate cache version of " + versionKeyPrefix + dataKey + ": "
+                       + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    private static String generateVersion() {
+        return UUID.randomUUID().toString();
+    }
+
+}
@@ -1,6 +1,8 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.jdo.annotations.NotPersistent;
 import javax.jdo.annotations.PersistenceCapable;
@@ -54,6 +56,14 @@ public class FeedbackResponse implements StoreCallback {
     
     @Persistent
     private String receiverSection;
+    
+    /**
+     * The giver section and the recipient section, kept in sync with them so that the responses
+     * given or received by a section can be found with a single query.
+     * Null for responses stored before this field was introduced.
+     */
+    @Persistent
+    private List<String> sections;
 
     @Persistent
     private Text answer; //TODO: rename to responseMetaData, will require database conversion
@@ -76,7 +86,8 @@ public class FeedbackResponse implements StoreCallback {
         this.receiver = recipient;
         this.receiverSection = recipientSection;
         this.answer = answer;
-                
+        updateSections();
+
         this.feedbackResponseId = feedbackQuestionId + "%" + giverEmail + "%" + receiver;
         
         this.setCreatedAt(new Date());
@@ -137,6 +148,7 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateSections();
     }
 
     public String getRecipientEmail() {
@@ -153,6 +165,24 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setRecipientSection(String recipientSection) {
         this.receiverSection = recipientSection;
+        updateSections();
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+
+    /**
+     * Recomputes {@link #sections} from the giver and recipient sections.
+     * Only needs to be called directly for entities stored before {@link #sections} was introduced.
+     */
+    public void updateSections() {
+        List<String> updatedSections = new ArrayList<String>();
+        updatedSections.add(giverSection);
+        if (receiverSection != null && !receiverSection.equals(giverSection)) {
+            updatedSections.add(receiverSection);
+        }
+        this.sections = updatedSections;
     }
 
     public Text getResponseMetaData() {
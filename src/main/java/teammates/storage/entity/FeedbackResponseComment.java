@@ -1,5 +1,6 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -59,6 +60,14 @@ public class FeedbackResponseComment {
     @Persistent
     private String receiverSection;
     
+    /**
+     * The response giver section and the response receiver section, kept in sync with them so that
+     * the comments on responses given or received by a section can be found with a single query.
+     * Null for comments stored before this field was introduced.
+     */
+    @Persistent
+    private List<String> sections;
+
     /** visibility settings **/
     @Persistent
     private List<FeedbackParticipantType> showCommentTo;
@@ -102,6 +111,7 @@ public class FeedbackResponseComment {
         this.commentText = SanitizationHelper.sanitizeForRichText(commentText);
         this.giverSection = giverSection;
         this.receiverSection = receiverSection;
+        updateSections();
         this.showCommentTo = showCommentTo;
         this.showGiverNameTo = showGiverNameTo;
         this.isVisibilityFollowingFeedbackQuestion = false;
@@ -221,6 +231,7 @@ public class FeedbackResponseComment {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateSections();
     }
 
     public String getReceiverSection() {
@@ -229,6 +240,24 @@ public class FeedbackResponseComment {
 
     public void setReceiverSection(String receiverSection) {
         this.receiverSection = receiverSection;
+        updateSections();
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+
+    /**
+     * Recomputes {@link #sections} from the response giver and receiver sections.
+     * Only needs to be called directly for entities stored before {@link #sections} was introduced.
+     */
+    public void updateSections() {
+        List<String> updatedSections = new ArrayList<String>();
+        updatedSections.add(giverSection);
+        if (receiverSection != null && !receiverSection.equals(giverSection)) {
+            updatedSections.add(receiverSection);
+        }
+        this.sections = updatedSections;
     }
 
     public void setLastEditorEmail(String lastEditorEmail) {
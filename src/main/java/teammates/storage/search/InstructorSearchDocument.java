@@ -58,7 +58,7 @@ public class InstructorSearchDocument extends SearchDocument {
                                             .setText(searchableText))
                 // attribute field is used to convert a doc back to attribute
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.INSTRUCTOR_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(instructor)))
+                                            .setText(JsonUtils.toCompactJson(instructor)))
                 .setId(StringHelper.encrypt(instructor.key))
                 .build();
     }
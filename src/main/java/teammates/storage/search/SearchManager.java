@@ -1,6 +1,8 @@
 package teammates.storage.search;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import teammates.common.exception.TeammatesException;
@@ -11,6 +13,7 @@ import teammates.common.util.ThreadHelper;
 import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Index;
 import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
 import com.google.appengine.api.search.PutException;
 import com.google.appengine.api.search.PutResponse;
 import com.google.appengine.api.search.Query;
@@ -31,6 +34,8 @@ public final class SearchManager {
     private static final String ERROR_EXCEED_DURATION =
             "Operation did not succeed in time: putting document %s into search index %s.";
     private static final Logger log = Logger.getLogger();
+    /** The maximum number of documents the search service accepts in a single put. */
+    private static final int MAX_DOCUMENTS_PER_PUT = 200;
     private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
     
     private SearchManager() {
@@ -72,6 +77,63 @@ public final class SearchManager {
         }
     }
     
+    /**
+     * Creates or updates the search documents for the given documents and index,
+     * putting up to {@value #MAX_DOCUMENTS_PER_PUT} documents in each call to the search service.
+     */
+    public static void putDocuments(String indexName, List<Document> documents) {
+        for (int i = 0; i < documents.size(); i += MAX_DOCUMENTS_PER_PUT) {
+            List<Document> documentsToPut =
+                    documents.subList(i, Math.min(i + MAX_DOCUMENTS_PER_PUT, documents.size()));
+            int elapsedTime = 0;
+            List<Document> failedDocuments = tryPutDocuments(indexName, documentsToPut);
+            while (!failedDocuments.isEmpty() && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+                ThreadHelper.waitBriefly();
+                // retry putting only the documents that failed
+                failedDocuments = tryPutDocuments(indexName, failedDocuments);
+                // check before incrementing to avoid boundary case problem
+                if (!failedDocuments.isEmpty()) {
+                    elapsedTime += ThreadHelper.WAIT_DURATION;
+                }
+            }
+            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
+                log.severe(String.format(ERROR_EXCEED_DURATION, failedDocuments, indexName));
+            }
+        }
+    }
+    
+    /**
+     * @return the documents which were not put successfully.
+     */
+    private static List<Document> tryPutDocuments(String indexName, List<Document> documents) {
+        Index index = getIndex(indexName);
+        try {
+            PutResponse result = index.put(documents);
+            return getFailedDocuments(documents, result.getResults());
+        } catch (PutException e) {
+            // if it's a transient error in the server, it can be re-tried
+            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, documents, indexName)
+                           + TeammatesException.toStringWithStackTrace(e));
+            }
+            return getFailedDocuments(documents, e.getResults());
+        }
+    }
+    
+    private static List<Document> getFailedDocuments(List<Document> documents, List<OperationResult> results) {
+        if (results == null || results.size() != documents.size()) {
+            // the outcome of each document is unknown
+            return documents;
+        }
+        List<Document> failedDocuments = new ArrayList<Document>();
+        for (int i = 0; i < documents.size(); i++) {
+            if (results.get(i).getCode() != StatusCode.OK) {
+                failedDocuments.add(documents.get(i));
+            }
+        }
+        return failedDocuments;
+    }
+    
     /**
      * Searches document by the given query.
      */
@@ -9,6 +9,7 @@ import teammates.common.datatransfer.UserType;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestScopedCache;
 import teammates.logic.api.GateKeeper;
 
 /**
@@ -26,6 +27,7 @@ public class AutomatedServlet extends HttpServlet {
     
     @Override
     public void doPost(HttpServletRequest req, HttpServletResponse resp) {
+        RequestScopedCache.begin();
         try {
             AutomatedAction action = new AutomatedActionFactory().getAction(req, resp);
             UserType userType = new GateKeeper().getCurrentUser();
@@ -44,6 +46,8 @@ public class AutomatedServlet extends HttpServlet {
             String requestParams = HttpRequestHelper.printRequestParameters(req);
             log.severe("Exception occured while performing " + requestUrl + "|||"
                        + requestParams + "|||" + TeammatesException.toStringWithStackTrace(e));
+        } finally {
+            RequestScopedCache.end();
         }
     }
     
@@ -1,6 +1,7 @@
 package teammates.ui.automated;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import teammates.common.datatransfer.attributes.FeedbackSessionAttributes;
@@ -39,20 +40,10 @@ public class FeedbackSessionRemindParticularUsersEmailWorkerAction extends Autom
         
         try {
             FeedbackSessionAttributes session = logic.getFeedbackSession(feedbackSessionName, courseId);
-            List<StudentAttributes> studentsToRemindList = new ArrayList<StudentAttributes>();
-            List<InstructorAttributes> instructorsToRemindList = new ArrayList<InstructorAttributes>();
-            
-            for (String userEmail : usersToRemind) {
-                StudentAttributes student = logic.getStudentForEmail(courseId, userEmail);
-                if (student != null) {
-                    studentsToRemindList.add(student);
-                }
-                
-                InstructorAttributes instructor = logic.getInstructorForEmail(courseId, userEmail);
-                if (instructor != null) {
-                    instructorsToRemindList.add(instructor);
-                }
-            }
+            List<String> usersToRemindList = Arrays.asList(usersToRemind);
+            List<StudentAttributes> studentsToRemindList = logic.getStudentsForEmails(courseId, usersToRemindList);
+            List<InstructorAttributes> instructorsToRemindList =
+                    logic.getInstructorsForEmails(courseId, usersToRemindList);
             
             List<EmailWrapper> emails = new EmailGenerator().generateFeedbackSessionReminderEmails(
                     session, studentsToRemindList, instructorsToRemindList, new ArrayList<InstructorAttributes>());
@@ -0,0 +1,124 @@
+package teammates.ui.automated;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.exception.EntityAlreadyExistsException;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.JsonUtils;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Task queue worker action: saves the responses of a feedback submission
+ * which was received too close to its request deadline to be saved directly.
+ * The responses have already been validated by the submission action.
+ * Responses that were saved again since the submission was made are left as they are.
+ */
+public class FeedbackSubmissionSaveWorkerAction extends AutomatedAction {
+
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+
+    @Override
+    public void execute() {
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        String sessionName = getRequestParamValue(ParamsNames.FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(sessionName);
+
+        String submissionTimestamp = getRequestParamValue(ParamsNames.FEEDBACK_SUBMISSION_TIMESTAMP);
+        Assumption.assertNotNull(submissionTimestamp);
+        Date submittedAt = new Date(Long.parseLong(submissionTimestamp));
+
+        List<FeedbackResponseAttributes> responsesToCreate =
+                getResponsesFromRequestParam(ParamsNames.FEEDBACK_RESPONSES_TO_CREATE);
+        List<FeedbackResponseAttributes> responsesToUpdate =
+                getResponsesFromRequestParam(ParamsNames.FEEDBACK_RESPONSES_TO_UPDATE);
+        List<FeedbackResponseAttributes> responsesToDelete =
+                getResponsesFromRequestParam(ParamsNames.FEEDBACK_RESPONSES_TO_DELETE);
+
+        log.info("Saving queued submission for feedback session : " + sessionName + " in course : " + courseId
+                 + " (" + responsesToCreate.size() + " created, " + responsesToUpdate.size() + " updated, "
+                 + responsesToDelete.size() + " deleted)");
+
+        List<FeedbackResponseAttributes> noResponses = new ArrayList<FeedbackResponseAttributes>();
+        // each response is saved on its own, so that a response that cannot be saved does not affect the others
+        for (FeedbackResponseAttributes response : responsesToDelete) {
+            if (!isSavedAgain(logic.getFeedbackResponse(response.getId()), submittedAt)
+                    && !saveResponse(noResponses, noResponses, Arrays.asList(response), sessionName, courseId)) {
+                return;
+            }
+        }
+        for (FeedbackResponseAttributes response : responsesToUpdate) {
+            if (!isSavedAgain(logic.getFeedbackResponse(response.getId()), submittedAt)
+                    && !saveResponse(noResponses, Arrays.asList(response), noResponses, sessionName, courseId)) {
+                return;
+            }
+        }
+        for (FeedbackResponseAttributes response : responsesToCreate) {
+            FeedbackResponseAttributes existingResponse =
+                    logic.getFeedbackResponse(response.feedbackQuestionId, response.giver, response.recipient);
+            if (!isSavedAgain(existingResponse, submittedAt)
+                    && !saveResponse(Arrays.asList(response), noResponses, noResponses, sessionName, courseId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Saves the response of the queued submission that is given in one of the lists.
+     * @return false if the response could not be saved because of a transient failure,
+     *         in which case the task is set to be retried.
+     */
+    private boolean saveResponse(List<FeedbackResponseAttributes> responsesToCreate,
+                                 List<FeedbackResponseAttributes> responsesToUpdate,
+                                 List<FeedbackResponseAttributes> responsesToDelete,
+                                 String sessionName, String courseId) {
+        try {
+            logic.saveFeedbackResponses(responsesToCreate, responsesToUpdate, responsesToDelete);
+        } catch (EntityAlreadyExistsException | EntityDoesNotExistException | InvalidParametersException e) {
+            // the response has been changed by another submission in the meantime; retrying will not help
+            log.severe("Error encountered while saving a response of queued submission for feedback session "
+                       + sessionName + " in course " + courseId + ": " + TeammatesException.toStringWithStackTrace(e));
+        } catch (Exception e) {
+            // the responses saved so far are skipped when the task is retried, see isSavedAgain
+            log.severe("Failed to save queued submission for feedback session " + sessionName + " in course "
+                       + courseId + ", will retry: " + TeammatesException.toStringWithStackTrace(e));
+            setForRetry();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if {@code storedResponse} was saved after the queued submission was made, e.g. by a
+     *         later submission of the same user or by an earlier attempt of this task, and must not be
+     *         overwritten with the queued response.
+     */
+    private boolean isSavedAgain(FeedbackResponseAttributes storedResponse, Date submittedAt) {
+        return storedResponse != null && storedResponse.getUpdatedAt().after(submittedAt);
+    }
+
+    private List<FeedbackResponseAttributes> getResponsesFromRequestParam(String paramName) {
+        String responses = getRequestParamValue(paramName);
+        Assumption.assertNotNull(responses);
+        return JsonUtils.fromJson(responses, new TypeToken<List<FeedbackResponseAttributes>>(){}.getType());
+    }
+
+}
@@ -19,6 +19,7 @@ import teammates.common.util.Const;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.StatusMessageColor;
 import teammates.logic.api.EmailGenerator;
@@ -49,6 +50,7 @@ public class ControllerServlet extends HttpServlet {
         
         UserType userType = new GateKeeper().getCurrentUser();
 
+        RequestScopedCache.begin();
         try {
             /* We are using the Template Method Design Pattern here.
              * This method contains the high level logic of the request processing.
@@ -140,6 +142,8 @@ public class ControllerServlet extends HttpServlet {
             
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
+        } finally {
+            RequestScopedCache.end();
         }
         
     }
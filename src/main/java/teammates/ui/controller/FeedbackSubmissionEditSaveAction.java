@@ -2,6 +2,7 @@ package teammates.ui.controller;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,14 +33,30 @@ import teammates.logic.api.EmailGenerator;
 import teammates.ui.pagedata.FeedbackSubmissionEditPageData;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.apphosting.api.ApiProxy;
 
 public abstract class FeedbackSubmissionEditSaveAction extends Action {
+    
+    /**
+     * If less time than this is left to serve the request, the responses are queued to be saved by a task
+     * instead, so that submissions made right before a session closes are not lost to request timeouts.
+     */
+    private static final long MIN_REMAINING_MILLIS_TO_SAVE_DIRECTLY = 20 * 1000;
+    
     protected String courseId;
     protected String feedbackSessionName;
     protected FeedbackSubmissionEditPageData data;
     protected boolean hasValidResponse;
     protected boolean isSendSubmissionEmail;
     
+    private List<FeedbackResponseAttributes> responsesToCreate = new ArrayList<FeedbackResponseAttributes>();
+    private List<FeedbackResponseAttributes> responsesToUpdate = new ArrayList<FeedbackResponseAttributes>();
+    private List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+    private boolean isWriteBatchQueued;
+    
+    /** The responses loaded on the submission page, keyed by ID. */
+    private Map<String, FeedbackResponseAttributes> existingResponses;
+    
     @Override
     protected ActionResult execute() throws EntityDoesNotExistException {
         courseId = getRequestParamValue(Const.ParamsNames.COURSE_ID);
@@ -106,9 +123,13 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             ArrayList<String> responsesRecipients = new ArrayList<String>();
             List<String> errors = new ArrayList<String>();
             
+            Map<String, String> recipientSections =
+                    getRecipientStudentSections(questionIndx, numOfResponsesToGet, questionAttributes);
+            
             for (int responseIndx = 0; responseIndx < numOfResponsesToGet; responseIndx++) {
                 FeedbackResponseAttributes response =
-                        extractFeedbackResponseData(requestParameters, questionIndx, responseIndx, questionAttributes);
+                        extractFeedbackResponseData(requestParameters, questionIndx, responseIndx, questionAttributes,
+                                                    recipientSections);
                 
                 if (response.feedbackQuestionType != questionAttributes.questionType) {
                     errors.add(String.format(Const.StatusMessages.FEEDBACK_RESPONSES_WRONG_QUESTION_TYPE, questionIndx));
@@ -130,7 +151,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
                 
                 if (response.responseMetaData.getValue().isEmpty()) {
                     // deletes the response since answer is empty
-                    saveResponse(response);
+                    addToWriteBatch(response);
                 } else {
                     response.giver = questionAttributes.giverType.isTeam() ? userTeamForCourse
                                                                                 : userEmailForCourse;
@@ -150,7 +171,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
             if (errors.isEmpty()) {
                 for (FeedbackResponseAttributes response : responsesForQuestion) {
-                    saveResponse(response);
+                    addToWriteBatch(response);
                 }
             } else {
                 List<StatusMessage> errorMessages = new ArrayList<StatusMessage>();
@@ -165,8 +186,12 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
         }
         
+        saveWriteBatch();
+        
         if (!isError) {
-            statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESPONSES_SAVED, StatusMessageColor.SUCCESS));
+            String successMessage = isWriteBatchQueued ? Const.StatusMessages.FEEDBACK_RESPONSES_QUEUED
+                                                       : Const.StatusMessages.FEEDBACK_RESPONSES_SAVED;
+            statusToUser.add(new StatusMessage(successMessage, StatusMessageColor.SUCCESS));
         }
 
         if (isUserRespondentOfSession()) {
@@ -220,54 +245,112 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
      * @param response  a response which has non-null id
      */
     private boolean isExistingResponseValid(FeedbackResponseAttributes response) {
-       
-        String questionId = response.feedbackQuestionId;
-        FeedbackQuestionAttributes question = data.bundle.getQuestionAttributes(questionId);
-        
-        if (!data.bundle.questionResponseBundle.containsKey(question)) {
-            // question id is invalid
-            return false;
-        }
+        FeedbackResponseAttributes existingResponse = getExistingResponse(response.getId());
         
-        List<FeedbackResponseAttributes> existingResponses = data.bundle.questionResponseBundle.get(question);
-        List<String> existingResponsesId = new ArrayList<String>();
-        for (FeedbackResponseAttributes existingResponse : existingResponses) {
-            existingResponsesId.add(existingResponse.getId());
+        // checks if response id is valid, and belongs to the same question
+        return existingResponse != null && existingResponse.feedbackQuestionId.equals(response.feedbackQuestionId);
+    }
+    
+    /**
+     * @return the response with the given ID among those loaded on the submission page, or null if there is none.
+     */
+    private FeedbackResponseAttributes getExistingResponse(String responseId) {
+        if (existingResponses == null) {
+            existingResponses = new HashMap<String, FeedbackResponseAttributes>();
+            for (List<FeedbackResponseAttributes> responsesForQuestion : data.bundle.questionResponseBundle.values()) {
+                for (FeedbackResponseAttributes existingResponse : responsesForQuestion) {
+                    existingResponses.put(existingResponse.getId(), existingResponse);
+                }
+            }
         }
-        
-        // checks if response id is valid
-        return existingResponsesId.contains(response.getId());
+        return existingResponses.get(responseId);
     }
-
-    private void saveResponse(FeedbackResponseAttributes response)
-            throws EntityDoesNotExistException {
+    
+    /**
+     * Adds the response to the responses to create, update or delete, which are saved together
+     * by {@link #saveWriteBatch()} once all questions have been checked.
+     */
+    private void addToWriteBatch(FeedbackResponseAttributes response) {
         boolean isExistingResponse = response.getId() != null;
         if (isExistingResponse) {
             // Delete away response if any empty fields
             if (response.responseMetaData.getValue().isEmpty() || response.recipient.isEmpty()) {
-                logic.deleteFeedbackResponse(response);
+                responsesToDelete.add(response);
                 return;
             }
-            try {
-                logic.updateFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (EntityAlreadyExistsException | InvalidParametersException e) {
-                setStatusForException(e);
+            if (response.isValid()) {
+                responsesToUpdate.add(response);
+            } else {
+                setStatusForException(new InvalidParametersException(response.getInvalidityInfo()));
             }
         } else if (!response.responseMetaData.getValue().isEmpty()
                    && !response.recipient.isEmpty()) {
-            try {
-                logic.createFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (InvalidParametersException e) {
-                setStatusForException(e);
+            if (response.isValid()) {
+                responsesToCreate.add(response);
+            } else {
+                setStatusForException(new InvalidParametersException(response.getInvalidityInfo()));
+            }
+        }
+    }
+    
+    private void saveWriteBatch() throws EntityDoesNotExistException {
+        boolean hasResponsesInWriteBatch = !responsesToCreate.isEmpty() || !responsesToUpdate.isEmpty();
+        
+        // a submission that only deletes responses is saved directly, as whether the user is still
+        // a respondent of the session can then only be found out from the saved responses
+        if (hasResponsesInWriteBatch && isNearRequestDeadline()) {
+            isWriteBatchQueued = taskQueuer.scheduleFeedbackResponsesForSaving(
+                    courseId, feedbackSessionName, responsesToCreate, responsesToUpdate, responsesToDelete);
+        }
+        
+        try {
+            if (isWriteBatchQueued) {
+                statusToAdmin += "<br>Responses queued for saving";
+            } else {
+                int numOfUnchangedResponses =
+                        logic.saveFeedbackResponses(responsesToCreate, responsesToUpdate, responsesToDelete);
+                statusToAdmin += "<br>Unchanged responses not saved again: " + numOfUnchangedResponses;
+            }
+            hasValidResponse = hasResponsesInWriteBatch;
+        } catch (EntityAlreadyExistsException | InvalidParametersException e) {
+            setStatusForException(e);
+        }
+    }
+    
+    private boolean isNearRequestDeadline() {
+        long timeLeftInMillis = ApiProxy.getCurrentEnvironment().getRemainingMillis();
+        return timeLeftInMillis < MIN_REMAINING_MILLIS_TO_SAVE_DIRECTLY;
+    }
+    
+    /**
+     * Looks up, in one batch, the sections of all student recipients submitted for the question.
+     * @return a map from recipient email to section, empty if the recipients are not students.
+     */
+    private Map<String, String> getRecipientStudentSections(int questionIndx, int numOfResponsesToGet,
+                                                            FeedbackQuestionAttributes feedbackQuestionAttributes) {
+        Map<String, String> recipientSections = new HashMap<String, String>();
+        if (feedbackQuestionAttributes.recipientType != FeedbackParticipantType.STUDENTS) {
+            return recipientSections;
+        }
+        
+        List<String> recipientEmails = new ArrayList<String>();
+        for (int responseIndx = 0; responseIndx < numOfResponsesToGet; responseIndx++) {
+            String recipient = getRequestParamValue(
+                    Const.ParamsNames.FEEDBACK_RESPONSE_RECIPIENT + "-" + questionIndx + "-" + responseIndx);
+            if (recipient != null) {
+                recipientEmails.add(recipient);
             }
         }
+        
+        for (StudentAttributes recipient : logic.getStudentsForEmails(courseId, recipientEmails)) {
+            recipientSections.put(recipient.email, recipient.section);
+        }
+        return recipientSections;
     }
     
     private FeedbackResponseAttributes extractFeedbackResponseData(
             Map<String, String[]> requestParameters, int questionIndx, int responseIndx,
-            FeedbackQuestionAttributes feedbackQuestionAttributes) {
+            FeedbackQuestionAttributes feedbackQuestionAttributes, Map<String, String> recipientSections) {
         
         FeedbackQuestionDetails questionDetails = feedbackQuestionAttributes.getQuestionDetails();
         FeedbackResponseAttributes response = new FeedbackResponseAttributes();
@@ -303,8 +386,8 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
         } else if (recipientType == FeedbackParticipantType.TEAMS) {
             response.recipientSection = logic.getSectionForTeam(courseId, response.recipient);
         } else if (recipientType == FeedbackParticipantType.STUDENTS) {
-            StudentAttributes student = logic.getStudentForEmail(courseId, response.recipient);
-            response.recipientSection = student == null ? Const.DEFAULT_SECTION : student.section;
+            String recipientSection = recipientSections.get(response.recipient);
+            response.recipientSection = recipientSection == null ? Const.DEFAULT_SECTION : recipientSection;
         } else {
             response.recipientSection = getUserSectionForCourse();
         }
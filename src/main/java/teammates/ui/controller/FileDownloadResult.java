@@ -2,20 +2,30 @@ package teammates.ui.controller;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import teammates.common.datatransfer.attributes.AccountAttributes;
+import teammates.common.util.Const;
 import teammates.common.util.SanitizationHelper;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.StringHelper;
 
 public class FileDownloadResult extends ActionResult {
     
+    /** Ends a file whose content could not be written completely after part of it had been sent. */
+    static final String ERROR_INCOMPLETE_FILE =
+            "Error: the download failed and this file is incomplete. Please download the file again.";
+    
     String fileContent = "";
     String fileName = "";
+    
+    /** Produces the file content while it is being sent, if the content is not known upfront. */
+    FileContentWriter fileContentWriter;
 
     public FileDownloadResult(String destination, AccountAttributes account,
             List<StatusMessage> status) {
@@ -30,6 +40,15 @@ public class FileDownloadResult extends ActionResult {
         this.fileName = fileName;
         this.fileContent = fileContent;
     }
+    
+    public FileDownloadResult(
+            String destination, AccountAttributes account,
+            List<StatusMessage> status,
+            String fileName, FileContentWriter fileContentWriter) {
+        super(destination, account, status);
+        this.fileName = fileName;
+        this.fileContentWriter = fileContentWriter;
+    }
 
     @Override
     public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -43,7 +62,25 @@ public class FileDownloadResult extends ActionResult {
         resp.setHeader("Content-Disposition", getContentDispositionHeader());
         PrintWriter writer = resp.getWriter();
         writer.write("\uFEFF");
-        writer.append(fileContent);
+        if (fileContentWriter == null) {
+            writer.append(fileContent);
+        } else {
+            writeFileContent(resp, writer);
+        }
+    }
+    
+    private void writeFileContent(HttpServletResponse resp, PrintWriter writer) throws IOException {
+        try {
+            fileContentWriter.write(writer);
+        } catch (IOException | RuntimeException e) {
+            // if nothing has been sent yet, the error page is shown instead of the file;
+            // otherwise, mark the part already sent as incomplete
+            if (resp.isCommitted()) {
+                writer.append(Const.EOL).append(Const.EOL).append(ERROR_INCOMPLETE_FILE).append(Const.EOL);
+                writer.flush();
+            }
+            throw e;
+        }
     }
     
     /**
@@ -67,8 +104,26 @@ public class FileDownloadResult extends ActionResult {
         return this.fileName;
     }
     
-    public String getFileContent() {
-        return this.fileContent;
+    /**
+     * Returns the whole file content, producing it first if it is written while being sent.
+     * @throws IOException if the file content could not be produced
+     */
+    public String getFileContent() throws IOException {
+        if (fileContentWriter == null) {
+            return this.fileContent;
+        }
+        StringWriter writer = new StringWriter();
+        fileContentWriter.write(writer);
+        return writer.toString();
+    }
+    
+    /**
+     * Writes the content of a file that is too large to be built in memory before it is sent.
+     */
+    public interface FileContentWriter {
+        
+        void write(Writer writer) throws IOException;
+        
     }
 
 }
@@ -9,6 +9,7 @@ import teammates.common.datatransfer.CourseEnrollmentResult;
 import teammates.common.datatransfer.attributes.FeedbackSessionAttributes;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
+import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.datatransfer.StudentUpdateStatus;
 import teammates.common.exception.EnrollException;
 import teammates.common.exception.EntityAlreadyExistsException;
@@ -93,12 +94,17 @@ public class InstructorCourseEnrollSaveAction extends Action {
         CourseEnrollmentResult enrollResult = logic.enrollStudents(studentsInfo, courseId);
         List<StudentAttributes> students = enrollResult.studentList;
         
-        // Adjust submissions for all feedback responses within the course
-        List<FeedbackSessionAttributes> feedbackSessions = logic.getFeedbackSessionsForCourse(courseId);
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            // Schedule adjustment of submissions for feedback session in course
-            taskQueuer.scheduleFeedbackResponseAdjustmentForCourse(
-                    courseId, session.getFeedbackSessionName(), enrollResult.enrollmentList);
+        // Adjust submissions for all feedback responses within the course,
+        // only needed for students who have changed team or section
+        List<StudentEnrollDetails> enrollmentsToAdjust = getEnrollmentsWithTeamOrSectionChanged(
+                enrollResult.enrollmentList);
+        if (!enrollmentsToAdjust.isEmpty()) {
+            List<FeedbackSessionAttributes> feedbackSessions = logic.getFeedbackSessionsForCourse(courseId);
+            for (FeedbackSessionAttributes session : feedbackSessions) {
+                // Schedule adjustment of submissions for feedback session in course
+                taskQueuer.scheduleFeedbackResponseAdjustmentForCourse(
+                        courseId, session.getFeedbackSessionName(), enrollmentsToAdjust);
+            }
         }
         
         Collections.sort(students, new Comparator<StudentAttributes>() {
@@ -111,6 +117,17 @@ public class InstructorCourseEnrollSaveAction extends Action {
         return separateStudents(students);
     }
 
+    private List<StudentEnrollDetails> getEnrollmentsWithTeamOrSectionChanged(
+            List<StudentEnrollDetails> enrollmentList) {
+        List<StudentEnrollDetails> enrollmentsWithTeamOrSectionChanged = new ArrayList<StudentEnrollDetails>();
+        for (StudentEnrollDetails enrollment : enrollmentList) {
+            if (enrollment.oldTeam != null || enrollment.oldSection != null) {
+                enrollmentsWithTeamOrSectionChanged.add(enrollment);
+            }
+        }
+        return enrollmentsWithTeamOrSectionChanged;
+    }
+
     /**
      * Separate the StudentData objects in the list into different categories based
      * on their updateStatus. Each category is put into a separate list.<br>
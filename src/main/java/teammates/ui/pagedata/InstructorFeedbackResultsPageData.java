@@ -1,6 +1,7 @@
 package teammates.ui.pagedata;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -20,6 +21,7 @@ import teammates.common.datatransfer.questions.FeedbackQuestionDetails;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
 import teammates.common.datatransfer.attributes.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.MissingResponsesTracker;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
@@ -942,8 +944,8 @@ public class InstructorFeedbackResultsPageData extends PageData {
         }
         
         String studentEmail = student == null ? null : student.email;
-        String statisticsTable = questionDetails.getQuestionResultStatisticsHtml(responses, question, studentEmail,
-                                                                                 bundle, viewType.toString());
+        String statisticsTable = bundle.getQuestionResultStatisticsHtml(responses, question, studentEmail,
+                                                                        viewType.toString());
         
         String questionText = questionDetails.getQuestionText();
         String additionalInfoText = questionDetails.getQuestionAdditionalInfoHtml(question.questionNumber, additionalInfoId);
@@ -1064,36 +1066,32 @@ public class InstructorFeedbackResultsPageData extends PageData {
             FeedbackQuestionAttributes question, List<FeedbackResponseAttributes> responses) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleGiversWithoutResponses = bundle.getPossibleGivers(question);
-        List<String> possibleReceiversWithoutResponsesForGiver = new ArrayList<String>();
+        MissingResponsesTracker missingResponses = new MissingResponsesTracker(bundle, question);
 
         String prevGiver = "";
         
         for (FeedbackResponseAttributes response : responses) {
             if (!bundle.isGiverVisible(response) || !bundle.isRecipientVisible(response)) {
-                possibleGiversWithoutResponses.clear();
-                possibleReceiversWithoutResponsesForGiver.clear();
+                missingResponses.clear();
             }
             
             // keep track of possible givers who did not give a response
-            removeParticipantIdentifierFromList(possibleGiversWithoutResponses, response.giver);
+            missingResponses.removeGiver(response.giver);
             
             boolean isNewGiver = !prevGiver.equals(response.giver);
             if (isNewGiver) {
                 if (isMissingResponsesShown) {
                     responseRows.addAll(
                             buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
-                                        question, possibleReceiversWithoutResponsesForGiver, prevGiver,
+                                        question, missingResponses.getRecipientsWithoutResponsesFromGiver(), prevGiver,
                                         bundle.getNameForEmail(prevGiver),
                                         bundle.getTeamNameForEmail(prevGiver)));
                 }
-                String giverIdentifier = response.giver;
-                            
-                possibleReceiversWithoutResponsesForGiver = bundle.getPossibleRecipients(question, giverIdentifier);
+                missingResponses.startGiver(response.giver);
             }
             
             // keep track of possible recipients without a response from the current giver
-            removeParticipantIdentifierFromList(possibleReceiversWithoutResponsesForGiver, response.recipient);
+            missingResponses.removeRecipient(response.recipient);
             prevGiver = response.giver;
             
             InstructorFeedbackResultsModerationButton moderationButton = buildModerationButtonForExistingResponse(
@@ -1110,9 +1108,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
         }
         
         if (!responses.isEmpty()) {
-            responseRows.addAll(getRemainingMissingResponseRows(question, possibleGiversWithoutResponses,
-                                                                possibleReceiversWithoutResponsesForGiver,
-                                                                prevGiver));
+            responseRows.addAll(getRemainingMissingResponseRows(question, missingResponses, prevGiver));
         }
         
         return responseRows;
@@ -1138,9 +1134,9 @@ public class InstructorFeedbackResultsPageData extends PageData {
                                     String participantIdentifier, boolean isFirstGroupedByGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleParticipantsWithoutResponses = isFirstGroupedByGiver
-                                                          ? bundle.getPossibleRecipients(question, participantIdentifier)
-                                                          : bundle.getPossibleGivers(question, participantIdentifier);
+        Set<String> possibleParticipantsWithoutResponses = new LinkedHashSet<String>(
+                isFirstGroupedByGiver ? bundle.getPossibleRecipients(question, participantIdentifier)
+                                      : bundle.getPossibleGivers(question, participantIdentifier));
         
         for (FeedbackResponseAttributes response : responses) {
             if (!bundle.isGiverVisible(response) || !bundle.isRecipientVisible(response)) {
@@ -1149,8 +1145,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
             
             // keep track of possible participant who did not give/receive a response to/from the participantIdentifier
             String participantWithResponse = isFirstGroupedByGiver ? response.recipient : response.giver;
-            removeParticipantIdentifierFromList(possibleParticipantsWithoutResponses,
-                                                participantWithResponse);
+            possibleParticipantsWithoutResponses.remove(participantWithResponse);
 
             InstructorFeedbackResultsModerationButton moderationButton =
                     buildModerationButtonForExistingResponse(question, response);
@@ -1237,7 +1232,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
      */
     private List<InstructorFeedbackResultsResponseRow> buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
                                                                     FeedbackQuestionAttributes question,
-                                                                    List<String> possibleReceivers,
+                                                                    Collection<String> possibleReceivers,
                                                                     String giverIdentifier,
                                                                     String giverName, String giverTeam) {
         List<InstructorFeedbackResultsResponseRow> missingResponses = new ArrayList<InstructorFeedbackResultsResponseRow>();
@@ -1276,7 +1271,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
      */
     private List<InstructorFeedbackResultsResponseRow> buildMissingResponseRowsBetweenRecipientAndPossibleGivers(
                                     FeedbackQuestionAttributes question,
-                                    List<String> possibleGivers, String recipientIdentifier,
+                                    Collection<String> possibleGivers, String recipientIdentifier,
                                     String recipientName, String recipientTeam) {
         List<InstructorFeedbackResultsResponseRow> missingResponses = new ArrayList<InstructorFeedbackResultsResponseRow>();
         FeedbackQuestionDetails questionDetails = questionToDetailsMap.get(question);
@@ -1307,38 +1302,26 @@ public class InstructorFeedbackResultsPageData extends PageData {
         return missingResponses;
     }
 
-    /**
-     * Given a participantIdentifier, remove it from participantIdentifierList.
-     * 
-     * @param participantIdentifierList
-     * @param participantIdentifier
-     */
-    private void removeParticipantIdentifierFromList(
-                    List<String> participantIdentifierList, String participantIdentifier) {
-        participantIdentifierList.remove(participantIdentifier);
-    }
-    
     private List<InstructorFeedbackResultsResponseRow> getRemainingMissingResponseRows(
-            FeedbackQuestionAttributes question, List<String> remainingPossibleGivers,
-            List<String> possibleRecipientsForGiver, String prevGiver) {
+            FeedbackQuestionAttributes question, MissingResponsesTracker missingResponses, String prevGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        if (possibleRecipientsForGiver != null && isMissingResponsesShown) {
+        if (isMissingResponsesShown) {
             responseRows.addAll(buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
-                                            question, possibleRecipientsForGiver,
+                                            question, missingResponses.getRecipientsWithoutResponsesFromGiver(),
                                             prevGiver, bundle.getNameForEmail(prevGiver),
                                             bundle.getTeamNameForEmail(prevGiver)));
         }
         
-        removeParticipantIdentifierFromList(remainingPossibleGivers, prevGiver);
+        missingResponses.removeGiver(prevGiver);
             
-        for (String possibleGiverWithNoResponses : remainingPossibleGivers) {
+        for (String possibleGiverWithNoResponses : missingResponses.getGiversWithoutResponses()) {
             if (!isAllSectionsSelected()
                     && !bundle.getSectionFromRoster(possibleGiverWithNoResponses).equals(selectedSection)) {
                 continue;
             }
             List<String> possibleRecipientsForRemainingGiver =
-                                            bundle.getPossibleRecipients(question, possibleGiverWithNoResponses);
+                                            missingResponses.getPossibleRecipients(possibleGiverWithNoResponses);
             if (isMissingResponsesShown) {
                 responseRows.addAll(
                         buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
@@ -104,9 +104,8 @@ public class StudentFeedbackResultsPageData extends PageData {
         String questionText = questionDetailsBundle.getQuestionText();
         String additionalInfo = questionDetailsBundle.getQuestionAdditionalInfoHtml(questionIndex, "");
         String studentEmail = student == null ? null : student.email;
-        String questionResultStatistics = questionDetailsBundle.getQuestionResultStatisticsHtml(
-                                                                    responsesBundle, question, studentEmail,
-                                                                    bundle, "student");
+        String questionResultStatistics = bundle.getQuestionResultStatisticsHtml(responsesBundle, question,
+                                                                                 studentEmail, "student");
 
         boolean isIndividualResponsesShownToStudents = questionDetailsBundle.isIndividualResponsesShownToStudents();
         
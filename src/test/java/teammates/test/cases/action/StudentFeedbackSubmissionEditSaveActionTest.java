@@ -23,6 +23,7 @@ import teammates.logic.core.StudentsLogic;
 import teammates.storage.api.FeedbackQuestionsDb;
 import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.api.FeedbackSessionsDb;
+import teammates.test.driver.AssertHelper;
 import teammates.ui.controller.RedirectResult;
 import teammates.ui.controller.StudentFeedbackSubmissionEditSaveAction;
 
@@ -72,6 +73,18 @@ public class StudentFeedbackSubmissionEditSaveActionTest extends BaseActionTest
                      r.getDestinationWithParams());
         assertNotNull(frDb.getFeedbackResponse(fq.getId(), fr.giver, fr.recipient));
 
+        ______TS("unchanged answer: response is not saved again");
+
+        a = getAction(submissionParams);
+        r = getRedirectResult(a);
+
+        assertFalse(r.isError);
+        assertEquals(Const.StatusMessages.FEEDBACK_RESPONSES_SAVED, r.getStatusMessage());
+        assertEquals("/page/studentHomePage?error=" + r.isError + "&user=student1InCourse1",
+                     r.getDestinationWithParams());
+        AssertHelper.assertContains("Unchanged responses not saved again: 1", a.getLogMessage());
+        assertNotNull(frDb.getFeedbackResponse(fq.getId(), fr.giver, fr.recipient));
+
         ______TS("deleted response");
 
         submissionParams = new String[]{
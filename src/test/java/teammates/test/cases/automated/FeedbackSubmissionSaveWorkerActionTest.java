@@ -0,0 +1,135 @@
+package teammates.test.cases.automated;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.JsonUtils;
+import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.ui.automated.FeedbackSubmissionSaveWorkerAction;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * SUT: {@link FeedbackSubmissionSaveWorkerAction}.
+ */
+public class FeedbackSubmissionSaveWorkerActionTest extends BaseAutomatedActionTest {
+
+    private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
+    private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+
+    @Override
+    protected String getActionUri() {
+        return Const.TaskQueue.FEEDBACK_SUBMISSION_SAVE_WORKER_URL;
+    }
+
+    @Test
+    public void allTests() {
+
+        ______TS("typical case: queued responses are created, updated and deleted");
+
+        FeedbackResponseAttributes responseToUpdate = getResponseFromDatastore("response1ForQ1S1C1");
+        responseToUpdate.responseMetaData = new Text("Queued updated response");
+
+        FeedbackResponseAttributes responseToDelete = getResponseFromDatastore("response2ForQ1S1C1");
+
+        FeedbackResponseAttributes responseToCreate =
+                new FeedbackResponseAttributes(getResponseFromDatastore("response3ForQ2S1C1"));
+        responseToCreate.setId(null);
+        responseToCreate.recipient = "student1InCourse1@gmail.tmt";
+        responseToCreate.responseMetaData = new Text("Queued new response");
+
+        List<FeedbackResponseAttributes> responsesToCreate = new ArrayList<FeedbackResponseAttributes>();
+        responsesToCreate.add(responseToCreate);
+        List<FeedbackResponseAttributes> responsesToUpdate = new ArrayList<FeedbackResponseAttributes>();
+        responsesToUpdate.add(responseToUpdate);
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        responsesToDelete.add(responseToDelete);
+
+        String[] submissionParams = getSubmissionParams(responsesToCreate, responsesToUpdate, responsesToDelete,
+                                                        new Date());
+
+        FeedbackSubmissionSaveWorkerAction action = getAction(submissionParams);
+        action.execute();
+
+        assertEquals("Queued updated response",
+                     getResponseFromDatastore("response1ForQ1S1C1").responseMetaData.getValue());
+        assertNull(getResponseFromDatastore("response2ForQ1S1C1"));
+        assertEquals("Queued new response",
+                     frLogic.getFeedbackResponse(responseToCreate.feedbackQuestionId, responseToCreate.giver,
+                                                 responseToCreate.recipient).responseMetaData.getValue());
+
+        ______TS("a response to update has been deleted in the meantime, the other responses are saved");
+
+        responseToUpdate = getResponseFromDatastore("response1ForQ1S1C1");
+        responseToUpdate.responseMetaData = new Text("Queued response updated again");
+
+        responsesToUpdate.clear();
+        responsesToUpdate.add(responseToDelete);
+        responsesToUpdate.add(responseToUpdate);
+
+        submissionParams = getSubmissionParams(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                               new ArrayList<FeedbackResponseAttributes>(), new Date());
+
+        action = getAction(submissionParams);
+        action.execute();
+
+        assertEquals("Queued response updated again",
+                     getResponseFromDatastore("response1ForQ1S1C1").responseMetaData.getValue());
+        assertNull(getResponseFromDatastore("response2ForQ1S1C1"));
+
+        ______TS("a response saved again since the submission was made is not overwritten");
+
+        responseToUpdate = getResponseFromDatastore("response1ForQ1S1C1");
+        Date submittedAt = new Date(responseToUpdate.getUpdatedAt().getTime() - 1);
+        responseToUpdate.responseMetaData = new Text("Outdated queued response");
+
+        responsesToUpdate.clear();
+        responsesToUpdate.add(responseToUpdate);
+
+        submissionParams = getSubmissionParams(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                               new ArrayList<FeedbackResponseAttributes>(), submittedAt);
+
+        action = getAction(submissionParams);
+        action.execute();
+
+        assertEquals("Queued response updated again",
+                     getResponseFromDatastore("response1ForQ1S1C1").responseMetaData.getValue());
+
+        removeAndRestoreTypicalDataBundle();
+    }
+
+    @Override
+    protected FeedbackSubmissionSaveWorkerAction getAction(String... params) {
+        return (FeedbackSubmissionSaveWorkerAction) gaeSimulation.getAutomatedActionObject(getActionUri(), params);
+    }
+
+    private String[] getSubmissionParams(List<FeedbackResponseAttributes> responsesToCreate,
+                                         List<FeedbackResponseAttributes> responsesToUpdate,
+                                         List<FeedbackResponseAttributes> responsesToDelete, Date submittedAt) {
+        FeedbackResponseAttributes response = responsesToUpdate.get(0);
+        return new String[] {
+                ParamsNames.COURSE_ID, response.courseId,
+                ParamsNames.FEEDBACK_SESSION_NAME, response.feedbackSessionName,
+                ParamsNames.FEEDBACK_RESPONSES_TO_CREATE, JsonUtils.toJson(responsesToCreate),
+                ParamsNames.FEEDBACK_RESPONSES_TO_UPDATE, JsonUtils.toJson(responsesToUpdate),
+                ParamsNames.FEEDBACK_RESPONSES_TO_DELETE, JsonUtils.toJson(responsesToDelete),
+                ParamsNames.FEEDBACK_SUBMISSION_TIMESTAMP, String.valueOf(submittedAt.getTime())
+        };
+    }
+
+    private FeedbackResponseAttributes getResponseFromDatastore(String dataBundleResponseName) {
+        FeedbackResponseAttributes response = dataBundle.feedbackResponses.get(dataBundleResponseName);
+        int questionNumber = Integer.parseInt(response.feedbackQuestionId);
+        String questionId = fqLogic.getFeedbackQuestion(response.feedbackSessionName, response.courseId,
+                                                        questionNumber).getId();
+        return frLogic.getFeedbackResponse(questionId, response.giver, response.recipient);
+    }
+
+}
@@ -192,6 +192,21 @@ public class FeedbackQuestionAttributesTest extends BaseTestCase {
         
         fq = typicalBundle.feedbackQuestions.get("qn2InSession1InCourse1");
         assertEquals(fq.getQuestionDetails().getQuestionText(), "Rate 1 other student's product");
+        
+        ______TS("details are decoded once and shared with copies");
+        
+        assertSame(fq.getQuestionDetails(), fq.getQuestionDetails());
+        assertSame(fq.getQuestionDetails(), fq.getCopy().getQuestionDetails());
+        
+        ______TS("details are decoded again after the metadata is replaced");
+        
+        FeedbackTextQuestionDetails oldDetails = (FeedbackTextQuestionDetails) fq.getQuestionDetails();
+        fq.questionMetaData = new Text("Replaced question text");
+        assertNotSame(oldDetails, fq.getQuestionDetails());
+        assertEquals("Replaced question text", fq.getQuestionDetails().getQuestionText());
+        
+        fq.setQuestionDetails(new FeedbackTextQuestionDetails("Set question text"));
+        assertEquals("Set question text", fq.getQuestionDetails().getQuestionText());
     }
 
     @Test
@@ -0,0 +1,163 @@
+package teammates.test.cases.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackResponseAggregate;
+import teammates.common.datatransfer.FeedbackResponseAggregate.ValueStatistics;
+import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.datatransfer.questions.FeedbackQuestionType;
+import teammates.common.util.JsonUtils;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+public class FeedbackResponseAggregateTest extends BaseTestCase {
+
+    @Test
+    public void testNumericalScaleResponses() {
+
+        ______TS("statistics per recipient");
+
+        FeedbackResponseAttributes selfResponse = createNumScaleResponse("s1@gmail.tmt", "s1@gmail.tmt", 1);
+        FeedbackResponseAttributes response1 = createNumScaleResponse("s2@gmail.tmt", "s1@gmail.tmt", 2.5);
+        FeedbackResponseAttributes response2 = createNumScaleResponse("s3@gmail.tmt", "s1@gmail.tmt", 4.5);
+        FeedbackResponseAttributes response3 = createNumScaleResponse("s1@gmail.tmt", "s2@gmail.tmt", 3);
+        List<FeedbackResponseAttributes> responses = Arrays.asList(selfResponse, response1, response2, response3);
+
+        FeedbackResponseAggregate aggregate = FeedbackResponseAggregate.of(responses);
+        assertEquals(4, aggregate.getNumResponses());
+        assertEquals(2, aggregate.getStatisticsPerRecipient().size());
+        assertTrue(aggregate.getStatisticsPerOption().isEmpty());
+
+        ValueStatistics scores = aggregate.getStatisticsPerRecipient().get("s1@gmail.tmt");
+        assertEquals(3, scores.getCount());
+        assertEquals(1.0, scores.getMin());
+        assertEquals(4.5, scores.getMax());
+        assertEquals(8.0 / 3, scores.getAverage());
+        assertEquals(3.5, scores.getAverageExcludingSelf());
+
+        scores = aggregate.getStatisticsPerRecipient().get("s2@gmail.tmt");
+        assertEquals(3.0, scores.getAverage());
+        assertNull(createSelfOnlyStatistics().getAverageExcludingSelf());
+
+        ______TS("responses are identified regardless of order");
+
+        assertTrue(aggregate.isAggregateOf(Arrays.asList(response3, response2, response1, selfResponse)));
+        assertFalse(aggregate.isAggregateOf(Arrays.asList(selfResponse, response1, response2)));
+        assertFalse(aggregate.isAggregateOf(Arrays.asList(selfResponse, response1, response2,
+                createNumScaleResponse("s3@gmail.tmt", "s2@gmail.tmt", 3))));
+
+        ______TS("responses with changed answers are not identified");
+
+        assertFalse(aggregate.isAggregateOf(Arrays.asList(selfResponse, response1, response2,
+                createNumScaleResponse("s1@gmail.tmt", "s2@gmail.tmt", 4))));
+
+        ______TS("removing responses keeps the minimum and maximum");
+
+        assertTrue(aggregate.remove(selfResponse));
+        assertTrue(aggregate.remove(response2));
+        scores = aggregate.getStatisticsPerRecipient().get("s1@gmail.tmt");
+        assertEquals(1, scores.getCount());
+        assertEquals(2.5, scores.getMin());
+        assertEquals(2.5, scores.getMax());
+        assertEquals(2.5, scores.getAverage());
+        assertTrue(aggregate.isAggregateOf(Arrays.asList(response1, response3)));
+
+        assertTrue(aggregate.remove(response1));
+        assertFalse(aggregate.getStatisticsPerRecipient().containsKey("s1@gmail.tmt"));
+
+        ______TS("updating a response");
+
+        FeedbackResponseAttributes updatedResponse3 = createNumScaleResponse("s1@gmail.tmt", "s2@gmail.tmt", 5);
+        assertTrue(aggregate.remove(response3));
+        aggregate.add(updatedResponse3);
+        assertEquals(5.0, aggregate.getStatisticsPerRecipient().get("s2@gmail.tmt").getAverage());
+        assertTrue(aggregate.isAggregateOf(Arrays.asList(updatedResponse3)));
+
+        ______TS("removing a response that was not added");
+
+        assertFalse(aggregate.remove(response3));
+    }
+
+    @Test
+    public void testConstantSumResponses() {
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        for (int i = 0; i < 12; i++) {
+            responses.add(createConstSumResponse("s" + i + "@gmail.tmt", "s" + i + "@gmail.tmt", i, 100 - i));
+        }
+
+        FeedbackResponseAggregate aggregate = FeedbackResponseAggregate.of(responses);
+
+        ______TS("points per option");
+
+        ValueStatistics points = aggregate.getStatisticsPerOption().get("0");
+        assertEquals(12, points.getCount());
+        assertEquals(5.5, points.getAverage());
+        assertEquals(Arrays.asList(0.0, 1.0, 2.0), points.getLowestValues(3));
+        assertEquals(Arrays.asList(9.0, 10.0, 11.0), points.getHighestValues(3));
+        assertEquals(94.5, aggregate.getStatisticsPerOption().get("1").getAverage());
+
+        ______TS("points per recipient");
+
+        points = aggregate.getStatisticsPerRecipient().get("s3@gmail.tmt");
+        assertEquals(Arrays.asList(3.0, 97.0), points.getLowestValues(10));
+
+        ______TS("repeated points");
+
+        aggregate.add(createConstSumResponse("s12@gmail.tmt", "s12@gmail.tmt", 0, 100));
+        assertEquals(Arrays.asList(0.0, 0.0, 1.0), aggregate.getStatisticsPerOption().get("0").getLowestValues(3));
+    }
+
+    @Test
+    public void testJsonSerialization() {
+        FeedbackResponseAttributes response1 = createNumScaleResponse("s1@gmail.tmt", "s2@gmail.tmt", 2.5);
+        FeedbackResponseAttributes response2 = createNumScaleResponse("s2@gmail.tmt", "s2@gmail.tmt", 1);
+        FeedbackResponseAggregate aggregate = FeedbackResponseAggregate.of(Arrays.asList(response1, response2));
+
+        FeedbackResponseAggregate copy = JsonUtils.fromJson(JsonUtils.toCompactJson(aggregate),
+                                                            FeedbackResponseAggregate.class);
+
+        assertTrue(copy.isAggregateOf(Arrays.asList(response1, response2)));
+        ValueStatistics scores = copy.getStatisticsPerRecipient().get("s2@gmail.tmt");
+        assertEquals(1.0, scores.getMin());
+        assertEquals(2.5, scores.getMax());
+        assertEquals(2.5, scores.getAverageExcludingSelf());
+        assertTrue(copy.remove(response2));
+        assertEquals(2.5, copy.getStatisticsPerRecipient().get("s2@gmail.tmt").getMin());
+    }
+
+    private ValueStatistics createSelfOnlyStatistics() {
+        FeedbackResponseAttributes selfResponse = createNumScaleResponse("s1@gmail.tmt", "s1@gmail.tmt", 1);
+        return FeedbackResponseAggregate.of(Arrays.asList(selfResponse)).getStatisticsPerRecipient().get("s1@gmail.tmt");
+    }
+
+    private FeedbackResponseAttributes createNumScaleResponse(String giver, String recipient, double answer) {
+        return createResponse(FeedbackQuestionType.NUMSCALE, giver, recipient,
+                              "{\"answer\":" + answer + ",\"questionType\":\"NUMSCALE\"}");
+    }
+
+    private FeedbackResponseAttributes createConstSumResponse(String giver, String recipient, int... answers) {
+        StringBuilder answerList = new StringBuilder();
+        for (int answer : answers) {
+            answerList.append(answerList.length() == 0 ? "" : ",").append(answer);
+        }
+        return createResponse(FeedbackQuestionType.CONSTSUM, giver, recipient,
+                              "{\"answers\":[" + answerList + "],\"questionType\":\"CONSTSUM\"}");
+    }
+
+    private FeedbackResponseAttributes createResponse(FeedbackQuestionType questionType, String giver,
+                                                      String recipient, String answer) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+        response.feedbackQuestionId = "questionId";
+        response.feedbackQuestionType = questionType;
+        response.giver = giver;
+        response.recipient = recipient;
+        response.responseMetaData = new Text(answer);
+        return response;
+    }
+
+}
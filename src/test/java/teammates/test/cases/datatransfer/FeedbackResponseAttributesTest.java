@@ -1,13 +1,24 @@
 package teammates.test.cases.datatransfer;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
+import teammates.common.datatransfer.questions.FeedbackMsqQuestionDetails;
+import teammates.common.datatransfer.questions.FeedbackMsqResponseDetails;
+import teammates.common.datatransfer.questions.FeedbackNumericalScaleResponseDetails;
+import teammates.common.datatransfer.questions.FeedbackQuestionType;
+import teammates.common.datatransfer.questions.FeedbackResponseDetails;
+import teammates.common.datatransfer.questions.FeedbackTextResponseDetails;
 import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
 import teammates.test.cases.BaseTestCase;
 
+import com.google.appengine.api.datastore.Text;
+
 public class FeedbackResponseAttributesTest extends BaseTestCase {
 
     private static class FeedbackResponseAttributesWithModifiableTimestamp extends FeedbackResponseAttributes {
@@ -41,4 +52,65 @@ public class FeedbackResponseAttributesTest extends BaseTestCase {
         assertEquals(defaultTimeStamp, fra.getUpdatedAt());
     }
     
+    @Test
+    public void testGetResponseDetails() {
+        FeedbackResponseAttributes fra = new FeedbackResponseAttributes();
+        fra.feedbackQuestionType = FeedbackQuestionType.TEXT;
+        
+        ______TS("missing response");
+        
+        assertNull(fra.getResponseDetails());
+        
+        ______TS("details are decoded once and shared with copies");
+        
+        fra.setResponseDetails(new FeedbackTextResponseDetails("Text answer"));
+        FeedbackResponseDetails details = fra.getResponseDetails();
+        assertEquals("Text answer", details.getAnswerString());
+        assertSame(details, fra.getResponseDetails());
+        assertSame(details, new FeedbackResponseAttributes(fra).getResponseDetails());
+        
+        ______TS("details are decoded again after the metadata is replaced");
+        
+        fra.responseMetaData = new Text("Replaced answer");
+        assertNotSame(details, fra.getResponseDetails());
+        assertEquals("Replaced answer", fra.getResponseDetails().getAnswerString());
+        
+        ______TS("details of another question type");
+        
+        fra.feedbackQuestionType = FeedbackQuestionType.NUMSCALE;
+        fra.responseMetaData = new Text("{\"answer\":3.5,\"questionType\":\"NUMSCALE\"}");
+        assertTrue(fra.getResponseDetails() instanceof FeedbackNumericalScaleResponseDetails);
+        assertEquals("3.5", fra.getResponseDetails().getAnswerString());
+    }
+    
+    @Test
+    public void testSharedResponseDetailsNotChangedByStatistics() {
+        FeedbackMsqQuestionDetails questionDetails = JsonUtils.fromJson(
+                "{\"numOfMsqChoices\":2,\"msqChoices\":[\"Choice 1\",\"Choice 2\"],\"otherEnabled\":true,"
+                + "\"generateOptionsFor\":\"NONE\",\"questionType\":\"MSQ\",\"questionText\":\"MSQ question\"}",
+                FeedbackMsqQuestionDetails.class);
+        
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+        response.feedbackQuestionType = FeedbackQuestionType.MSQ;
+        response.responseMetaData = new Text(
+                "{\"answers\":[\"Choice 2\",\"Other answer\"],\"isOther\":true,"
+                + "\"otherFieldContent\":\"Other answer\",\"questionType\":\"MSQ\"}");
+        FeedbackResponseAttributes copy = new FeedbackResponseAttributes(response);
+        List<FeedbackResponseAttributes> responses = Arrays.asList(response);
+        
+        ______TS("statistics are the same when rendered twice");
+        
+        String statisticsHtml = questionDetails.getQuestionResultStatisticsHtml(responses, null, "", null, "question");
+        String statisticsCsv = questionDetails.getQuestionResultStatisticsCsv(responses, null, null);
+        assertEquals(statisticsHtml,
+                     questionDetails.getQuestionResultStatisticsHtml(responses, null, "", null, "question"));
+        assertEquals(statisticsCsv, questionDetails.getQuestionResultStatisticsCsv(responses, null, null));
+        
+        ______TS("response and its copy are unchanged by rendering the statistics");
+        
+        List<String> expectedAnswers = Arrays.asList("Choice 2", "Other answer");
+        assertEquals(expectedAnswers, ((FeedbackMsqResponseDetails) response.getResponseDetails()).getAnswerStrings());
+        assertEquals(expectedAnswers, ((FeedbackMsqResponseDetails) copy.getResponseDetails()).getAnswerStrings());
+    }
+    
 }
@@ -11,6 +11,7 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.attributes.AccountAttributes;
 import teammates.common.datatransfer.attributes.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
@@ -37,6 +38,7 @@ public class CoursesLogicTest extends BaseLogicTest {
     @Test
     public void testAll() throws Exception {
         testGetCourse();
+        testGetCourseRoster();
         testGetCoursesForInstructor();
         testIsSampleCourse();
         testIsCoursePresent();
@@ -81,6 +83,33 @@ public class CoursesLogicTest extends BaseLogicTest {
         }
     }
 
+    public void testGetCourseRoster() throws Exception {
+        
+        ______TS("success: roster matches students and instructors of the course");
+        
+        String courseId = dataBundle.courses.get("typicalCourse1").getId();
+        CourseRoster roster = coursesLogic.getCourseRoster(courseId);
+        assertEquals(StudentsLogic.inst().getStudentsForCourse(courseId).size(), roster.getStudents().size());
+        assertEquals(InstructorsLogic.inst().getInstructorsForCourse(courseId).size(), roster.getInstructors().size());
+        
+        ______TS("success: roster is read again after a change to the course");
+        
+        StudentAttributes student = dataBundle.students.get("student1InCourse1");
+        StudentsLogic.inst().deleteStudentCascade(courseId, student.email);
+        roster = coursesLogic.getCourseRoster(courseId);
+        assertNull(roster.getStudentForEmail(student.email));
+        assertEquals(StudentsLogic.inst().getStudentsForCourse(courseId).size(), roster.getStudents().size());
+        
+        // restore the deleted student for the tests that follow
+        removeAndRestoreTypicalDataBundle();
+        
+        ______TS("success: course without students");
+        
+        roster = coursesLogic.getCourseRoster("nonexistant-course");
+        assertTrue(roster.getStudents().isEmpty());
+        assertTrue(roster.getInstructors().isEmpty());
+    }
+    
     public void testGetCoursesForInstructor() throws Exception {
 
         ______TS("success: instructor with present courses");
@@ -1,7 +1,10 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -9,6 +12,8 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackResponseAggregate;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.attributes.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.questions.FeedbackQuestionType;
 import teammates.common.datatransfer.attributes.FeedbackResponseAttributes;
@@ -27,11 +32,13 @@ import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackResponseAggregatesCache;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
 import teammates.test.driver.AssertHelper;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
 
 public class FeedbackResponsesLogicTest extends BaseLogicTest {
     
@@ -53,6 +60,9 @@ public class FeedbackResponsesLogicTest extends BaseLogicTest {
     public void allTests() throws Exception {
         testIsNameVisibleTo();
         testGetViewableResponsesForQuestionInSection();
+        testGetFeedbackResponsesForSessionInSectionPage();
+        testSaveFeedbackResponses();
+        testGetFeedbackResponseAggregate();
         testUpdateFeedbackResponse();
         testUpdateFeedbackResponsesForChangingTeam();
         testUpdateFeedbackResponsesForChangingTeam_deleteLastResponse_decreaseResponseRate();
@@ -507,6 +517,260 @@ public class FeedbackResponsesLogicTest extends BaseLogicTest {
         }
     }
     
+    public void testGetFeedbackResponsesForSessionInSectionPage() {
+        String feedbackSessionName = "First feedback session";
+        String courseId = "idOfTypicalCourse1";
+        
+        List<FeedbackResponseAttributes> responsesForSession =
+                frLogic.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+        List<String> responseIdsInSection = new ArrayList<String>();
+        List<String> responseIdsFromSection = new ArrayList<String>();
+        List<String> responseIdsToSection = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responsesForSession) {
+            boolean isFromSection = "Section 1".equals(response.giverSection);
+            boolean isToSection = "Section 1".equals(response.recipientSection);
+            if (isFromSection || isToSection) {
+                responseIdsInSection.add(response.getId());
+            }
+            if (isFromSection) {
+                responseIdsFromSection.add(response.getId());
+            }
+            if (isToSection) {
+                responseIdsToSection.add(response.getId());
+            }
+        }
+        assertFalse(responseIdsInSection.isEmpty());
+        assertTrue(responseIdsInSection.size() < responsesForSession.size());
+        
+        ______TS("all sections, read one response at a time");
+        
+        assertSameResponseIds(getResponseIds(responsesForSession),
+                              getResponseIdsPageByPage(feedbackSessionName, courseId, null, 1));
+        
+        ______TS("one section, read one response at a time");
+        
+        assertSameResponseIds(responseIdsInSection,
+                              getResponseIdsPageByPage(feedbackSessionName, courseId, "Section 1", 1));
+        
+        ______TS("one section, read in a single page");
+        
+        assertSameResponseIds(responseIdsInSection,
+                              getResponseIdsPageByPage(feedbackSessionName, courseId, "Section 1", 100));
+        
+        ______TS("all pages of a section, or of the responses given or received by it");
+        
+        assertSameResponseIds(responseIdsInSection, getResponseIds(
+                frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1")));
+        assertSameResponseIds(responseIdsFromSection, getResponseIds(
+                frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName, courseId, "Section 1")));
+        assertSameResponseIds(responseIdsToSection, getResponseIds(
+                frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName, courseId, "Section 1")));
+        assertSameResponseIds(getResponseIds(responsesForSession), getResponseIds(
+                frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, null)));
+        
+        ______TS("within range");
+        
+        List<FeedbackResponseAttributes> responsesWithinRange =
+                frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName, courseId, "Section 1",
+                                                                           responseIdsInSection.size() - 1);
+        assertEquals(responseIdsInSection.size(), responsesWithinRange.size());
+        assertSameResponseIds(responseIdsInSection, getResponseIds(
+                frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName, courseId, "Section 1",
+                                                                           responseIdsInSection.size())));
+    }
+    
+    public void testSaveFeedbackResponses() throws Exception {
+        
+        ______TS("success: create, update and delete together");
+        
+        FeedbackResponseAttributes responseToUpdate = getResponseFromDatastore("response1ForQ1S1C1");
+        responseToUpdate.responseMetaData = new Text("Updated Response");
+        
+        FeedbackResponseAttributes responseToDelete = getResponseFromDatastore("response2ForQ1S1C1");
+        
+        FeedbackResponseAttributes existingResponse = getResponseFromDatastore("response3ForQ2S1C1");
+        FeedbackResponseAttributes responseToCreate = new FeedbackResponseAttributes(existingResponse);
+        responseToCreate.setId(null);
+        responseToCreate.recipient = "student1InCourse1@gmail.tmt";
+        responseToCreate.responseMetaData = new Text("New Response");
+        
+        List<FeedbackResponseAttributes> responsesToCreate = new ArrayList<FeedbackResponseAttributes>();
+        responsesToCreate.add(responseToCreate);
+        List<FeedbackResponseAttributes> responsesToUpdate = new ArrayList<FeedbackResponseAttributes>();
+        responsesToUpdate.add(responseToUpdate);
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        responsesToDelete.add(responseToDelete);
+        
+        frLogic.saveFeedbackResponses(responsesToCreate, responsesToUpdate, responsesToDelete);
+        
+        assertEquals("Updated Response", getResponseFromDatastore("response1ForQ1S1C1").responseMetaData.getValue());
+        assertNull(getResponseFromDatastore("response2ForQ1S1C1"));
+        assertEquals("New Response",
+                     frLogic.getFeedbackResponse(responseToCreate.feedbackQuestionId, responseToCreate.giver,
+                                                 responseToCreate.recipient).responseMetaData.getValue());
+        
+        ______TS("failure: response to update does not exist");
+        
+        responsesToUpdate.clear();
+        responsesToUpdate.add(responseToDelete);
+        try {
+            frLogic.saveFeedbackResponses(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                          new ArrayList<FeedbackResponseAttributes>());
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("Trying to update a feedback response that does not exist.", e.getMessage());
+        }
+        
+        ______TS("failure: recipient changed to one that already has a response, other responses are saved");
+        
+        FeedbackResponseAttributes responseToUpdateInPlace = getResponseFromDatastore("response1ForQ2S1C1");
+        responseToUpdateInPlace.responseMetaData = new Text("Updated Response 2");
+        
+        FeedbackResponseAttributes responseToRecreate = getResponseFromDatastore("response2ForQ2S1C1");
+        responseToRecreate.recipient = "student3InCourse1@gmail.tmt";
+        
+        // responseToCreate, from the same giver to student1InCourse1@gmail.tmt, was created above
+        FeedbackResponseAttributes conflictingResponse = getResponseFromDatastore("response3ForQ2S1C1");
+        conflictingResponse.recipient = "student1InCourse1@gmail.tmt";
+        
+        responsesToUpdate.clear();
+        responsesToUpdate.add(conflictingResponse);
+        responsesToUpdate.add(responseToUpdateInPlace);
+        responsesToUpdate.add(responseToRecreate);
+        try {
+            frLogic.saveFeedbackResponses(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                          new ArrayList<FeedbackResponseAttributes>());
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains("Trying to update responses to ones that already exist", e.getMessage());
+        }
+        
+        assertEquals("Updated Response 2", getResponseFromDatastore("response1ForQ2S1C1").responseMetaData.getValue());
+        assertNull(getResponseFromDatastore("response2ForQ2S1C1"));
+        assertNotNull(frLogic.getFeedbackResponse(responseToRecreate.feedbackQuestionId, responseToRecreate.giver,
+                                                  "student3InCourse1@gmail.tmt"));
+        assertNotNull(getResponseFromDatastore("response3ForQ2S1C1"));
+        assertEquals("New Response",
+                     frLogic.getFeedbackResponse(responseToCreate.feedbackQuestionId, responseToCreate.giver,
+                                                 responseToCreate.recipient).responseMetaData.getValue());
+        
+        ______TS("success: unchanged response is not written again");
+        
+        FeedbackResponseAttributes unchangedResponse = getResponseFromDatastore("response1ForQ1S1C1");
+        Date updatedAt = unchangedResponse.getUpdatedAt();
+        
+        responsesToUpdate.clear();
+        responsesToUpdate.add(unchangedResponse);
+        int numOfUnchangedResponses =
+                frLogic.saveFeedbackResponses(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                              new ArrayList<FeedbackResponseAttributes>());
+        
+        assertEquals(1, numOfUnchangedResponses);
+        assertEquals(updatedAt, getResponseFromDatastore("response1ForQ1S1C1").getUpdatedAt());
+        
+        unchangedResponse.responseMetaData = new Text("Updated Response 3");
+        numOfUnchangedResponses =
+                frLogic.saveFeedbackResponses(new ArrayList<FeedbackResponseAttributes>(), responsesToUpdate,
+                                              new ArrayList<FeedbackResponseAttributes>());
+        
+        assertEquals(0, numOfUnchangedResponses);
+        assertEquals("Updated Response 3", getResponseFromDatastore("response1ForQ1S1C1").responseMetaData.getValue());
+        
+        removeAndRestoreTypicalDataBundle();
+    }
+    
+    public void testGetFeedbackResponseAggregate() throws Exception {
+        FeedbackResponseAggregatesCache aggregatesCache = new FeedbackResponseAggregatesCache();
+        FeedbackResponseAttributes response1 = getResponseFromDatastore(questionTypeBundle, "response1ForQ1S3C1");
+        FeedbackResponseAttributes response2 = getResponseFromDatastore(questionTypeBundle, "response2ForQ1S3C1");
+        String questionId = response1.feedbackQuestionId;
+        
+        // aggregates are not cached right after the test data is written, as it may not be visible to queries yet
+        MemcacheServiceFactory.getMemcacheService().clearAll();
+        
+        ______TS("aggregate is computed from the responses and cached");
+        
+        FeedbackResponseAggregate aggregate = frLogic.getFeedbackResponseAggregate(questionId);
+        assertEquals(2, aggregate.getNumResponses());
+        assertEquals(3.5, aggregate.getStatisticsPerRecipient().get(response1.recipient).getAverage());
+        assertEquals(2.0, aggregate.getStatisticsPerRecipient().get(response2.recipient).getAverage());
+        assertNotNull(aggregatesCache.getAggregate(questionId));
+        
+        ______TS("cached aggregate is updated with an updated response");
+        
+        response1.responseMetaData = new Text("{\"answer\":5,\"questionType\":\"NUMSCALE\"}");
+        frLogic.updateFeedbackResponse(response1);
+        
+        aggregate = aggregatesCache.getAggregate(questionId);
+        assertEquals(2, aggregate.getNumResponses());
+        assertEquals(5.0, aggregate.getStatisticsPerRecipient().get(response1.recipient).getAverage());
+        
+        ______TS("cached aggregate is updated with deleted and created responses");
+        
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        responsesToDelete.add(response2);
+        frLogic.saveFeedbackResponses(new ArrayList<FeedbackResponseAttributes>(),
+                                      new ArrayList<FeedbackResponseAttributes>(), responsesToDelete);
+        
+        aggregate = aggregatesCache.getAggregate(questionId);
+        assertEquals(1, aggregate.getNumResponses());
+        assertFalse(aggregate.getStatisticsPerRecipient().containsKey(response2.recipient));
+        
+        response2.setId(null);
+        frLogic.createFeedbackResponse(response2);
+        
+        aggregate = aggregatesCache.getAggregate(questionId);
+        assertEquals(2, aggregate.getNumResponses());
+        assertEquals(2.0, aggregate.getStatisticsPerRecipient().get(response2.recipient).getAverage());
+        assertTrue(aggregate.isAggregateOf(frLogic.getFeedbackResponsesForQuestion(questionId)));
+        
+        ______TS("cached aggregate is removed when the question is edited");
+        
+        FeedbackQuestionAttributes question = fqLogic.getFeedbackQuestion(questionId);
+        question.questionDescription = new Text("Changed description");
+        fqLogic.updateFeedbackQuestion(question);
+        
+        assertNull(aggregatesCache.getAggregate(questionId));
+        aggregate = frLogic.getFeedbackResponseAggregate(questionId);
+        assertEquals(5.0, aggregate.getStatisticsPerRecipient().get(response1.recipient).getAverage());
+        
+        removeAndRestoreDataBundle(questionTypeBundle);
+    }
+    
+    private List<String> getResponseIdsPageByPage(String feedbackSessionName, String courseId, String section,
+                                                  int pageSize) {
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        String cursor = null;
+        do {
+            FeedbackResponsesPage page = frLogic.getFeedbackResponsesForSessionInSectionPage(
+                    feedbackSessionName, courseId, section, cursor, pageSize);
+            assertTrue(page.getResponses().size() <= pageSize);
+            responses.addAll(page.getResponses());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        return getResponseIds(responses);
+    }
+    
+    /**
+     * Checks that {@code actualResponseIds} has each of the expected responses exactly once.
+     */
+    private void assertSameResponseIds(List<String> expectedResponseIds, List<String> actualResponseIds) {
+        assertEquals(expectedResponseIds.size(), actualResponseIds.size());
+        Set<String> distinctResponseIds = new HashSet<String>(actualResponseIds);
+        // no response is read twice
+        assertEquals(actualResponseIds.size(), distinctResponseIds.size());
+        assertEquals(new HashSet<String>(expectedResponseIds), distinctResponseIds);
+    }
+    
+    private List<String> getResponseIds(List<FeedbackResponseAttributes> responses) {
+        List<String> responseIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            responseIds.add(response.getId());
+        }
+        return responseIds;
+    }
+    
     public void testIsNameVisibleTo() {
 
         ______TS("testIsNameVisibleTo");
@@ -1,5 +1,6 @@
 package teammates.test.cases.logic;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -7,6 +8,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.testng.annotations.Test;
@@ -26,6 +28,7 @@ import teammates.common.datatransfer.FeedbackSessionStats;
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.datatransfer.attributes.InstructorAttributes;
 import teammates.common.datatransfer.attributes.StudentAttributes;
+import teammates.common.datatransfer.UserRole;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
@@ -38,6 +41,7 @@ import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.test.driver.AssertHelper;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.apphosting.api.ApiProxy;
 
 public class FeedbackSessionsLogicTest extends BaseLogicTest {
     private static FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
@@ -62,6 +66,7 @@ public class FeedbackSessionsLogicTest extends BaseLogicTest {
         testGetFeedbackSessionQuestionsForStudent();
         testGetFeedbackSessionQuestionsForInstructor();
         testGetFeedbackSessionResultsForUser();
+        testGetViewableResponsesForQuestionsInParallel();
         testGetFeedbackSessionResultsSummaryAsCsv();
         testIsFeedbackSessionViewableToStudents();
         
@@ -1119,6 +1124,61 @@ public class FeedbackSessionsLogicTest extends BaseLogicTest {
         //TODO: check for cases where a person is both a student and an instructor
     }
 
+    @SuppressWarnings("unchecked")
+    public void testGetViewableResponsesForQuestionsInParallel() throws Exception {
+
+        ______TS("responses fetched in request threads are the same as when fetched sequentially");
+
+        FeedbackSessionAttributes session = dataBundle.feedbackSessions.get("session1InCourse1");
+        InstructorAttributes instructor = dataBundle.instructors.get("instructor1OfCourse1");
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(session.getFeedbackSessionName(), session.getCourseId());
+        assertTrue(questions.size() > 1);
+
+        // the threads must be able to use the local services of the test, like request threads would
+        final ApiProxy.Environment environment = ApiProxy.getCurrentEnvironment();
+        ThreadFactory requestThreadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable task) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        ApiProxy.setEnvironmentForCurrentThread(environment);
+                        task.run();
+                    }
+                });
+            }
+        };
+
+        Class<?>[] parameterTypes = new Class<?>[] {
+                List.class, String.class, UserRole.class, String.class, boolean.class, ThreadFactory.class };
+        List<List<FeedbackResponseAttributes>> sequentialResponses =
+                (List<List<FeedbackResponseAttributes>>) invokeMethod(
+                        FeedbackSessionsLogic.class, "getViewableResponsesForQuestions", parameterTypes, fsLogic,
+                        new Object[] { questions, instructor.email, UserRole.INSTRUCTOR, null, false, null });
+        List<List<FeedbackResponseAttributes>> parallelResponses =
+                (List<List<FeedbackResponseAttributes>>) invokeMethod(
+                        FeedbackSessionsLogic.class, "getViewableResponsesForQuestions", parameterTypes, fsLogic,
+                        new Object[] { questions, instructor.email, UserRole.INSTRUCTOR, null, false,
+                                       requestThreadFactory });
+
+        assertEquals(questions.size(), parallelResponses.size());
+        int numResponses = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            assertEquals(getResponseIds(sequentialResponses.get(i)), getResponseIds(parallelResponses.get(i)));
+            numResponses += parallelResponses.get(i).size();
+        }
+        assertTrue(numResponses > 0);
+    }
+
+    private List<String> getResponseIds(List<FeedbackResponseAttributes> responses) {
+        List<String> responseIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            responseIds.add(response.getId());
+        }
+        return responseIds;
+    }
+
     public void testGetFeedbackSessionResultsSummaryAsCsv() throws Exception {
 
         ______TS("typical case");
@@ -1206,6 +1266,13 @@ public class FeedbackSessionsLogicTest extends BaseLogicTest {
         };
         
         assertEquals(StringUtils.join(expected, Const.EOL), export);
+        
+        ______TS("typical case: streamed export is the same as the export built in memory");
+        
+        StringWriter exportWriter = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(session.getFeedbackSessionName(),
+                session.getCourseId(), instructor.email, null, null, true, true, exportWriter);
+        assertEquals(export, exportWriter.toString());
 
         ______TS("MCQ results");
         
@@ -1114,9 +1114,11 @@ public class StudentsLogicTest extends BaseLogicTest {
     }
 
     private static StudentEnrollDetails enrollStudent(StudentAttributes student) throws Exception {
-        return (StudentEnrollDetails) invokeMethod(StudentsLogic.class, "enrollStudent",
-                                                   new Class<?>[] { StudentAttributes.class, Boolean.class },
-                                                   StudentsLogic.inst(), new Object[] { student, false });
+        String enrollLines = "Section|Team|Name|Email|Comment" + Const.EOL
+                             + student.section + "|" + student.team + "|" + student.name + "|"
+                             + student.email + "|" + student.comments;
+        CourseEnrollmentResult enrollResult = studentsLogic.enrollStudentsWithoutDocument(enrollLines, student.course);
+        return enrollResult.enrollmentList.get(0);
     }
     
     @SuppressWarnings("unchecked")
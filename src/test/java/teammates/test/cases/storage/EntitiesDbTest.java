@@ -3,6 +3,8 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import javax.jdo.JDOHelper;
+
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.attributes.CourseAttributes;
@@ -11,6 +13,7 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.storage.api.CoursesDb;
+import teammates.storage.api.EntitiesDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -68,4 +71,47 @@ public class EntitiesDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testIsPresentByKey() throws Exception {
+        // the lookup used to verify writes when the keyed consistency mode is configured
+        CoursesDb coursesDb = new CoursesDb();
+        CourseAttributes c = new CourseAttributes("Computing101-keyed", "Basic Computing", "UTC");
+        coursesDb.deleteCourse(c.getId());
+
+        ______TS("success: created entity is found by key");
+        Object objectId = JDOHelper.getObjectId(coursesDb.createEntity(c));
+        assertNotNull(objectId);
+        assertTrue(isPresentByKey(coursesDb, objectId));
+
+        ______TS("success: deleted entity is not found by key");
+        coursesDb.deleteCourse(c.getId());
+        assertFalse(isPresentByKey(coursesDb, objectId));
+
+        ______TS("success: entity without key is treated as present");
+        assertTrue(isPresentByKey(coursesDb, null));
+    }
+
+    @Test
+    public void testPersistencePollingCount() throws Exception {
+        CoursesDb coursesDb = new CoursesDb();
+        CourseAttributes c = new CourseAttributes("Computing101-polling", "Basic Computing", "UTC");
+        coursesDb.deleteCourse(c.getId());
+
+        ______TS("writes that are visible right away are not counted");
+        long pollingCount = EntitiesDb.getPersistencePollingCount();
+        coursesDb.createEntity(c);
+        coursesDb.deleteCourse(c.getId());
+        // the local Datastore makes writes visible to queries right away
+        assertEquals(pollingCount, EntitiesDb.getPersistencePollingCount());
+
+        ______TS("writes that had to be polled for are counted");
+        invokeMethod(EntitiesDb.class, "recordPersistencePolling", new Class<?>[] {}, null, new Object[] {});
+        assertEquals(pollingCount + 1, EntitiesDb.getPersistencePollingCount());
+    }
+
+    private static boolean isPresentByKey(EntitiesDb db, Object objectId) throws Exception {
+        return (boolean) invokeMethod(EntitiesDb.class, "isPresentByKey", new Class<?>[] { Object.class },
+                                      db, new Object[] { objectId });
+    }
+
 }
@@ -1,5 +1,6 @@
 package teammates.test.cases.storage;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
+import teammates.storage.api.FeedbackQuestionStatisticsCache;
 import teammates.storage.api.FeedbackResponsesDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
@@ -150,6 +152,34 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         
     }
 
+    @Test
+    public void testCreateFeedbackResponses() throws Exception {
+        
+        FeedbackResponseAttributes existingResponse = getNewFeedbackResponseAttributes();
+        existingResponse.recipient = "existing-recipient@email.tmt";
+        frDb.deleteEntity(existingResponse);
+        frDb.createEntity(existingResponse);
+        
+        FeedbackResponseAttributes newResponse = getNewFeedbackResponseAttributes();
+        newResponse.recipient = "new-recipient@email.tmt";
+        frDb.deleteEntity(newResponse);
+        
+        ______TS("success : new responses are created and existing ones are updated");
+        
+        FeedbackResponseAttributes updatedResponse = getNewFeedbackResponseAttributes();
+        updatedResponse.recipient = existingResponse.recipient;
+        updatedResponse.setResponseDetails(new FeedbackTextResponseDetails("Updated text response"));
+        frDb.createFeedbackResponses(Arrays.asList(updatedResponse, newResponse));
+        
+        verifyPresentInDatastore(newResponse);
+        FeedbackResponseAttributes actualResponse = frDb.getFeedbackResponse(
+                existingResponse.feedbackQuestionId, existingResponse.giver, existingResponse.recipient);
+        assertEquals("Updated text response", actualResponse.getResponseDetails().getAnswerString());
+        
+        frDb.deleteEntity(existingResponse);
+        frDb.deleteEntity(newResponse);
+    }
+    
     @Test
     public void testGetFeedbackResponses() {
         
@@ -810,6 +840,9 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                     answer, FeedbackQuestionType.TEXT,
                     null, requestParameters, 1, 0);
         modifiedResponse.setResponseDetails(frd);
+        FeedbackQuestionStatisticsCache statisticsCache = new FeedbackQuestionStatisticsCache();
+        String statisticsVersion = statisticsCache.getStatisticsVersion(modifiedResponse.courseId,
+                                                                        modifiedResponse.feedbackSessionName);
         frDb.updateFeedbackResponse(modifiedResponse);
         
         verifyPresentInDatastore(modifiedResponse);
@@ -818,6 +851,33 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                                                     modifiedResponse.recipient);
         assertEquals("New answer text!", modifiedResponse.getResponseDetails().getAnswerString());
         
+        // statistics cached for the session before the update must no longer be used
+        assertFalse(statisticsVersion.equals(statisticsCache.getStatisticsVersion(
+                modifiedResponse.courseId, modifiedResponse.feedbackSessionName)));
+
+        ______TS("changing the giver or recipient section updates the sections of the response");
+
+        String originalGiverSection = modifiedResponse.giverSection;
+        String originalRecipientSection = modifiedResponse.recipientSection;
+
+        modifiedResponse.giverSection = "New Giver Section";
+        frDb.updateFeedbackResponse(modifiedResponse);
+        assertEquals(Arrays.asList("New Giver Section", originalRecipientSection),
+                     frDb.getFeedbackResponseEntityOptimized(modifiedResponse).getSections());
+
+        modifiedResponse.recipientSection = "New Giver Section";
+        frDb.updateFeedbackResponse(modifiedResponse);
+        assertEquals(Arrays.asList("New Giver Section"),
+                     frDb.getFeedbackResponseEntityOptimized(modifiedResponse).getSections());
+
+        modifiedResponse.giverSection = originalGiverSection;
+        modifiedResponse.recipientSection = originalRecipientSection;
+        frDb.updateFeedbackResponse(modifiedResponse);
+        assertEquals(originalGiverSection.equals(originalRecipientSection)
+                             ? Arrays.asList(originalGiverSection)
+                             : Arrays.asList(originalGiverSection, originalRecipientSection),
+                     frDb.getFeedbackResponseEntityOptimized(modifiedResponse).getSections());
+
     }
     
     private FeedbackResponseAttributes getNewFeedbackResponseAttributes() {
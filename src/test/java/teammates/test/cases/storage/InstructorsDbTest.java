@@ -1,6 +1,7 @@
 package teammates.test.cases.storage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -139,6 +140,35 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         }
     }
     
+    @Test
+    public void testGetInstructorsForEmails() {
+        
+        InstructorAttributes i1 = dataBundle.instructors.get("instructor1OfCourse1");
+        InstructorAttributes i2 = dataBundle.instructors.get("instructor2OfCourse1");
+        
+        ______TS("Success: get instructors, emails without an instructor are skipped");
+        
+        List<InstructorAttributes> retrieved = instructorsDb.getInstructorsForEmails(
+                i1.courseId, Arrays.asList(i2.email, "non.existent@email.com", i1.email));
+        assertEquals(2, retrieved.size());
+        assertEquals(i2.email, retrieved.get(0).email);
+        assertEquals(i1.email, retrieved.get(1).email);
+        
+        ______TS("Failure: no instructors for the emails");
+        
+        retrieved = instructorsDb.getInstructorsForEmails("non.existent.course", Arrays.asList(i1.email));
+        assertTrue(retrieved.isEmpty());
+        
+        ______TS("Failure: null parameters");
+
+        try {
+            instructorsDb.getInstructorsForEmails(i1.courseId, null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getMessage());
+        }
+    }
+    
     @Test
     public void testGetInstructorForGoogleId() {
         
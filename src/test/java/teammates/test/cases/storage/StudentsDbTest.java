@@ -3,6 +3,9 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.attributes.StudentAttributes;
@@ -11,6 +14,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
+import teammates.common.util.RequestScopedCache;
 import teammates.common.util.StringHelper;
 import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
@@ -284,6 +288,143 @@ public class StudentsDbTest extends BaseComponentTestCase {
         
     }
     
+    @Test
+    public void testGetStudentsForEmails() throws Exception {
+        StudentAttributes s1 = new StudentAttributes("valid-section", "valid-batch-team", "batch student 1",
+                                                     "batch1@email.com", "", "valid-course");
+        s1.googleId = "";
+        StudentAttributes s2 = new StudentAttributes("valid-section", "valid-batch-team", "batch student 2",
+                                                     "batch2@email.com", "", "valid-course");
+        s2.googleId = "";
+        studentsDb.createEntity(s1);
+        studentsDb.createEntity(s2);
+        
+        ______TS("success : typical case, emails without a student are skipped");
+        
+        List<StudentAttributes> students = studentsDb.getStudentsForEmails(
+                s1.course, Arrays.asList(s1.email, "non-existent@email.com", s2.email, s1.email));
+        assertEquals(2, students.size());
+        assertEquals(s1.name, students.get(0).name);
+        assertEquals(s2.name, students.get(1).name);
+        
+        assertTrue(studentsDb.getStudentsForEmails("non-existent-course", Arrays.asList(s1.email)).isEmpty());
+        
+        ______TS("success : student whose email has changed since creation");
+        
+        studentsDb.updateStudentWithoutSearchability(s2.course, s2.email, s2.name, s2.team, s2.section,
+                                                     "batch2.new@email.com", s2.googleId, s2.comments);
+        students = studentsDb.getStudentsForEmails(s2.course, Arrays.asList(s2.email, "batch2.new@email.com"));
+        assertEquals(1, students.size());
+        assertEquals("batch2.new@email.com", students.get(0).email);
+        
+        ______TS("failure : null parameters");
+        
+        try {
+            studentsDb.getStudentsForEmails(null, Arrays.asList(s1.email));
+            signalFailureToDetectException();
+        } catch (AssertionError ae) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, ae.getMessage());
+        }
+        
+        studentsDb.deleteStudentWithoutDocument(s1.course, s1.email);
+        studentsDb.deleteStudentWithoutDocument(s2.course, "batch2.new@email.com");
+    }
+    
+    @Test
+    public void testCreateAndUpdateStudents() throws Exception {
+        StudentAttributes s1 = new StudentAttributes("valid-section", "valid-enroll-team", "enrolled student 1",
+                                                     "enroll1@email.com", "", "valid-course");
+        s1.googleId = "";
+        StudentAttributes s2 = new StudentAttributes("valid-section", "valid-enroll-team", "enrolled student 2",
+                                                     "enroll2@email.com", "", "valid-course");
+        s2.googleId = "";
+        
+        ______TS("success : create students in one batch");
+        
+        List<StudentAttributes> createdStudents = studentsDb.createStudents(Arrays.asList(s1, s2), false);
+        assertEquals(2, createdStudents.size());
+        assertNotNull(createdStudents.get(0).key);
+        assertEquals(s1.name, studentsDb.getStudentForEmail(s1.course, s1.email).name);
+        assertEquals(s2.name, studentsDb.getStudentForEmail(s2.course, s2.email).name);
+        
+        ______TS("failure : create existing student");
+        
+        StudentAttributes s3 = new StudentAttributes("valid-section", "valid-enroll-team", "enrolled student 3",
+                                                     "enroll3@email.com", "", "valid-course");
+        s3.googleId = "";
+        try {
+            studentsDb.createStudents(Arrays.asList(s1, s3), false);
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains(s1.getIdentificationString(), e.getMessage());
+        }
+        assertNotNull(studentsDb.getStudentForEmail(s3.course, s3.email));
+        
+        ______TS("success : update students in one batch");
+        
+        s1.team = "valid-enroll-team-2";
+        s2.section = "valid-section-2";
+        s2.comments = "updated comment";
+        studentsDb.updateStudents(s1.course, Arrays.asList(s1, s2), false);
+        assertEquals("valid-enroll-team-2", studentsDb.getStudentForEmail(s1.course, s1.email).team);
+        StudentAttributes updatedStudent = studentsDb.getStudentForEmail(s2.course, s2.email);
+        assertEquals("valid-section-2", updatedStudent.section);
+        assertEquals("updated comment", updatedStudent.comments);
+        
+        ______TS("failure : update non-existent student, no student is updated");
+        
+        s1.team = "valid-enroll-team-3";
+        StudentAttributes nonExistentStudent = new StudentAttributes("valid-section", "valid-enroll-team",
+                "non-existent student", "non-existent@email.com", "", "valid-course");
+        try {
+            studentsDb.updateStudents(s1.course, Arrays.asList(s1, nonExistentStudent), false);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains(StudentsDb.ERROR_UPDATE_NON_EXISTENT_STUDENT, e.getMessage());
+        }
+        assertEquals("valid-enroll-team-2", studentsDb.getStudentForEmail(s1.course, s1.email).team);
+        
+        studentsDb.deleteStudentWithoutDocument(s1.course, s1.email);
+        studentsDb.deleteStudentWithoutDocument(s2.course, s2.email);
+        studentsDb.deleteStudentWithoutDocument(s3.course, s3.email);
+    }
+    
+    @Test
+    public void testRequestScopedCache() throws Exception {
+        StudentAttributes s = new StudentAttributes("valid-section", "valid-cached-team", "valid student",
+                                                    "cached@email.com", "", "valid-course");
+        s.googleId = "";
+        studentsDb.createEntity(s);
+        
+        RequestScopedCache.begin();
+        try {
+            ______TS("success : repeated reads are served from the cache");
+            
+            StudentAttributes cachedStudent = studentsDb.getStudentForEmail(s.course, s.email);
+            assertEquals(s.name, cachedStudent.name);
+            
+            // modifying a returned student must not affect the cached copy
+            cachedStudent.name = "modified name";
+            assertEquals(s.name, studentsDb.getStudentForEmail(s.course, s.email).name);
+            assertEquals(s.name, studentsDb.getStudentsForTeam(s.team, s.course).get(0).name);
+            
+            ______TS("success : update invalidates the cache");
+            
+            studentsDb.updateStudentWithoutSearchability(s.course, s.email, "updated name", s.team,
+                                                         s.section, s.email, s.googleId, s.comments);
+            assertEquals("updated name", studentsDb.getStudentForEmail(s.course, s.email).name);
+            assertEquals("updated name", studentsDb.getStudentsForTeam(s.team, s.course).get(0).name);
+            
+            ______TS("success : delete invalidates the cache");
+            
+            studentsDb.deleteStudentWithoutDocument(s.course, s.email);
+            assertNull(studentsDb.getStudentForEmail(s.course, s.email));
+            assertTrue(studentsDb.getStudentsForTeam(s.team, s.course).isEmpty());
+        } finally {
+            RequestScopedCache.end();
+        }
+    }
+    
     private StudentAttributes createNewStudent() throws InvalidParametersException {
         StudentAttributes s = new StudentAttributes();
         s.name = "valid student";
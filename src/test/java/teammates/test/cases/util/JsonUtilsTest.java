@@ -0,0 +1,44 @@
+package teammates.test.cases.util;
+
+import java.util.Date;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.attributes.CourseAttributes;
+import teammates.common.util.JsonUtils;
+import teammates.test.cases.BaseTestCase;
+
+public class JsonUtilsTest extends BaseTestCase {
+
+    @Test
+    public void testToJson() {
+        CourseAttributes course = new CourseAttributes("valid-course", "Valid <b>Course</b>", "UTC");
+
+        ______TS("pretty-printed");
+
+        String prettyJson = JsonUtils.toJson(course);
+        assertTrue(prettyJson.contains("\n  \"name\": \"Valid <b>Course</b>\""));
+
+        ______TS("compact");
+
+        String compactJson = JsonUtils.toCompactJson(course);
+        assertFalse(compactJson.contains("\n"));
+        assertTrue(compactJson.contains("\"name\":\"Valid <b>Course</b>\""));
+        assertEquals(compactJson, JsonUtils.toCompactJson(course, CourseAttributes.class));
+
+        ______TS("both forms are read back the same");
+
+        CourseAttributes fromPretty = JsonUtils.fromJson(prettyJson, CourseAttributes.class);
+        CourseAttributes fromCompact = JsonUtils.fromJson(compactJson, CourseAttributes.class);
+        assertEquals(course.getId(), fromPretty.getId());
+        assertEquals(prettyJson, JsonUtils.toJson(fromCompact));
+    }
+
+    @Test
+    public void testFromJsonWithOtherDateFormat() {
+        String json = "\"Jan 1, 2016 12:00:00 AM\"";
+        Date date = JsonUtils.fromJson(json, Date.class);
+        assertNotNull(date);
+    }
+
+}
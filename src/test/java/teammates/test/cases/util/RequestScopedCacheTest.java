@@ -0,0 +1,54 @@
+package teammates.test.cases.util;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.RequestScopedCache;
+import teammates.test.cases.BaseTestCase;
+
+public class RequestScopedCacheTest extends BaseTestCase {
+
+    @Test
+    public void testCacheLifecycle() {
+        ______TS("inactive cache: puts are ignored");
+        
+        assertFalse(RequestScopedCache.isActive());
+        RequestScopedCache.put("ns", "key", "value");
+        assertFalse(RequestScopedCache.contains("ns", "key"));
+        assertNull(RequestScopedCache.get("ns", "key"));
+        
+        RequestScopedCache.begin();
+        try {
+            ______TS("active cache: values and misses are remembered");
+            
+            assertTrue(RequestScopedCache.isActive());
+            RequestScopedCache.put("ns", "key", "value");
+            RequestScopedCache.put("ns", "missing", null);
+            RequestScopedCache.put("other", "key", "other value");
+            
+            assertEquals("value", RequestScopedCache.get("ns", "key"));
+            assertTrue(RequestScopedCache.contains("ns", "missing"));
+            assertNull(RequestScopedCache.get("ns", "missing"));
+            
+            ______TS("invalidation only affects the given namespace");
+            
+            RequestScopedCache.invalidate("ns");
+            assertFalse(RequestScopedCache.contains("ns", "key"));
+            assertFalse(RequestScopedCache.contains("ns", "missing"));
+            assertEquals("other value", RequestScopedCache.get("other", "key"));
+        } finally {
+            RequestScopedCache.end();
+        }
+        
+        ______TS("ended cache: everything is released");
+        
+        assertFalse(RequestScopedCache.isActive());
+        assertFalse(RequestScopedCache.contains("other", "key"));
+    }
+    
+    @Test
+    public void testGenerateKey() {
+        assertFalse(RequestScopedCache.generateKey("ab", "c").equals(RequestScopedCache.generateKey("a", "bc")));
+        assertEquals(RequestScopedCache.generateKey("a", "b"), RequestScopedCache.generateKey("a", "b"));
+    }
+
+}